@@ -0,0 +1,177 @@
+package ru.yandex.practicum.filmorate.compression;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.yandex.practicum.filmorate.service.FilmService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Хранит уже сжатый gzip ответ {@code GET /films/popular}, пока рейтинг не изменился, и отдаёт
+ * его без вызова контроллера и повторного сжатия. Порог размера и список типов содержимого берутся
+ * из {@code server.compression.*}, как и у сжатия остальных ответов сервером.
+ * <p>
+ * Фильтр только сжимает и запоминает ответ, а готовый ответ отдаёт перехватчик, который стоит после
+ * остальных: ограничение частоты, трассировка и ожидание версии реплики работают и для попаданий в кэш.
+ */
+@Component
+@ConditionalOnProperty(prefix = "filmorate.compression.precompressed", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class PrecompressedPopularFilter extends OncePerRequestFilter implements HandlerInterceptor, WebMvcConfigurer {
+    static final String PATH = "/films/popular";
+    private static final String MISS_ATTRIBUTE = PrecompressedPopularFilter.class.getName() + ".miss";
+
+    private final FilmService filmService;
+    private final PrecompressedResponseProperties properties;
+    private final Compression compression;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public PrecompressedPopularFilter(FilmService filmService, PrecompressedResponseProperties properties,
+                                      ServerProperties serverProperties, MeterRegistry registry) {
+        this.filmService = filmService;
+        this.properties = properties;
+        this.compression = serverProperties.getCompression();
+        this.hits = requests(registry, "hit");
+        this.misses = requests(registry, "miss");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod())
+                || !PATH.equals(request.getRequestURI())
+                || !acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    /**
+     * Сжимает и запоминает ответ контроллера. Если ответ отдал из кэша перехватчик или запрос отклонил
+     * другой перехватчик, тело передаётся клиенту как есть.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        byte[] body = wrapper.getContentAsByteArray();
+        String contentType = wrapper.getContentType();
+        if (!(request.getAttribute(MISS_ATTRIBUTE) instanceof Miss miss)
+                || wrapper.getStatus() != HttpServletResponse.SC_OK || !compressible(contentType, body.length)) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        byte[] compressed = gzip(body);
+        if (filmService.getPopularFilmsVersion() == miss.version) {
+            if (cache.size() >= properties.maxEntries()) {
+                cache.clear();
+            }
+            cache.put(miss.key, new Entry(contentType, compressed, miss.version, miss.startedAt));
+        }
+        write(response, contentType, compressed);
+    }
+
+    /**
+     * Отдаёт сжатый ответ из кэша после остальных перехватчиков, не вызывая контроллер.
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (shouldNotFilter(request)) {
+            return true;
+        }
+        String key = request.getQueryString() + '|' + request.getHeader(HttpHeaders.ACCEPT);
+        long version = filmService.getPopularFilmsVersion();
+        long now = System.nanoTime();
+        Entry entry = cache.get(key);
+        if (entry != null && entry.version == version && now - entry.createdAt < properties.ttl().toNanos()) {
+            hits.increment();
+            write(response, entry.contentType, entry.body);
+            return false;
+        }
+        misses.increment();
+        request.setAttribute(MISS_ATTRIBUTE, new Miss(key, version, now));
+        return true;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this)
+                .addPathPatterns(PATH)
+                .order(Ordered.LOWEST_PRECEDENCE);
+    }
+
+    private boolean compressible(String contentType, int length) {
+        if (contentType == null || length < compression.getMinResponseSize().toBytes()) {
+            return false;
+        }
+        MediaType type = MediaType.parseMediaType(contentType);
+        for (String allowed : compression.getMimeTypes()) {
+            if (MediaType.parseMediaType(allowed).isCompatibleWith(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void write(HttpServletResponse response, String contentType, byte[] body) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").equals("q=0");
+            }
+        }
+        return false;
+    }
+
+    static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder("filmorate.compression.precompressed.requests")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private record Entry(String contentType, byte[] body, long version, long createdAt) {
+    }
+
+    private record Miss(String key, long version, long startedAt) {
+    }
+}
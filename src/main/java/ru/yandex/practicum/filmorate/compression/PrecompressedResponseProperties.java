@@ -0,0 +1,14 @@
+package ru.yandex.practicum.filmorate.compression;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "filmorate.compression.precompressed")
+public record PrecompressedResponseProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1s") Duration ttl,
+        @DefaultValue("64") int maxEntries
+) {
+}
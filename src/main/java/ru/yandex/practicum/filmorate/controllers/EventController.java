@@ -0,0 +1,28 @@
+package ru.yandex.practicum.filmorate.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.yandex.practicum.filmorate.events.SseEventStreamer;
+
+@RestController
+@RequestMapping("/events")
+public class EventController {
+    private final SseEventStreamer streamer;
+
+    @Autowired
+    public EventController(SseEventStreamer streamer) {
+        this.streamer = streamer;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestParam(required = false) Long from,
+                                @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        if (from == null && lastEventId != null) {
+            from = lastEventId + 1;
+        }
+        return streamer.subscribe(from);
+    }
+
+}
@@ -57,7 +57,11 @@ public class FilmController {
 
     @GetMapping("/popular")
     @ResponseStatus(HttpStatus.OK)
-    public Collection<Film> findPopular(@RequestParam(defaultValue = "10") int count) {
+    public Collection<Film> findPopular(@RequestParam(defaultValue = "10") int count,
+                                        @RequestParam(defaultValue = "false") boolean approximate) {
+        if (approximate) {
+            return service.getApproximatePopularFilms(count);
+        }
         return service.getPopularFilms(count);
     }
 
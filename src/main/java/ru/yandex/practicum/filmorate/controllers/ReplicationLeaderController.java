@@ -0,0 +1,47 @@
+package ru.yandex.practicum.filmorate.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.replication.ReplicationBatch;
+import ru.yandex.practicum.filmorate.replication.ReplicationLog;
+import ru.yandex.practicum.filmorate.replication.ReplicationProperties;
+import ru.yandex.practicum.filmorate.replication.ReplicationSnapshot;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+@RestController
+@RequestMapping("/internal/replication")
+@ConditionalOnProperty(prefix = "filmorate.replication", name = "leader", havingValue = "true")
+public class ReplicationLeaderController {
+    private final ReplicationLog log;
+    private final FilmStorage filmStorage;
+    private final UserStorage userStorage;
+    private final long maxWaitMillis;
+
+    @Autowired
+    public ReplicationLeaderController(ReplicationLog log, FilmStorage filmStorage, UserStorage userStorage,
+                                       ReplicationProperties properties) {
+        this.log = log;
+        this.filmStorage = filmStorage;
+        this.userStorage = userStorage;
+        this.maxWaitMillis = properties.pollWait().toMillis();
+    }
+
+    @GetMapping("/log")
+    public ReplicationBatch read(@RequestParam long after,
+                                 @RequestParam(defaultValue = "1000") int limit,
+                                 @RequestParam(defaultValue = "0") long waitMillis) throws InterruptedException {
+        if (limit <= 0) {
+            throw new ValidationException("Количество limit должно быть положительным числом.");
+        }
+        return log.read(after, limit, Math.clamp(waitMillis, 0, maxWaitMillis));
+    }
+
+    @GetMapping("/snapshot")
+    public ReplicationSnapshot snapshot() {
+        return log.snapshot(filmStorage::list, userStorage::list);
+    }
+
+}
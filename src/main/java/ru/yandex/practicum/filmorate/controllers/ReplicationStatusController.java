@@ -0,0 +1,30 @@
+package ru.yandex.practicum.filmorate.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+import ru.yandex.practicum.filmorate.replication.ReplicationFollower;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/internal/replication")
+@ConditionalOnProperty(prefix = "filmorate.storage", name = "mode", havingValue = "replica")
+public class ReplicationStatusController {
+    private final ReplicationFollower follower;
+
+    @Autowired
+    public ReplicationStatusController(ReplicationFollower follower) {
+        this.follower = follower;
+    }
+
+    @GetMapping("/status")
+    public Map<String, Object> status() {
+        return Map.of(
+                "appliedVersion", follower.getAppliedVersion(),
+                "lagOperations", follower.getLagOperations(),
+                "lagMillis", follower.getLag().toMillis()
+        );
+    }
+
+}
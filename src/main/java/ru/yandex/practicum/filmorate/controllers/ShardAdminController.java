@@ -0,0 +1,27 @@
+package ru.yandex.practicum.filmorate.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+import ru.yandex.practicum.filmorate.storage.shard.ShardRebalancer;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/internal/shards")
+@ConditionalOnProperty(prefix = "filmorate.storage", name = "mode", havingValue = "sharded")
+public class ShardAdminController {
+    private final ShardRebalancer rebalancer;
+
+    @Autowired
+    public ShardAdminController(ShardRebalancer rebalancer) {
+        this.rebalancer = rebalancer;
+    }
+
+    @PostMapping("/rebalance")
+    public Map<String, Integer> rebalance(@RequestBody List<String> nodes) {
+        return rebalancer.rebalance(nodes);
+    }
+
+}
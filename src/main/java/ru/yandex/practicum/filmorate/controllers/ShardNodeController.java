@@ -0,0 +1,116 @@
+package ru.yandex.practicum.filmorate.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.storage.shard.LocalFilmShard;
+import ru.yandex.practicum.filmorate.storage.shard.LocalUserShard;
+
+import java.util.Collection;
+import java.util.List;
+
+@RestController
+@RequestMapping("/internal/shard")
+@ConditionalOnProperty(prefix = "filmorate.shard.node", name = "enabled", havingValue = "true")
+public class ShardNodeController {
+    private final LocalFilmShard films;
+    private final LocalUserShard users;
+
+    @Autowired
+    public ShardNodeController(LocalFilmShard films, LocalUserShard users) {
+        this.films = films;
+        this.users = users;
+    }
+
+    @GetMapping("/films")
+    public Collection<Film> listFilms() {
+        return films.list();
+    }
+
+    @GetMapping("/films/{filmId}")
+    public Film getFilm(@PathVariable int filmId) {
+        return films.get(filmId);
+    }
+
+    @PutMapping("/films")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void putFilm(@RequestBody Film film) {
+        films.put(film);
+    }
+
+    @DeleteMapping("/films/{filmId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void removeFilm(@PathVariable int filmId) {
+        films.remove(filmId);
+    }
+
+    @PutMapping("/films/{filmId}/likes/{userId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void addLike(@PathVariable int filmId, @PathVariable int userId) {
+        films.addLike(filmId, userId);
+    }
+
+    @DeleteMapping("/films/{filmId}/likes/{userId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void removeLike(@PathVariable int filmId, @PathVariable int userId) {
+        films.removeLike(filmId, userId);
+    }
+
+    @GetMapping("/films/popular")
+    public Collection<Film> getPopular(@RequestParam int count) {
+        return films.getPopular(count);
+    }
+
+    @GetMapping("/films/max-id")
+    public int maxFilmId() {
+        return films.maxId();
+    }
+
+    @GetMapping("/users")
+    public Collection<User> listUsers() {
+        return users.list();
+    }
+
+    @GetMapping("/users/{userId}")
+    public User getUser(@PathVariable int userId) {
+        return users.get(userId);
+    }
+
+    @PostMapping("/users/batch")
+    public Collection<User> getUsers(@RequestBody List<Integer> userIds) {
+        return users.getAll(userIds);
+    }
+
+    @PutMapping("/users")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void putUser(@RequestBody User user) {
+        users.put(user);
+    }
+
+    @DeleteMapping("/users/{userId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void removeUser(@PathVariable int userId) {
+        users.remove(userId);
+    }
+
+    @PutMapping("/users/{userId}/friends/{friendId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void addFriendLink(@PathVariable int userId, @PathVariable int friendId) {
+        users.addFriendLink(userId, friendId);
+    }
+
+    @DeleteMapping("/users/{userId}/friends/{friendId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void removeFriendLink(@PathVariable int userId, @PathVariable int friendId) {
+        users.removeFriendLink(userId, friendId);
+    }
+
+    @GetMapping("/users/max-id")
+    public int maxUserId() {
+        return users.maxId();
+    }
+
+}
@@ -0,0 +1,31 @@
+package ru.yandex.practicum.filmorate.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.tracing.SlowTrace;
+import ru.yandex.practicum.filmorate.tracing.Tracer;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/internal/traces")
+@ConditionalOnProperty(prefix = "filmorate.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TraceController {
+    private final Tracer tracer;
+
+    @Autowired
+    public TraceController(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @GetMapping("/slow")
+    public List<SlowTrace> slow(@RequestParam(defaultValue = "20") int limit) {
+        if (limit <= 0) {
+            throw new ValidationException("Количество limit должно быть положительным числом.");
+        }
+        return tracer.getSlowTraces(limit);
+    }
+
+}
@@ -5,6 +5,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import ru.yandex.practicum.filmorate.models.User;
 import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.service.graph.FriendGraphService;
+import ru.yandex.practicum.filmorate.service.graph.FriendGraphStats;
 
 import java.util.Collection;
 import java.util.Optional;
@@ -14,10 +16,12 @@ import java.util.Optional;
 public class UserController {
 
     private final UserService service;
+    private final FriendGraphService graphService;
 
     @Autowired
-    public UserController(UserService service) {
+    public UserController(UserService service, FriendGraphService graphService) {
         this.service = service;
+        this.graphService = graphService;
     }
 
     @GetMapping
@@ -68,4 +72,28 @@ public class UserController {
         return service.getCommonFriends(userId, otherId);
     }
 
+    @GetMapping("/graph/degrees")
+    @ResponseStatus(HttpStatus.OK)
+    public FriendGraphStats.Degrees findDegrees() {
+        return graphService.getDegrees();
+    }
+
+    @GetMapping("/graph/components")
+    @ResponseStatus(HttpStatus.OK)
+    public FriendGraphStats.Components findComponents(@RequestParam(defaultValue = "10") int count) {
+        return graphService.getComponents(count);
+    }
+
+    @GetMapping("/{userId}/component")
+    @ResponseStatus(HttpStatus.OK)
+    public FriendGraphStats.UserComponent findComponent(@PathVariable int userId) {
+        return graphService.getComponent(userId);
+    }
+
+    @GetMapping("/{userId}/distance/{otherId}")
+    @ResponseStatus(HttpStatus.OK)
+    public FriendGraphStats.Distance findDistance(@PathVariable int userId, @PathVariable int otherId) {
+        return graphService.getDistance(userId, otherId);
+    }
+
 }
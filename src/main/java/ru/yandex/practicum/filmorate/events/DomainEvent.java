@@ -0,0 +1,6 @@
+package ru.yandex.practicum.filmorate.events;
+
+import java.time.Instant;
+
+public record DomainEvent(long offset, DomainEventType type, int entityId, Integer relatedId, Instant timestamp) {
+}
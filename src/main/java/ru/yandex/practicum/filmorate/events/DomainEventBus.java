@@ -0,0 +1,35 @@
+package ru.yandex.practicum.filmorate.events;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+@Component
+public class DomainEventBus {
+    private final EventRingBuffer<DomainEvent> buffer;
+
+    public DomainEventBus(EventStreamProperties properties) {
+        this.buffer = new EventRingBuffer<>(properties.capacity());
+    }
+
+    public DomainEvent publish(DomainEventType type, int entityId) {
+        return publish(type, entityId, null);
+    }
+
+    public DomainEvent publish(DomainEventType type, int entityId, Integer relatedId) {
+        Instant now = Instant.now();
+        return buffer.publish(offset -> new DomainEvent(offset, type, entityId, relatedId, now));
+    }
+
+    public DomainEvent get(long offset) {
+        return buffer.get(offset);
+    }
+
+    public long nextOffset() {
+        return buffer.nextSequence();
+    }
+
+    public long oldestOffset() {
+        return buffer.oldestSequence();
+    }
+}
@@ -0,0 +1,12 @@
+package ru.yandex.practicum.filmorate.events;
+
+public enum DomainEventType {
+    FILM_CREATED,
+    FILM_UPDATED,
+    LIKE_ADDED,
+    LIKE_REMOVED,
+    USER_CREATED,
+    USER_UPDATED,
+    FRIEND_ADDED,
+    FRIEND_REMOVED
+}
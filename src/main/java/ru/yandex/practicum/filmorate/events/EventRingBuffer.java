@@ -0,0 +1,53 @@
+package ru.yandex.practicum.filmorate.events;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * Ограниченный кольцевой буфер без блокировок: писатели никогда не ждут читателей
+ * и перезаписывают самые старые элементы, а каждый читатель идёт по своему смещению.
+ */
+public class EventRingBuffer<T> {
+    private final int mask;
+    private final AtomicReferenceArray<Slot<T>> slots;
+    private final AtomicLong cursor = new AtomicLong();
+
+    public EventRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ёмкость буфера должна быть степенью двойки");
+        }
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public T publish(LongFunction<T> factory) {
+        long sequence = cursor.getAndIncrement();
+        T value = factory.apply(sequence);
+        slots.set((int) (sequence & mask), new Slot<>(sequence, value));
+        return value;
+    }
+
+    public T get(long sequence) {
+        Slot<T> slot = slots.get((int) (sequence & mask));
+        if (slot == null || slot.sequence() != sequence) {
+            return null;
+        }
+        return slot.value();
+    }
+
+    public long nextSequence() {
+        return cursor.get();
+    }
+
+    public long oldestSequence() {
+        return Math.max(0, cursor.get() - capacity());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    private record Slot<T>(long sequence, T value) {
+    }
+}
@@ -0,0 +1,14 @@
+package ru.yandex.practicum.filmorate.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "filmorate.events")
+public record EventStreamProperties(
+        @DefaultValue("65536") int capacity,
+        @DefaultValue("30m") Duration subscriptionTimeout,
+        @DefaultValue("20ms") Duration idlePoll
+) {
+}
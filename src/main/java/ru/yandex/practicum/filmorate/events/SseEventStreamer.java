@@ -0,0 +1,91 @@
+package ru.yandex.practicum.filmorate.events;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Каждый подписчик читает буфер в своём виртуальном потоке со своей скоростью.
+ * Подписчик, отставший больше чем на ёмкость буфера, отключается и может
+ * переподключиться с заголовком {@code Last-Event-ID}. Когда клиент отключается или подписка
+ * истекает, поток подписчика прерывается и перестаёт опрашивать буфер.
+ */
+@Slf4j
+@Component
+public class SseEventStreamer {
+    private final DomainEventBus bus;
+    private final EventStreamProperties properties;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    public SseEventStreamer(DomainEventBus bus, EventStreamProperties properties) {
+        this.bus = bus;
+        this.properties = properties;
+    }
+
+    public SseEmitter subscribe(Long fromOffset) {
+        return subscribe(new SseEmitter(properties.subscriptionTimeout().toMillis()), fromOffset);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Long fromOffset) {
+        long start = fromOffset == null ? bus.nextOffset() : fromOffset;
+        Future<?> worker = executor.submit(() -> stream(emitter, start));
+        emitter.onCompletion(() -> worker.cancel(true));
+        emitter.onTimeout(() -> worker.cancel(true));
+        emitter.onError(e -> worker.cancel(true));
+        return emitter;
+    }
+
+    public int getSubscribers() {
+        return subscribers.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void stream(SseEmitter emitter, long offset) {
+        subscribers.incrementAndGet();
+        long idleNanos = properties.idlePoll().toNanos();
+        try {
+            long oldest = bus.oldestOffset();
+            if (offset < oldest) {
+                emitter.send(SseEmitter.event().name("gap").data(Map.of("from", offset, "to", oldest)));
+                offset = oldest;
+            }
+            while (!Thread.currentThread().isInterrupted()) {
+                if (offset < bus.oldestOffset()) {
+                    log.warn("Подписчик на события отстал на смещении {} и отключен", offset);
+                    emitter.send(SseEmitter.event().name("dropped").data(Map.of("offset", offset)));
+                    emitter.complete();
+                    return;
+                }
+                DomainEvent event = bus.get(offset);
+                if (event == null) {
+                    LockSupport.parkNanos(idleNanos);
+                    continue;
+                }
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.offset()))
+                        .name(event.type().name())
+                        .data(event));
+                offset++;
+            }
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Подписчик на события отключился: {}", e.getMessage());
+        } finally {
+            subscribers.decrementAndGet();
+        }
+    }
+}
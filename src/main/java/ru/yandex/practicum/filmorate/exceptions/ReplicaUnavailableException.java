@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ReplicaUnavailableException extends RuntimeException {
+    public ReplicaUnavailableException(String message) {
+        super(message);
+    }
+}
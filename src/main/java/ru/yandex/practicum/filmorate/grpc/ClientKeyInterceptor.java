@@ -0,0 +1,39 @@
+package ru.yandex.practicum.filmorate.grpc;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+/**
+ * Определяет клиента gRPC-вызова так же, как REST: по заголовку {@code filmorate.rate-limit.client-header},
+ * а без него — по адресу клиента, и кладёт его в контекст вызова для ограничений маршрутов.
+ */
+final class ClientKeyInterceptor implements ServerInterceptor {
+    static final Context.Key<String> CLIENT = Context.key("filmorate-client");
+
+    private final Metadata.Key<String> header;
+
+    ClientKeyInterceptor(String clientHeader) {
+        this.header = clientHeader == null ? null : Metadata.Key.of(clientHeader, Metadata.ASCII_STRING_MARSHALLER);
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                      ServerCallHandler<Q, R> next) {
+        String client = header == null ? null : headers.get(header);
+        if (client == null || client.isBlank()) {
+            SocketAddress remote = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+            client = remote instanceof InetSocketAddress address && address.getAddress() != null
+                    ? address.getAddress().getHostAddress()
+                    : String.valueOf(remote);
+        }
+        return Contexts.interceptCall(Context.current().withValue(CLIENT, client), call, headers, next);
+    }
+}
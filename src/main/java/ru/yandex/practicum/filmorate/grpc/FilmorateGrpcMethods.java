@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.grpc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import ru.yandex.practicum.filmorate.events.DomainEvent;
+import ru.yandex.practicum.filmorate.grpc.GrpcMessages.*;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+
+/**
+ * Описания методов сервиса {@value #SERVICE_NAME}; общие для сервера и клиентов.
+ */
+public final class FilmorateGrpcMethods {
+    public static final String SERVICE_NAME = "filmorate.Filmorate";
+
+    public final MethodDescriptor<Empty, Film> listFilms;
+    public final MethodDescriptor<FilmId, Film> getFilm;
+    public final MethodDescriptor<Film, Film> createFilm;
+    public final MethodDescriptor<Film, Film> updateFilm;
+    public final MethodDescriptor<PopularRequest, Film> popularFilms;
+    public final MethodDescriptor<LikeRequest, Empty> addLike;
+    public final MethodDescriptor<LikeRequest, Empty> removeLike;
+    public final MethodDescriptor<LikeRequest, BulkLikesResult> bulkLikes;
+    public final MethodDescriptor<Empty, User> listUsers;
+    public final MethodDescriptor<UserId, User> getUser;
+    public final MethodDescriptor<User, User> createUser;
+    public final MethodDescriptor<User, User> updateUser;
+    public final MethodDescriptor<FriendRequest, Empty> addFriend;
+    public final MethodDescriptor<FriendRequest, Empty> removeFriend;
+    public final MethodDescriptor<UserId, User> friends;
+    public final MethodDescriptor<CommonFriendsRequest, User> commonFriends;
+    public final MethodDescriptor<EventsRequest, DomainEvent> events;
+
+    private final ObjectMapper mapper;
+
+    public FilmorateGrpcMethods(ObjectMapper smileMapper) {
+        this.mapper = smileMapper;
+        listFilms = method("ListFilms", MethodType.SERVER_STREAMING, Empty.class, Film.class);
+        getFilm = method("GetFilm", MethodType.UNARY, FilmId.class, Film.class);
+        createFilm = method("CreateFilm", MethodType.UNARY, Film.class, Film.class);
+        updateFilm = method("UpdateFilm", MethodType.UNARY, Film.class, Film.class);
+        popularFilms = method("PopularFilms", MethodType.SERVER_STREAMING, PopularRequest.class, Film.class);
+        addLike = method("AddLike", MethodType.UNARY, LikeRequest.class, Empty.class);
+        removeLike = method("RemoveLike", MethodType.UNARY, LikeRequest.class, Empty.class);
+        bulkLikes = method("BulkLikes", MethodType.CLIENT_STREAMING, LikeRequest.class, BulkLikesResult.class);
+        listUsers = method("ListUsers", MethodType.SERVER_STREAMING, Empty.class, User.class);
+        getUser = method("GetUser", MethodType.UNARY, UserId.class, User.class);
+        createUser = method("CreateUser", MethodType.UNARY, User.class, User.class);
+        updateUser = method("UpdateUser", MethodType.UNARY, User.class, User.class);
+        addFriend = method("AddFriend", MethodType.UNARY, FriendRequest.class, Empty.class);
+        removeFriend = method("RemoveFriend", MethodType.UNARY, FriendRequest.class, Empty.class);
+        friends = method("Friends", MethodType.SERVER_STREAMING, UserId.class, User.class);
+        commonFriends = method("CommonFriends", MethodType.SERVER_STREAMING, CommonFriendsRequest.class, User.class);
+        events = method("Events", MethodType.SERVER_STREAMING, EventsRequest.class, DomainEvent.class);
+    }
+
+    private <Q, R> MethodDescriptor<Q, R> method(String name, MethodType type, Class<Q> request, Class<R> response) {
+        return MethodDescriptor.<Q, R>newBuilder()
+                .setType(type)
+                .setFullMethodName(MethodDescriptor.generateFullMethodName(SERVICE_NAME, name))
+                .setRequestMarshaller(new SmileMarshaller<>(mapper, request))
+                .setResponseMarshaller(new SmileMarshaller<>(mapper, response))
+                .build();
+    }
+}
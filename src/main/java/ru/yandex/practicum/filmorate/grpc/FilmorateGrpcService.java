@@ -0,0 +1,285 @@
+package ru.yandex.practicum.filmorate.grpc;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.grpc.ServerInterceptors;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.events.DomainEvent;
+import ru.yandex.practicum.filmorate.events.DomainEventBus;
+import ru.yandex.practicum.filmorate.events.EventStreamProperties;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.ReplicaUnavailableException;
+import ru.yandex.practicum.filmorate.exceptions.ServiceOverloadedException;
+import ru.yandex.practicum.filmorate.exceptions.TooManyRequestsException;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.grpc.GrpcMessages.*;
+import ru.yandex.practicum.filmorate.ratelimit.RateLimitInterceptor;
+import ru.yandex.practicum.filmorate.ratelimit.RouteLimiter;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * gRPC-доступ к тем же операциям, что и {@code FilmController}/{@code UserController}, через
+ * {@link FilmService} и {@link UserService}. Списки, рейтинг и друзья отдаются потоком с учётом
+ * готовности клиента, лайки можно отправлять потоком, а события — читать потоком с нужного смещения.
+ * Лайки и дружба проходят те же ограничения, что и маршруты REST, с общими корзинами; в потоке лайков
+ * ограничение применяется к каждому сообщению.
+ */
+@Slf4j
+@Component
+public class FilmorateGrpcService {
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final FilmService filmService;
+    private final UserService userService;
+    private final DomainEventBus eventBus;
+    private final EventStreamProperties eventProperties;
+    private final FilmorateGrpcMethods methods;
+    private final ClientKeyInterceptor clientKeys;
+    private final RouteLimiter addLikeLimiter;
+    private final RouteLimiter removeLikeLimiter;
+    private final RouteLimiter addFriendLimiter;
+    private final RouteLimiter removeFriendLimiter;
+    private final ExecutorService eventStreams = Executors.newVirtualThreadPerTaskExecutor();
+
+    public FilmorateGrpcService(FilmService filmService, UserService userService, DomainEventBus eventBus,
+                                EventStreamProperties eventProperties, Jackson2ObjectMapperBuilder builder,
+                                ObjectProvider<RateLimitInterceptor> rateLimits) {
+        this.filmService = filmService;
+        this.userService = userService;
+        this.eventBus = eventBus;
+        this.eventProperties = eventProperties;
+        this.methods = new FilmorateGrpcMethods(builder.factory(new SmileFactory()).build());
+        RateLimitInterceptor limits = rateLimits.getIfAvailable();
+        this.clientKeys = new ClientKeyInterceptor(limits == null ? null : limits.getClientHeader());
+        this.addLikeLimiter = limits == null ? null : limits.find("PUT", "/films/{filmId}/like/{userId}");
+        this.removeLikeLimiter = limits == null ? null : limits.find("DELETE", "/films/{filmId}/like/{userId}");
+        this.addFriendLimiter = limits == null ? null : limits.find("PUT", "/users/{userId}/friends/{friendId}");
+        this.removeFriendLimiter = limits == null ? null : limits.find("DELETE", "/users/{userId}/friends/{friendId}");
+    }
+
+    public FilmorateGrpcMethods methods() {
+        return methods;
+    }
+
+    public ServerServiceDefinition bindService() {
+        return ServerInterceptors.intercept(ServerServiceDefinition.builder(FilmorateGrpcMethods.SERVICE_NAME)
+                .addMethod(methods.listFilms, ServerCalls.asyncServerStreamingCall(
+                        (request, observer) -> stream(observer, filmService::getList)))
+                .addMethod(methods.getFilm, ServerCalls.asyncUnaryCall(
+                        (request, observer) -> unary(observer, () -> filmService.get(request.filmId())
+                                .orElseThrow(() -> new NotFoundException("Фильм с id: " + request.filmId() + " не найден.")))))
+                .addMethod(methods.createFilm, ServerCalls.asyncUnaryCall(
+                        (request, observer) -> unary(observer, () -> filmService.add(request))))
+                .addMethod(methods.updateFilm, ServerCalls.asyncUnaryCall(
+                        (request, observer) -> unary(observer, () -> filmService.update(request))))
+                .addMethod(methods.popularFilms, ServerCalls.asyncServerStreamingCall(
+                        (request, observer) -> stream(observer, () -> filmService.getPopularFilms(request.count()))))
+                .addMethod(methods.addLike, ServerCalls.asyncUnaryCall(
+                        (request, observer) -> unary(observer, () -> limited(addLikeLimiter, () -> {
+                            filmService.addLike(request.filmId(), request.userId());
+                            return new Empty();
+                        }))))
+                .addMethod(methods.removeLike, ServerCalls.asyncUnaryCall(
+                        (request, observer) -> unary(observer, () -> limited(removeLikeLimiter, () -> {
+                            filmService.removeLike(request.filmId(), request.userId());
+                            return new Empty();
+                        }))))
+                .addMethod(methods.bulkLikes, ServerCalls.asyncClientStreamingCall(BulkLikes::new))
+                .addMethod(methods.listUsers, ServerCalls.asyncServerStreamingCall(
+                        (request, observer) -> stream(observer, userService::getList)))
+                .addMethod(methods.getUser, ServerCalls.asyncUnaryCall(
+                        (request, observer) -> unary(observer, () -> userService.get(request.userId())
+                                .orElseThrow(() -> new NotFoundException("Пользователь с id: " + request.userId() + " не найден.")))))
+                .addMethod(methods.createUser, ServerCalls.asyncUnaryCall(
+                        (request, observer) -> unary(observer, () -> userService.add(request))))
+                .addMethod(methods.updateUser, ServerCalls.asyncUnaryCall(
+                        (request, observer) -> unary(observer, () -> userService.update(request))))
+                .addMethod(methods.addFriend, ServerCalls.asyncUnaryCall(
+                        (request, observer) -> unary(observer, () -> limited(addFriendLimiter, () -> {
+                            userService.addFriend(request.userId(), request.friendId());
+                            return new Empty();
+                        }))))
+                .addMethod(methods.removeFriend, ServerCalls.asyncUnaryCall(
+                        (request, observer) -> unary(observer, () -> limited(removeFriendLimiter, () -> {
+                            userService.removeFriend(request.userId(), request.friendId());
+                            return new Empty();
+                        }))))
+                .addMethod(methods.friends, ServerCalls.asyncServerStreamingCall(
+                        (request, observer) -> stream(observer, () -> userService.getFriends(request.userId()))))
+                .addMethod(methods.commonFriends, ServerCalls.asyncServerStreamingCall(
+                        (request, observer) -> stream(observer,
+                                () -> userService.getCommonFriends(request.userId(), request.otherId()))))
+                .addMethod(methods.events, ServerCalls.asyncServerStreamingCall(
+                        (request, observer) -> eventStreams.execute(() -> streamEvents(request, observer))))
+                .build(), clientKeys);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        eventStreams.shutdownNow();
+    }
+
+    static StatusRuntimeException toStatus(RuntimeException e) {
+        Status status;
+        if (e instanceof StatusRuntimeException statusException) {
+            return statusException;
+        } else if (e instanceof NotFoundException) {
+            status = Status.NOT_FOUND;
+        } else if (e instanceof ValidationException) {
+            status = Status.INVALID_ARGUMENT;
+        } else if (e instanceof TooManyRequestsException) {
+            status = Status.RESOURCE_EXHAUSTED;
+        } else if (e instanceof ServiceOverloadedException || e instanceof ReplicaUnavailableException) {
+            status = Status.UNAVAILABLE;
+        } else {
+            log.error("Ошибка обработки gRPC-вызова", e);
+            status = Status.INTERNAL;
+        }
+        return status.withDescription(e.getMessage()).asRuntimeException();
+    }
+
+    /**
+     * Выполняет вызов под ограничениями маршрута REST для клиента из контекста вызова; отказ
+     * превращается в {@code RESOURCE_EXHAUSTED} или {@code UNAVAILABLE} в {@link #toStatus}.
+     */
+    private static <T> T limited(RouteLimiter limiter, Supplier<T> call) {
+        if (limiter == null) {
+            return call.get();
+        }
+        long started = System.nanoTime();
+        boolean acquired = limiter.acquire(ClientKeyInterceptor.CLIENT.get(), started);
+        try {
+            return call.get();
+        } finally {
+            if (acquired) {
+                limiter.release(started, System.nanoTime());
+            }
+        }
+    }
+
+    private static <T> void unary(StreamObserver<T> observer, Supplier<T> call) {
+        T response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            observer.onError(toStatus(e));
+            return;
+        }
+        observer.onNext(response);
+        observer.onCompleted();
+    }
+
+    /**
+     * Отдаёт элементы, пока клиент готов их принимать, и продолжает по сигналу готовности,
+     * не накапливая весь ответ в буферах транспорта.
+     */
+    private static <T> void stream(StreamObserver<T> observer, Supplier<? extends Iterable<T>> query) {
+        Iterator<T> items;
+        try {
+            items = query.get().iterator();
+        } catch (RuntimeException e) {
+            observer.onError(toStatus(e));
+            return;
+        }
+        ServerCallStreamObserver<T> call = (ServerCallStreamObserver<T>) observer;
+        boolean[] completed = new boolean[1];
+        Runnable drain = () -> {
+            while (!completed[0] && call.isReady() && items.hasNext()) {
+                call.onNext(items.next());
+            }
+            if (!completed[0] && !items.hasNext()) {
+                completed[0] = true;
+                call.onCompleted();
+            }
+        };
+        call.setOnReadyHandler(drain);
+        drain.run();
+    }
+
+    private void streamEvents(EventsRequest request, StreamObserver<DomainEvent> observer) {
+        ServerCallStreamObserver<DomainEvent> call = (ServerCallStreamObserver<DomainEvent>) observer;
+        long idleNanos = eventProperties.idlePoll().toNanos();
+        long offset = request.from() == null ? eventBus.nextOffset() : request.from();
+        while (!call.isCancelled() && !Thread.currentThread().isInterrupted()) {
+            if (offset < eventBus.oldestOffset()) {
+                call.onError(Status.DATA_LOSS
+                        .withDescription(String.format("События до смещения %d уже вытеснены из буфера", eventBus.oldestOffset()))
+                        .asRuntimeException());
+                return;
+            }
+            DomainEvent event = call.isReady() ? eventBus.get(offset) : null;
+            if (event == null) {
+                LockSupport.parkNanos(idleNanos);
+                continue;
+            }
+            call.onNext(event);
+            offset++;
+        }
+    }
+
+    private final class BulkLikes implements StreamObserver<LikeRequest> {
+        private final StreamObserver<BulkLikesResult> response;
+        private final List<String> errors = new ArrayList<>();
+        private int accepted;
+        private int rejected;
+        private boolean failed;
+
+        private BulkLikes(StreamObserver<BulkLikesResult> response) {
+            this.response = response;
+        }
+
+        @Override
+        public void onNext(LikeRequest request) {
+            if (failed) {
+                return;
+            }
+            try {
+                limited(addLikeLimiter, () -> {
+                    filmService.addLike(request.filmId(), request.userId());
+                    return null;
+                });
+                accepted++;
+            } catch (NotFoundException | ValidationException e) {
+                rejected++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(e.getMessage());
+                }
+            } catch (RuntimeException e) {
+                failed = true;
+                response.onError(toStatus(e));
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.debug("Клиент прервал поток лайков после {} принятых: {}", accepted, t.getMessage());
+        }
+
+        @Override
+        public void onCompleted() {
+            if (failed) {
+                return;
+            }
+            response.onNext(new BulkLikesResult(accepted, rejected, errors));
+            response.onCompleted();
+        }
+    }
+}
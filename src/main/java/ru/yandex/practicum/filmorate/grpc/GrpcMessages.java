@@ -0,0 +1,38 @@
+package ru.yandex.practicum.filmorate.grpc;
+
+import java.util.List;
+
+/**
+ * Сообщения запросов и ответов gRPC-сервиса, кроме самих фильмов, пользователей и событий.
+ */
+public final class GrpcMessages {
+    private GrpcMessages() {
+    }
+
+    public record Empty() {
+    }
+
+    public record FilmId(int filmId) {
+    }
+
+    public record UserId(int userId) {
+    }
+
+    public record PopularRequest(int count) {
+    }
+
+    public record LikeRequest(int filmId, int userId) {
+    }
+
+    public record FriendRequest(int userId, int friendId) {
+    }
+
+    public record CommonFriendsRequest(int userId, int otherId) {
+    }
+
+    public record EventsRequest(Long from) {
+    }
+
+    public record BulkLikesResult(int accepted, int rejected, List<String> errors) {
+    }
+}
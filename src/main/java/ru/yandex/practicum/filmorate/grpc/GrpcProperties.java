@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.grpc;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "filmorate.grpc")
+public record GrpcProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("9090") int port
+) {
+}
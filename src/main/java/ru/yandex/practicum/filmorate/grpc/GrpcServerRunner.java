@@ -0,0 +1,73 @@
+package ru.yandex.practicum.filmorate.grpc;
+
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "filmorate.grpc", name = "enabled", havingValue = "true")
+public class GrpcServerRunner implements SmartLifecycle {
+    private final FilmorateGrpcService service;
+    private final GrpcProperties properties;
+    private ExecutorService executor;
+    private volatile Server server;
+
+    public GrpcServerRunner(FilmorateGrpcService service, GrpcProperties properties) {
+        this.service = service;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            server = Grpc.newServerBuilderForPort(properties.port(), InsecureServerCredentials.create())
+                    .addService(service.bindService())
+                    .executor(executor)
+                    .build()
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось запустить gRPC-сервер на порту " + properties.port(), e);
+        }
+        log.info("gRPC-сервер запущен на порту {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        Server current = server;
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(5, TimeUnit.SECONDS)) {
+                current.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    public int getPort() {
+        return server.getPort();
+    }
+}
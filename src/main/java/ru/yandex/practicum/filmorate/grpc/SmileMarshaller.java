@@ -0,0 +1,44 @@
+package ru.yandex.practicum.filmorate.grpc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Кодирует сообщения gRPC в Smile тем же маппером, что и REST, поэтому поля и форматы
+ * (даты, продолжительность в минутах) совпадают с JSON-API.
+ */
+final class SmileMarshaller<T> implements MethodDescriptor.Marshaller<T> {
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+
+    SmileMarshaller(ObjectMapper mapper, Class<T> type) {
+        this.writer = mapper.writerFor(type);
+        this.reader = mapper.readerFor(type);
+    }
+
+    @Override
+    public InputStream stream(T value) {
+        try {
+            return new ByteArrayInputStream(writer.writeValueAsBytes(value));
+        } catch (IOException e) {
+            throw Status.INTERNAL.withDescription("Ошибка кодирования сообщения").withCause(e).asRuntimeException();
+        }
+    }
+
+    @Override
+    public T parse(InputStream stream) {
+        try {
+            return reader.readValue(stream);
+        } catch (IOException e) {
+            throw Status.INVALID_ARGUMENT.withDescription("Некорректное сообщение: " + e.getMessage())
+                    .withCause(e).asRuntimeException();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package ru.yandex.practicum.filmorate.models;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Data;
@@ -12,14 +14,32 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Data
+@JsonView(Views.Lean.class)
 public class Film {
     private Integer id;
     private String name;
     private String description;
     private LocalDate releaseDate;
+    @JsonView(Views.Full.class)
     private Set<Integer> likes = new HashSet<>();
 
     @JsonSerialize(using = DurationToMinutesSerializer.class)
     @JsonDeserialize(using = MinutesToDurationDeserializer.class)
     private Duration duration;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public int getLikesCount() {
+        return likes == null ? 0 : likes.size();
+    }
+
+    public Film copy() {
+        Film copy = new Film();
+        copy.setId(id);
+        copy.setName(name);
+        copy.setDescription(description);
+        copy.setReleaseDate(releaseDate);
+        copy.setDuration(duration);
+        copy.setLikes(likes == null ? new HashSet<>() : new HashSet<>(likes));
+        return copy;
+    }
 }
@@ -1,5 +1,7 @@
 package ru.yandex.practicum.filmorate.models;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonView;
 import lombok.Data;
 
 import java.time.LocalDate;
@@ -7,11 +9,29 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Data
+@JsonView(Views.Lean.class)
 public class User {
     private Integer id;
     private String email;
     private String login;
     private String name;
     private LocalDate birthday;
+    @JsonView(Views.Full.class)
     private Set<Integer> friends = new HashSet<>();
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public int getFriendsCount() {
+        return friends == null ? 0 : friends.size();
+    }
+
+    public User copy() {
+        User copy = new User();
+        copy.setId(id);
+        copy.setEmail(email);
+        copy.setLogin(login);
+        copy.setName(name);
+        copy.setBirthday(birthday);
+        copy.setFriends(friends == null ? new HashSet<>() : new HashSet<>(friends));
+        return copy;
+    }
 }
@@ -0,0 +1,15 @@
+package ru.yandex.practicum.filmorate.models;
+
+/**
+ * Проекции ответа: {@link Lean} содержит счётчики вместо множеств id, {@link Full} — всё.
+ */
+public final class Views {
+    private Views() {
+    }
+
+    public interface Lean {
+    }
+
+    public interface Full extends Lean {
+    }
+}
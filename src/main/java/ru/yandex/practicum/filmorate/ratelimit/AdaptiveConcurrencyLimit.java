@@ -0,0 +1,65 @@
+package ru.yandex.practicum.filmorate.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Предел одновременных запросов по схеме AIMD: если задержка запроса превысила целевую,
+ * предел уменьшается в {@value #BACKOFF_RATIO} раза (не чаще раза за целевую задержку),
+ * а быстрые ответы при загруженном пределе увеличивают его на единицу.
+ */
+public final class AdaptiveConcurrencyLimit {
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimit(int minLimit, int maxLimit, long targetLatencyNanos, long nowNanos) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Пределы параллелизма должны удовлетворять 0 < min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.limit = new AtomicInteger(maxLimit);
+        this.lastDecreaseNanos = new AtomicLong(nowNanos - targetLatencyNanos);
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos, long nowNanos) {
+        int remaining = inFlight.decrementAndGet();
+        int current = limit.get();
+        if (latencyNanos > targetLatencyNanos) {
+            long lastDecrease = lastDecreaseNanos.get();
+            if (current > minLimit && nowNanos - lastDecrease >= targetLatencyNanos
+                    && lastDecreaseNanos.compareAndSet(lastDecrease, nowNanos)) {
+                limit.compareAndSet(current, Math.max(minLimit, (int) (current * BACKOFF_RATIO)));
+            }
+        } else if (current < maxLimit && (remaining + 1) * 2 >= current) {
+            limit.compareAndSet(current, current + 1);
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,135 @@
+package ru.yandex.practicum.filmorate.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Применяет ограничения к маршрутам из {@code filmorate.rate-limit.routes}. Маршрут ищется по
+ * шаблону, который Spring MVC уже сопоставил запросу, поэтому поиск не выделяет память,
+ * а на маршрутах без ограничений перехватчик сводится к одному поиску в хеш-таблице. Простаивающие
+ * корзины клиентов раз в {@code sweep-interval} удаляет фоновый поток.
+ */
+@Component
+@ConditionalOnProperty(prefix = "filmorate.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+    private static final String LIMITER_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".limiter";
+    private static final String STARTED_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".started";
+
+    private final Map<String, Map<String, RouteLimiter>> limiters = new HashMap<>();
+    private final String clientHeader;
+    private final ScheduledExecutorService sweeper;
+
+    public RateLimitInterceptor(RateLimitProperties properties, MeterRegistry registry) {
+        this.clientHeader = properties.clientHeader();
+        if (properties.routes() != null) {
+            properties.routes().forEach((name, route) -> {
+                if (route.path() == null || route.method() == null) {
+                    throw new IllegalStateException("Для ограничения " + name + " нужно указать path и method");
+                }
+                limiters.computeIfAbsent(route.path(), path -> new HashMap<>())
+                        .put(route.method().toUpperCase(Locale.ROOT),
+                                new RouteLimiter(name, route, properties.maxClients(), registry));
+            });
+        }
+        if (limiters.isEmpty()) {
+            this.sweeper = null;
+            return;
+        }
+        long sweepMillis = properties.sweepInterval().toMillis();
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("rate-limit-sweeper").daemon().factory());
+        sweeper.scheduleWithFixedDelay(this::evictIdleClients, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * @return ограничения маршрута с этим HTTP-методом и шаблоном пути или {@code null}, если их нет;
+     * через них gRPC-вызовы делят лимиты с соответствующими маршрутами REST
+     */
+    public RouteLimiter find(String method, String path) {
+        Map<String, RouteLimiter> byMethod = limiters.get(path);
+        return byMethod == null ? null : byMethod.get(method);
+    }
+
+    public String getClientHeader() {
+        return clientHeader;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RouteLimiter limiter = find(request);
+        if (limiter == null) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (limiter.acquire(client(request), now)) {
+            request.setAttribute(LIMITER_ATTRIBUTE, limiter);
+            request.setAttribute(STARTED_ATTRIBUTE, now);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(LIMITER_ATTRIBUTE) instanceof RouteLimiter limiter
+                && request.getAttribute(STARTED_ATTRIBUTE) instanceof Long started) {
+            limiter.release(started, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!limiters.isEmpty()) {
+            registry.addInterceptor(this).excludePathPatterns("/internal/**", "/actuator/**");
+        }
+    }
+
+    private void evictIdleClients() {
+        long now = System.nanoTime();
+        for (Map<String, RouteLimiter> byMethod : limiters.values()) {
+            for (RouteLimiter limiter : byMethod.values()) {
+                limiter.evictIdle(now);
+            }
+        }
+    }
+
+    private RouteLimiter find(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return null;
+        }
+        return find(request.getMethod(), pattern.toString());
+    }
+
+    private String client(HttpServletRequest request) {
+        if (clientHeader != null) {
+            String client = request.getHeader(clientHeader);
+            if (client != null && !client.isBlank()) {
+                return client;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
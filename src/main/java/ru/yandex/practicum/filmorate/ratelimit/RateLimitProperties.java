@@ -0,0 +1,34 @@
+package ru.yandex.practicum.filmorate.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Ограничения задаются для каждого маршрута контроллера: {@code path} совпадает с шаблоном
+ * из аннотации маппинга, например {@code /films/{filmId}/like/{userId}}. Нулевые значения
+ * отключают соответствующее ограничение.
+ */
+@ConfigurationProperties(prefix = "filmorate.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        String clientHeader,
+        @DefaultValue("10000") int maxClients,
+        @DefaultValue("1s") Duration sweepInterval,
+        Map<String, Route> routes
+) {
+    public record Route(
+            String method,
+            String path,
+            @DefaultValue("0") double clientRate,
+            @DefaultValue("0") int clientBurst,
+            @DefaultValue("0") double globalRate,
+            @DefaultValue("0") int globalBurst,
+            @DefaultValue("0") int maxConcurrency,
+            @DefaultValue("1") int minConcurrency,
+            @DefaultValue("100ms") Duration targetLatency
+    ) {
+    }
+}
@@ -0,0 +1,153 @@
+package ru.yandex.practicum.filmorate.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import ru.yandex.practicum.filmorate.exceptions.ServiceOverloadedException;
+import ru.yandex.practicum.filmorate.exceptions.TooManyRequestsException;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничения одного маршрута: корзина клиента, общая корзина и адаптивный предел параллелизма.
+ * Проверки идут от дешёвых к дорогим, а токены общей корзины не тратятся на отклонённых клиентов.
+ * Корзин клиентов не больше {@code max-clients}, поэтому перебор значений заголовка не раздувает память.
+ */
+public final class RouteLimiter {
+    private final String name;
+    private final RateLimitProperties.Route route;
+    private final int maxClients;
+    private final Map<String, TokenBucket> clients;
+    private final TokenBucket global;
+    private final AdaptiveConcurrencyLimit concurrency;
+    private final Counter clientRejections;
+    private final Counter globalRejections;
+    private final Counter concurrencyRejections;
+
+    public RouteLimiter(String name, RateLimitProperties.Route route, int maxClients, MeterRegistry registry) {
+        long now = System.nanoTime();
+        this.name = name;
+        this.route = route;
+        this.maxClients = maxClients;
+        this.clients = route.clientRate() > 0 ? new ConcurrentHashMap<>() : null;
+        this.global = route.globalRate() > 0
+                ? new TokenBucket(route.globalRate(), Math.max(1, route.globalBurst()), now)
+                : null;
+        this.concurrency = route.maxConcurrency() > 0
+                ? new AdaptiveConcurrencyLimit(route.minConcurrency(), route.maxConcurrency(),
+                route.targetLatency().toNanos(), now)
+                : null;
+        this.clientRejections = rejections(registry, "client");
+        this.globalRejections = rejections(registry, "global");
+        this.concurrencyRejections = rejections(registry, "concurrency");
+        if (concurrency != null) {
+            Gauge.builder("filmorate.ratelimit.concurrency.limit", concurrency, AdaptiveConcurrencyLimit::getLimit)
+                    .tag("route", name)
+                    .register(registry);
+            Gauge.builder("filmorate.ratelimit.concurrency.inflight", concurrency, AdaptiveConcurrencyLimit::getInFlight)
+                    .tag("route", name)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * @return {@code true}, если запрос занял место в пределе параллелизма и его нужно освободить
+     */
+    public boolean acquire(String client, long nowNanos) {
+        if (clients != null) {
+            TokenBucket bucket = clientBucket(client, nowNanos);
+            if (bucket == null) {
+                clientRejections.increment();
+                throw new TooManyRequestsException(
+                        String.format("Слишком много клиентов обращается к %s", route.path()), 1
+                );
+            }
+            long wait = bucket.tryAcquire(nowNanos);
+            if (wait > 0) {
+                clientRejections.increment();
+                throw new TooManyRequestsException(
+                        String.format("Превышен лимит запросов клиента %s к %s", client, route.path()),
+                        retryAfterSeconds(wait)
+                );
+            }
+        }
+        if (global != null) {
+            long wait = global.tryAcquire(nowNanos);
+            if (wait > 0) {
+                globalRejections.increment();
+                throw new TooManyRequestsException(
+                        String.format("Превышен общий лимит запросов к %s", route.path()),
+                        retryAfterSeconds(wait)
+                );
+            }
+        }
+        if (concurrency == null) {
+            return false;
+        }
+        if (!concurrency.tryAcquire()) {
+            concurrencyRejections.increment();
+            throw new ServiceOverloadedException(
+                    String.format("Сервис перегружен, запрос к %s отклонён", route.path())
+            );
+        }
+        return true;
+    }
+
+    public void release(long startedNanos, long nowNanos) {
+        concurrency.release(nowNanos - startedNanos, nowNanos);
+    }
+
+    /**
+     * Удаляет корзины клиентов, которые успели наполниться и ничем не отличаются от новых, если клиентов
+     * набралось {@code max-clients}. Вызывается из фонового потока, чтобы запрос не обходил всех клиентов.
+     *
+     * @return сколько корзин удалено
+     */
+    public int evictIdle(long nowNanos) {
+        if (clients == null || clients.size() < maxClients) {
+            return 0;
+        }
+        int evicted = 0;
+        for (Iterator<TokenBucket> buckets = clients.values().iterator(); buckets.hasNext(); ) {
+            if (buckets.next().isFull(nowNanos)) {
+                buckets.remove();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return корзина клиента или {@code null}, если клиент новый, а корзин уже {@code max-clients}:
+     * такие клиенты отклоняются, пока фоновый поток не удалит простаивающие корзины
+     */
+    private TokenBucket clientBucket(String client, long nowNanos) {
+        TokenBucket bucket = clients.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (clients.size() >= maxClients) {
+            return null;
+        }
+        return clients.computeIfAbsent(client,
+                key -> new TokenBucket(route.clientRate(), Math.max(1, route.clientBurst()), nowNanos));
+    }
+
+    private Counter rejections(MeterRegistry registry, String reason) {
+        return Counter.builder("filmorate.ratelimit.rejected")
+                .tag("route", name)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+}
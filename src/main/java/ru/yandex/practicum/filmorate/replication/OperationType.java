@@ -0,0 +1,10 @@
+package ru.yandex.practicum.filmorate.replication;
+
+public enum OperationType {
+    FILM_PUT,
+    LIKE_ADDED,
+    LIKE_REMOVED,
+    USER_PUT,
+    FRIEND_ADDED,
+    FRIEND_REMOVED
+}
@@ -0,0 +1,48 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+
+/**
+ * Чтение своих записей: клиент передаёт версию из ответа лидера в заголовке
+ * {@code X-Filmorate-Min-Version}, и реплика отвечает не раньше, чем применит эту версию.
+ */
+@Component
+@ConditionalOnProperty(prefix = "filmorate.storage", name = "mode", havingValue = "replica")
+public class ReplicaVersionInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+    private final ReplicationFollower follower;
+
+    public ReplicaVersionInterceptor(ReplicationFollower follower) {
+        this.follower = follower;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String minVersion = request.getHeader(ReplicationProperties.MIN_VERSION_HEADER);
+        if (minVersion != null) {
+            follower.awaitVersion(parseVersion(minVersion));
+        }
+        response.setHeader(ReplicationProperties.VERSION_HEADER, Long.toString(follower.getAppliedVersion()));
+        return true;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).excludePathPatterns("/internal/**", "/actuator/**");
+    }
+
+    private static long parseVersion(String version) {
+        try {
+            return Long.parseLong(version.trim());
+        } catch (NumberFormatException e) {
+            throw new ValidationException(
+                    "Заголовок " + ReplicationProperties.MIN_VERSION_HEADER + " должен быть числом: " + version);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.util.Collection;
+
+public class ReplicatingFilmStorage implements FilmStorage {
+    private final FilmStorage delegate;
+    private final ReplicationLog log;
+
+    public ReplicatingFilmStorage(FilmStorage delegate, ReplicationLog log) {
+        this.delegate = delegate;
+        this.log = log;
+    }
+
+    @Override
+    public Collection<Film> list() {
+        return delegate.list();
+    }
+
+    @Override
+    public Film get(int filmId) {
+        return delegate.get(filmId);
+    }
+
+    @Override
+    public Film create(Film film) {
+        synchronized (log) {
+            Film created = delegate.create(film);
+            log.append(OperationType.FILM_PUT, created.getId(), null, created.copy(), null);
+            return created;
+        }
+    }
+
+    @Override
+    public Film update(Film film) {
+        synchronized (log) {
+            Film updated = delegate.update(film);
+            log.append(OperationType.FILM_PUT, updated.getId(), null, updated.copy(), null);
+            return updated;
+        }
+    }
+
+    @Override
+    public boolean notExists(int filmId) {
+        return delegate.notExists(filmId);
+    }
+
+    @Override
+    public void addLike(int filmId, int userId) {
+        synchronized (log) {
+            delegate.addLike(filmId, userId);
+            log.append(OperationType.LIKE_ADDED, filmId, userId, null, null);
+        }
+    }
+
+    @Override
+    public void removeLike(int filmId, int userId) {
+        synchronized (log) {
+            delegate.removeLike(filmId, userId);
+            log.append(OperationType.LIKE_REMOVED, filmId, userId, null, null);
+        }
+    }
+
+    @Override
+    public Collection<Film> getPopular(int count) {
+        return delegate.getPopular(count);
+    }
+}
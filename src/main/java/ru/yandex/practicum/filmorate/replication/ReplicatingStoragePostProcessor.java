@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+@Component
+@ConditionalOnProperty(prefix = "filmorate.replication", name = "leader", havingValue = "true")
+public class ReplicatingStoragePostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<ReplicationLog> log;
+
+    public ReplicatingStoragePostProcessor(ObjectProvider<ReplicationLog> log) {
+        this.log = log;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof FilmStorage storage) {
+            return new ReplicatingFilmStorage(storage, log.getObject());
+        }
+        if (bean instanceof UserStorage storage) {
+            return new ReplicatingUserStorage(storage, log.getObject());
+        }
+        return bean;
+    }
+}
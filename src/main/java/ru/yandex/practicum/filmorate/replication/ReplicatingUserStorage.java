@@ -0,0 +1,75 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.Collection;
+
+public class ReplicatingUserStorage implements UserStorage {
+    private final UserStorage delegate;
+    private final ReplicationLog log;
+
+    public ReplicatingUserStorage(UserStorage delegate, ReplicationLog log) {
+        this.delegate = delegate;
+        this.log = log;
+    }
+
+    @Override
+    public Collection<User> list() {
+        return delegate.list();
+    }
+
+    @Override
+    public User get(int userId) {
+        return delegate.get(userId);
+    }
+
+    @Override
+    public Collection<User> getAll(Collection<Integer> userIds) {
+        return delegate.getAll(userIds);
+    }
+
+    @Override
+    public Collection<User> getFriends(int userId) {
+        return delegate.getFriends(userId);
+    }
+
+    @Override
+    public User create(User user) {
+        synchronized (log) {
+            User created = delegate.create(user);
+            log.append(OperationType.USER_PUT, created.getId(), null, null, created.copy());
+            return created;
+        }
+    }
+
+    @Override
+    public User update(User user) {
+        synchronized (log) {
+            User updated = delegate.update(user);
+            log.append(OperationType.USER_PUT, updated.getId(), null, null, updated.copy());
+            return updated;
+        }
+    }
+
+    @Override
+    public boolean notExists(int userId) {
+        return delegate.notExists(userId);
+    }
+
+    @Override
+    public void addFriend(int userId, int friendId) {
+        synchronized (log) {
+            delegate.addFriend(userId, friendId);
+            log.append(OperationType.FRIEND_ADDED, userId, friendId, null, null);
+        }
+    }
+
+    @Override
+    public void removeFriend(int userId, int friendId) {
+        synchronized (log) {
+            delegate.removeFriend(userId, friendId);
+            log.append(OperationType.FRIEND_REMOVED, userId, friendId, null, null);
+        }
+    }
+}
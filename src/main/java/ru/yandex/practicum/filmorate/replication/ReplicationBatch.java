@@ -0,0 +1,6 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import java.util.List;
+
+public record ReplicationBatch(long leaderVersion, boolean snapshotRequired, List<ReplicationOperation> operations) {
+}
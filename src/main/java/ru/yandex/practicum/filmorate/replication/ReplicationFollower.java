@@ -0,0 +1,200 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import ru.yandex.practicum.filmorate.exceptions.ReplicaUnavailableException;
+import ru.yandex.practicum.filmorate.service.cache.CoalescingCaches;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.time.Duration;
+
+/**
+ * Реплика-последователь: загружает снимок лидера и затем применяет его журнал по порядку.
+ * Если реплика не синхронизировалась с лидером дольше {@code max-lag}, чтение с неё отклоняется.
+ * <p>
+ * Данные лежат в тех же хранилищах на {@link ru.yandex.practicum.filmorate.storage.SnapshotTable}, что и
+ * в режиме {@code in-memory}: операция журнала заменяет сущности неизменяемыми копиями, а дружба
+ * меняется у обоих пользователей одной транзакцией, так что чтения без блокировок видят целые версии.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "filmorate.storage", name = "mode", havingValue = "replica")
+public class ReplicationFollower implements SmartLifecycle {
+    private final RestClient client;
+    private final ReplicationProperties properties;
+    private final CoalescingCaches caches;
+    private final Object monitor = new Object();
+    private volatile InMemoryFilmStorage films = new InMemoryFilmStorage();
+    private volatile InMemoryUserStorage users = new InMemoryUserStorage();
+    private volatile long appliedVersion;
+    private volatile long leaderVersion;
+    private volatile long syncedAtNanos = System.nanoTime();
+    private volatile boolean snapshotRequired = true;
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    public ReplicationFollower(ReplicationProperties properties, RestClient.Builder builder, MeterRegistry registry,
+                               CoalescingCaches caches) {
+        if (properties.leaderUrl() == null || properties.leaderUrl().isBlank()) {
+            throw new IllegalStateException("Для реплики нужно указать filmorate.replication.leader-url");
+        }
+        this.properties = properties;
+        this.caches = caches;
+        this.client = builder.baseUrl(properties.leaderUrl() + "/internal/replication").build();
+        Gauge.builder("filmorate.replication.follower.version", this, ReplicationFollower::getAppliedVersion)
+                .register(registry);
+        Gauge.builder("filmorate.replication.follower.lag.operations", this, ReplicationFollower::getLagOperations)
+                .register(registry);
+        Gauge.builder("filmorate.replication.follower.lag.seconds", this, f -> f.getLag().toMillis() / 1000.0)
+                .register(registry);
+    }
+
+    public InMemoryFilmStorage films() {
+        return films;
+    }
+
+    public InMemoryUserStorage users() {
+        return users;
+    }
+
+    public long getAppliedVersion() {
+        return appliedVersion;
+    }
+
+    public long getLagOperations() {
+        return Math.max(0, leaderVersion - appliedVersion);
+    }
+
+    public Duration getLag() {
+        return Duration.ofNanos(System.nanoTime() - syncedAtNanos);
+    }
+
+    public void ensureFresh() {
+        if (snapshotRequired || getLag().compareTo(properties.maxLag()) > 0) {
+            throw new ReplicaUnavailableException(
+                    String.format("Реплика отстаёт от лидера больше чем на %s", properties.maxLag())
+            );
+        }
+    }
+
+    public void awaitVersion(long version) {
+        long deadline = System.nanoTime() + properties.readYourWritesTimeout().toNanos();
+        synchronized (monitor) {
+            while (appliedVersion < version) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new ReplicaUnavailableException(
+                            String.format("Реплика ещё не получила версию %d, текущая версия %d", version, appliedVersion)
+                    );
+                }
+                try {
+                    monitor.wait(Math.max(1, remaining / 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ReplicaUnavailableException("Ожидание версии прервано");
+                }
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofVirtual().name("replication-follower").start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                if (snapshotRequired) {
+                    bootstrap();
+                }
+                poll();
+            } catch (RestClientException e) {
+                log.warn("Ошибка получения журнала лидера {}: {}", properties.leaderUrl(), e.getMessage());
+                try {
+                    Thread.sleep(properties.pollWait().toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void bootstrap() {
+        ReplicationSnapshot snapshot = client.get().uri("/snapshot").retrieve().body(ReplicationSnapshot.class);
+        InMemoryFilmStorage newFilms = new InMemoryFilmStorage();
+        InMemoryUserStorage newUsers = new InMemoryUserStorage();
+        snapshot.films().forEach(newFilms::update);
+        snapshot.users().forEach(newUsers::update);
+        synchronized (monitor) {
+            films = newFilms;
+            users = newUsers;
+            leaderVersion = snapshot.version();
+            appliedVersion = snapshot.version();
+            syncedAtNanos = System.nanoTime();
+            snapshotRequired = false;
+            monitor.notifyAll();
+        }
+        caches.invalidateAll();
+        log.info("Реплика загрузила снимок лидера версии {}", snapshot.version());
+    }
+
+    private void poll() {
+        long contactedAt = System.nanoTime();
+        ReplicationBatch batch = client.get()
+                .uri("/log?after={after}&limit={limit}&waitMillis={wait}",
+                        appliedVersion, properties.batchSize(), properties.pollWait().toMillis())
+                .retrieve()
+                .body(ReplicationBatch.class);
+        leaderVersion = batch.leaderVersion();
+        if (batch.snapshotRequired()) {
+            log.warn("Реплика отстала от журнала лидера, требуется снимок");
+            snapshotRequired = true;
+            return;
+        }
+        for (ReplicationOperation operation : batch.operations()) {
+            apply(operation);
+            caches.invalidateAll();
+            synchronized (monitor) {
+                appliedVersion = operation.version();
+                monitor.notifyAll();
+            }
+        }
+        if (appliedVersion >= batch.leaderVersion()) {
+            syncedAtNanos = contactedAt;
+        }
+    }
+
+    private void apply(ReplicationOperation operation) {
+        switch (operation.type()) {
+            case FILM_PUT -> films.update(operation.film());
+            case LIKE_ADDED -> films.addLike(operation.entityId(), operation.relatedId());
+            case LIKE_REMOVED -> films.removeLike(operation.entityId(), operation.relatedId());
+            case USER_PUT -> users.update(operation.user());
+            case FRIEND_ADDED -> users.addFriend(operation.entityId(), operation.relatedId());
+            case FRIEND_REMOVED -> users.removeFriend(operation.entityId(), operation.relatedId());
+        }
+    }
+}
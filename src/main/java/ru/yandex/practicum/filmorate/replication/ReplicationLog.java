@@ -0,0 +1,94 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Упорядоченный журнал изменений лидера. Изменение хранилища и запись в журнал выполняются
+ * под монитором журнала, поэтому порядок операций в журнале совпадает с порядком их применения.
+ */
+@Component
+@ConditionalOnProperty(prefix = "filmorate.replication", name = "leader", havingValue = "true")
+public class ReplicationLog {
+    private final ReplicationOperation[] operations;
+    private long version;
+
+    public ReplicationLog(ReplicationProperties properties, MeterRegistry registry) {
+        this.operations = new ReplicationOperation[properties.retainedOperations()];
+        Gauge.builder("filmorate.replication.leader.version", this, ReplicationLog::getVersion)
+                .register(registry);
+        Gauge.builder("filmorate.replication.leader.retained", this, ReplicationLog::getRetained)
+                .register(registry);
+    }
+
+    public synchronized long append(OperationType type, int entityId, Integer relatedId, Film film, User user) {
+        ReplicationOperation operation = new ReplicationOperation(
+                ++version, type, Instant.now(), entityId, relatedId, film, user
+        );
+        operations[(int) (version % operations.length)] = operation;
+        notifyAll();
+        exposeVersion(version);
+        return version;
+    }
+
+    public synchronized ReplicationBatch read(long afterVersion, int limit, long waitMillis) throws InterruptedException {
+        if (afterVersion > version) {
+            return new ReplicationBatch(version, true, List.of());
+        }
+        long deadline = System.currentTimeMillis() + waitMillis;
+        while (version <= afterVersion) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return new ReplicationBatch(version, false, List.of());
+            }
+            wait(remaining);
+        }
+        if (afterVersion < version - operations.length) {
+            return new ReplicationBatch(version, true, List.of());
+        }
+        long last = Math.min(version, afterVersion + limit);
+        List<ReplicationOperation> batch = new ArrayList<>((int) (last - afterVersion));
+        for (long next = afterVersion + 1; next <= last; next++) {
+            batch.add(operations[(int) (next % operations.length)]);
+        }
+        return new ReplicationBatch(version, false, batch);
+    }
+
+    public synchronized ReplicationSnapshot snapshot(Supplier<Collection<Film>> films, Supplier<Collection<User>> users) {
+        return new ReplicationSnapshot(
+                version,
+                films.get().stream().map(Film::copy).toList(),
+                users.get().stream().map(User::copy).toList()
+        );
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized long getRetained() {
+        return Math.min(version, operations.length);
+    }
+
+    private static void exposeVersion(long version) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletResponse response = attributes.getResponse();
+            if (response != null && !response.isCommitted()) {
+                response.setHeader(ReplicationProperties.VERSION_HEADER, Long.toString(version));
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+
+import java.time.Instant;
+
+public record ReplicationOperation(
+        long version,
+        OperationType type,
+        Instant timestamp,
+        int entityId,
+        Integer relatedId,
+        Film film,
+        User user
+) {
+}
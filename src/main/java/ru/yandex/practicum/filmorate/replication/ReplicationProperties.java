@@ -0,0 +1,20 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "filmorate.replication")
+public record ReplicationProperties(
+        @DefaultValue("false") boolean leader,
+        String leaderUrl,
+        @DefaultValue("100000") int retainedOperations,
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("1s") Duration pollWait,
+        @DefaultValue("5s") Duration maxLag,
+        @DefaultValue("500ms") Duration readYourWritesTimeout
+) {
+    public static final String VERSION_HEADER = "X-Filmorate-Version";
+    public static final String MIN_VERSION_HEADER = "X-Filmorate-Min-Version";
+}
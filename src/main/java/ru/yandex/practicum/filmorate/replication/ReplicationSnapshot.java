@@ -0,0 +1,9 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+
+import java.util.List;
+
+public record ReplicationSnapshot(long version, List<Film> films, List<User> users) {
+}
@@ -0,0 +1,28 @@
+package ru.yandex.practicum.filmorate.serializers;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Бинарные форматы Smile ({@code application/x-jackson-smile}) и CBOR ({@code application/cbor})
+ * по заголовкам {@code Accept}/{@code Content-Type}. Мапперы собираются тем же настроенным
+ * Spring Boot построителем, что и JSON, поэтому даты, продолжительность в минутах, проекции
+ * и обработка неизвестных полей совпадают с JSON.
+ */
+@Configuration
+public class BinaryFormatsConfiguration {
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
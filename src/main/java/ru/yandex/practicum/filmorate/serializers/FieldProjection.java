@@ -0,0 +1,34 @@
+package ru.yandex.practicum.filmorate.serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+
+import java.io.IOException;
+
+/**
+ * Готовый сериализатор одной проекции: выбранные свойства класса в порядке их объявления.
+ * Использует писателей свойств самого Jackson, поэтому форматы полей (например, минуты
+ * продолжительности) совпадают с полным ответом.
+ */
+public final class FieldProjection {
+    private final BeanPropertyWriter[] writers;
+
+    FieldProjection(BeanPropertyWriter[] writers) {
+        this.writers = writers;
+    }
+
+    public void write(Object bean, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(bean);
+        for (BeanPropertyWriter writer : writers) {
+            try {
+                writer.serializeAsField(bean, generator, provider);
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,91 @@
+package ru.yandex.practicum.filmorate.serializers;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Кэш проекций по классу и строке {@code fields}. Разбор строки и поиск свойств выполняются
+ * один раз на проекцию; повторный запрос с теми же полями обходится одним поиском в хеш-таблице.
+ */
+@Component
+public class FieldProjections {
+    static final int MAX_PROJECTIONS_PER_TYPE = 256;
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, Map<String, FieldProjection>> cache = new ConcurrentHashMap<>();
+
+    public FieldProjections(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public FieldProjection get(Class<?> type, String fields) {
+        Map<String, FieldProjection> projections = cache.computeIfAbsent(type, key -> new ConcurrentHashMap<>());
+        FieldProjection projection = projections.get(fields);
+        if (projection != null) {
+            return projection;
+        }
+        projection = compile(type, fields);
+        if (projections.size() < MAX_PROJECTIONS_PER_TYPE) {
+            projections.putIfAbsent(fields, projection);
+        }
+        return projection;
+    }
+
+    private FieldProjection compile(Class<?> type, String fields) {
+        Map<String, BeanPropertyWriter> properties = properties(type);
+        Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toSet());
+        List<String> unknown = requested.stream()
+                .filter(field -> !properties.containsKey(field))
+                .sorted()
+                .toList();
+        if (requested.isEmpty() || !unknown.isEmpty()) {
+            throw new ValidationException(String.format("Неизвестные поля %s, доступны: %s",
+                    unknown, String.join(",", properties.keySet())));
+        }
+        List<BeanPropertyWriter> writers = new ArrayList<>();
+        properties.forEach((name, writer) -> {
+            if (requested.contains(name)) {
+                writers.add(writer);
+            }
+        });
+        return new FieldProjection(writers.toArray(new BeanPropertyWriter[0]));
+    }
+
+    private Map<String, BeanPropertyWriter> properties(Class<?> type) {
+        JsonSerializer<Object> serializer;
+        try {
+            serializer = objectMapper.getSerializerProviderInstance().findValueSerializer(type);
+        } catch (JsonMappingException e) {
+            throw new IllegalStateException("Нет сериализатора для " + type.getName(), e);
+        }
+        if (!(serializer instanceof BeanSerializerBase bean)) {
+            throw new ValidationException("Выбор полей не поддерживается для " + type.getSimpleName());
+        }
+        Map<String, BeanPropertyWriter> properties = new LinkedHashMap<>();
+        for (Iterator<PropertyWriter> it = bean.properties(); it.hasNext(); ) {
+            if (it.next() instanceof BeanPropertyWriter writer) {
+                properties.put(writer.getName(), writer);
+            }
+        }
+        return properties;
+    }
+}
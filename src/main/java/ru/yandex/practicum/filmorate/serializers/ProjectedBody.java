@@ -0,0 +1,33 @@
+package ru.yandex.practicum.filmorate.serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Тело ответа, которое Jackson пишет готовой проекцией вместо полного сериализатора сущности.
+ */
+public record ProjectedBody(Object value, FieldProjection projection) implements JsonSerializable {
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (value instanceof Collection<?> collection) {
+            generator.writeStartArray(collection, collection.size());
+            for (Object element : collection) {
+                projection.write(element, generator, provider);
+            }
+            generator.writeEndArray();
+        } else {
+            projection.write(value, generator, provider);
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider provider, TypeSerializer typeSerializer)
+            throws IOException {
+        serialize(generator, provider);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.yandex.practicum.filmorate.serializers;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.models.Views;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Проекции ответов с фильмами и пользователями в GET-запросах:
+ * {@code view=lean} отдаёт счётчики {@code likesCount}/{@code friendsCount} вместо множеств id,
+ * {@code fields=id,name} — только перечисленные свойства. Если указаны оба, действует {@code fields}.
+ */
+@RestControllerAdvice
+public class ResponseViewAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+    public static final String VIEW_PARAMETER = "view";
+    public static final String FIELDS_PARAMETER = "fields";
+
+    private final FieldProjections projections;
+
+    public ResponseViewAdvice(FieldProjections projections) {
+        this.projections = projections;
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)
+                || !"GET".equals(servletRequest.getServletRequest().getMethod())) {
+            return;
+        }
+        HttpServletRequest httpRequest = servletRequest.getServletRequest();
+        String fields = httpRequest.getParameter(FIELDS_PARAMETER);
+        if (fields != null) {
+            project(bodyContainer, returnType, fields);
+            return;
+        }
+        String view = httpRequest.getParameter(VIEW_PARAMETER);
+        if (view == null || view.equals("full")) {
+            return;
+        }
+        if (!view.equals("lean")) {
+            throw new ValidationException("Параметр view может быть full или lean");
+        }
+        bodyContainer.setSerializationView(Views.Lean.class);
+    }
+
+    private void project(MappingJacksonValue bodyContainer, MethodParameter returnType, String fields) {
+        Class<?> type = entityType(ResolvableType.forMethodParameter(returnType));
+        if (type == null) {
+            return;
+        }
+        FieldProjection projection = projections.get(type, fields);
+        Object value = bodyContainer.getValue();
+        if (value instanceof Optional<?> optional) {
+            value = optional.orElse(null);
+        }
+        if (value != null) {
+            bodyContainer.setValue(new ProjectedBody(value, projection));
+        }
+    }
+
+    private static Class<?> entityType(ResolvableType type) {
+        Class<?> raw = type.resolve();
+        if (raw != null && (Collection.class.isAssignableFrom(raw) || Optional.class.equals(raw))) {
+            raw = type.getGeneric(0).resolve();
+        }
+        return Film.class.equals(raw) || User.class.equals(raw) ? raw : null;
+    }
+}
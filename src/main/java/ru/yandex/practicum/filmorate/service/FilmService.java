@@ -1,20 +1,33 @@
 package ru.yandex.practicum.filmorate.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.events.DomainEventBus;
+import ru.yandex.practicum.filmorate.events.DomainEventType;
 import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
 import ru.yandex.practicum.filmorate.exceptions.ValidationException;
 import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.service.cache.CoalescingCache;
+import ru.yandex.practicum.filmorate.service.cache.CoalescingCaches;
+import ru.yandex.practicum.filmorate.service.likes.AsyncLikeProperties;
+import ru.yandex.practicum.filmorate.service.likes.LikeWritePipeline;
+import ru.yandex.practicum.filmorate.service.popular.ApproximatePopularFilms;
 import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
 import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.tracing.Tracer;
+import ru.yandex.practicum.filmorate.tracing.TracingFilmStorage;
+import ru.yandex.practicum.filmorate.tracing.TracingUserStorage;
+import ru.yandex.practicum.filmorate.validation.ModelValidators;
 
 import java.time.LocalDate;
-import java.time.Month;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -22,44 +35,56 @@ import java.util.stream.Collectors;
 public class FilmService {
     public final FilmStorage storage;
     public final UserStorage userStorage;
-    public static final int MAX_DESCRIPTION_LENGTH = 200;
-    public static final LocalDate START_FILM_DATE = LocalDate.of(1895, Month.DECEMBER, 28);
+    private final ApproximatePopularFilms approximatePopularFilms;
+    private final DomainEventBus eventBus;
+    private final CoalescingCache<Integer, Collection<Film>> popularFilms;
+    private final LikeWritePipeline likePipeline;
+    private final Tracer tracer;
+    public static final int MAX_DESCRIPTION_LENGTH = ModelValidators.MAX_DESCRIPTION_LENGTH;
+    public static final LocalDate START_FILM_DATE = ModelValidators.START_FILM_DATE;
 
     @Autowired
-    public FilmService(FilmStorage storage, UserStorage userStorage) {
-        this.storage = storage;
-        this.userStorage = userStorage;
+    public FilmService(FilmStorage storage, UserStorage userStorage, ApproximatePopularFilms approximatePopularFilms,
+                       DomainEventBus eventBus, CoalescingCaches caches, AsyncLikeProperties asyncLikes,
+                       Tracer tracer, MeterRegistry registry) {
+        this.storage = TracingFilmStorage.wrap(storage, tracer);
+        this.userStorage = TracingUserStorage.wrap(userStorage, tracer);
+        this.tracer = tracer;
+        this.approximatePopularFilms = approximatePopularFilms;
+        this.eventBus = eventBus;
+        this.popularFilms = caches.create("films.popular");
+        this.likePipeline = asyncLikes.enabled()
+                ? new LikeWritePipeline(storage, this::onLikesApplied, asyncLikes, registry)
+                : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (likePipeline != null) {
+            likePipeline.shutdown();
+        }
     }
 
     public Collection<Film> getList() {
-        return storage.list();
+        try (Tracer.Scope scope = tracer.service("FilmService.getList", 0)) {
+            return storage.list();
+        }
     }
 
     public Optional<Film> get(int filmId) {
-        return Optional.ofNullable(storage.get(filmId));
+        try (Tracer.Scope scope = tracer.service("FilmService.get", filmId)) {
+            return Optional.ofNullable(storage.get(filmId));
+        }
     }
 
     public Film add(Film newFilm) {
         log.info("Добавление фильма {}", newFilm);
 
-        if (newFilm.getName() == null || newFilm.getName().isBlank()) {
-            log.error("Ошибка добавления фильма: название не может быть пустым");
-            throw new ValidationException("Название не может быть пустым");
-        }
-        if (newFilm.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
-            log.error("Ошибка добавления фильма: описание не может быть длиннее {} символов", MAX_DESCRIPTION_LENGTH);
-            throw new ValidationException(String.format("Описание не может быть длиннее %d символов", MAX_DESCRIPTION_LENGTH));
-        }
-        if (newFilm.getReleaseDate().isBefore(START_FILM_DATE)) {
-            log.error("Ошибка добавления фильма: дата релиза не может быть раньше {}", START_FILM_DATE);
-            throw new ValidationException(String.format("Дата релиза не может быть раньше %s", START_FILM_DATE));
-        }
-        if (newFilm.getDuration().isNegative()) {
-            log.error("Ошибка добавления фильма: продолжительность фильма не может быть отрицательной");
-            throw new ValidationException("Продолжительность фильма не может быть отрицательной");
-        }
+        ModelValidators.FILM.validate(newFilm);
 
         Film addedFilm = storage.create(newFilm);
+        popularFilms.invalidateAll();
+        eventBus.publish(DomainEventType.FILM_CREATED, addedFilm.getId());
 
         log.info("Добавлен новый фильм с id={}", addedFilm.getId());
 
@@ -74,88 +99,112 @@ public class FilmService {
 
         log.info("Обновление фильма с id={}", film.getId());
 
-        if (storage.notExists(film.getId())) {
+        if (storage.get(film.getId()) == null) {
             log.error("Ошибка обновления фильма: фильм с указанным id={} не найден", film.getId());
             throw new NotFoundException("Фильм с указанным Id не найден");
         }
 
-        if (film.getName() == null || film.getName().isBlank()) {
-            log.error("Ошибка обновления фильма: название не может быть пустым");
-            throw new ValidationException("Название не может быть пустым");
-        }
-
-        if (film.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
-            log.error("Ошибка обновления фильма: описание не может быть длиннее {} символов", MAX_DESCRIPTION_LENGTH);
-            throw new ValidationException(String.format("Описание не может быть длиннее %d символов", MAX_DESCRIPTION_LENGTH));
-        }
-
-        if (film.getReleaseDate().isBefore(START_FILM_DATE)) {
-            log.error("Ошибка обновления фильма: дата релиза не может быть раньше {}", START_FILM_DATE);
-            throw new ValidationException(String.format("Дата релиза не может быть раньше %s", START_FILM_DATE));
-        }
-
-        if (film.getDuration().isNegative()) {
-            log.error("Ошибка обновления фильма: продолжительность фильма не может быть отрицательной");
-            throw new ValidationException("Продолжительность фильма не может быть отрицательной");
-        }
+        ModelValidators.FILM.validate(film);
 
         Film updatedFilm = storage.update(film);
+        popularFilms.invalidateAll();
+        eventBus.publish(DomainEventType.FILM_UPDATED, updatedFilm.getId());
         log.info("Фильм с id={} успешно обновлен", film.getId());
 
         return updatedFilm;
     }
 
     public void addLike(int filmId, int userId) {
-        if (storage.notExists(filmId)) {
-            throw new NotFoundException("Фильм с id: " + filmId + " не найден.");
+        try (Tracer.Scope scope = tracer.service("FilmService.addLike", filmId)) {
+            Film film = storage.getOrThrow(filmId);
+            userStorage.getOrThrow(userId);
+
+            if (likePipeline != null) {
+                if (!likePipeline.submit(filmId, userId, true)) {
+                    throw new ValidationException(
+                            String.format("Пользователь %d уже поставил лайк фильму %d", userId, filmId)
+                    );
+                }
+                return;
+            }
+
+            if (film.getLikes().contains(userId)) {
+                throw new ValidationException(
+                        String.format("Пользователь %d уже поставил лайк фильму %d", userId, filmId)
+                );
+            }
+
+            storage.addLike(filmId, userId);
+            popularFilms.invalidateAll();
+            approximatePopularFilms.recordLike(filmId);
+            eventBus.publish(DomainEventType.LIKE_ADDED, filmId, userId);
         }
-        if (userStorage.notExists(userId)) {
-            throw new NotFoundException("Пользователь с id: " + userId + "не найден.");
-        }
-
-        Film film = storage.get(filmId);
-
-        if (film.getLikes().contains(userId)) {
-            throw new ValidationException(
-                    String.format("Пользователь %d уже поставил лайк фильму %d", userId, filmId)
-            );
-        }
-
-        film.getLikes().add(userId);
     }
 
     public void removeLike(int filmId, int userId) {
-        if (storage.notExists(filmId)) {
-            throw new NotFoundException("Фильм с id: " + filmId + " не найден.");
-        }
-        if (userStorage.notExists(userId)) {
-            throw new NotFoundException("Пользователь с id: " + userId + "не найден.");
+        try (Tracer.Scope scope = tracer.service("FilmService.removeLike", filmId)) {
+            Film film = storage.getOrThrow(filmId);
+            userStorage.getOrThrow(userId);
+
+            if (likePipeline != null) {
+                if (!likePipeline.submit(filmId, userId, false)) {
+                    throw new NotFoundException(
+                            String.format("Пользователь %d не ставил лайк фильму %d", userId, filmId)
+                    );
+                }
+                return;
+            }
+
+            if (!film.getLikes().contains(userId)) {
+                throw new NotFoundException(
+                        String.format("Пользователь %d не ставил лайк фильму %d", userId, filmId)
+                );
+            }
+
+            storage.removeLike(filmId, userId);
+            popularFilms.invalidateAll();
+            approximatePopularFilms.recordUnlike(filmId);
+            eventBus.publish(DomainEventType.LIKE_REMOVED, filmId, userId);
         }
+    }
 
-        Film film = storage.get(filmId);
+    public Collection<Film> getPopularFilms(int count) {
+        try (Tracer.Scope scope = tracer.service("FilmService.getPopularFilms", 0)) {
+            if (count <= 0) {
+                throw new ValidationException("Количество count должен быть положительным числом.");
+            }
 
-        if (!film.getLikes().contains(userId)) {
-            throw new NotFoundException(
-                    String.format("Пользователь %d не ставил лайк фильму %d", userId, filmId)
-            );
+            return popularFilms.get(count, () -> Collections.unmodifiableCollection(storage.getPopular(count)));
         }
+    }
 
-        film.getLikes().remove(userId);
+    public long getPopularFilmsVersion() {
+        return popularFilms.generation();
     }
 
-    public Collection<Film> getPopularFilms(int count) {
+    public Collection<Film> getApproximatePopularFilms(int count) {
         if (count <= 0) {
             throw new ValidationException("Количество count должен быть положительным числом.");
         }
+        if (!approximatePopularFilms.isEnabled()) {
+            throw new ValidationException("Приблизительный режим рейтинга фильмов не включен.");
+        }
 
-        return storage.list().stream()
-                .sorted(
-                        Comparator.comparingInt(
-                                (Film obj) -> Optional.ofNullable(obj.getLikes())
-                                        .map(Set::size)
-                                        .orElse(0)
-                        ).reversed()
-                ).limit(count)
+        return approximatePopularFilms.top(count).stream()
+                .map(storage::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
+
+    private void onLikesApplied(int filmId, List<Integer> added, List<Integer> removed) {
+        popularFilms.invalidateAll();
+        for (int userId : added) {
+            approximatePopularFilms.recordLike(filmId);
+            eventBus.publish(DomainEventType.LIKE_ADDED, filmId, userId);
+        }
+        for (int userId : removed) {
+            approximatePopularFilms.recordUnlike(filmId);
+            eventBus.publish(DomainEventType.LIKE_REMOVED, filmId, userId);
+        }
+    }
 }
@@ -0,0 +1,135 @@
+package ru.yandex.practicum.filmorate.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Объединяет одновременные одинаковые запросы: первый поток вычисляет результат, остальные ждут его же.
+ * Готовый результат живёт в микрокэше {@code ttl}, чтобы поглотить всплеск сразу после вычисления.
+ * Изменения данных сбрасывают кэш через {@link #invalidateAll()}; вычисление, начатое до сброса,
+ * отдаётся уже ожидающим его потокам, но в кэш не попадает.
+ */
+public final class CoalescingCache<K, V> {
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final ConcurrentHashMap<K, Cached<V>> cached = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter coalesced;
+    private final Counter loads;
+
+    public CoalescingCache(String name, CoalescingCacheProperties properties, MeterRegistry registry) {
+        this.enabled = properties.enabled();
+        this.ttlNanos = properties.ttl().toNanos();
+        this.maxEntries = properties.maxEntries();
+        this.hits = requests(registry, name, "hit");
+        this.coalesced = requests(registry, name, "coalesced");
+        this.loads = requests(registry, name, "load");
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Cached<V> entry = cached.get(key);
+        if (entry != null && System.nanoTime() - entry.loadedAt < ttlNanos) {
+            hits.increment();
+            return entry.value;
+        }
+        Flight<V> flight = inFlight.get(key);
+        if (flight == null) {
+            Flight<V> own = new Flight<>(generation.get(), System.nanoTime());
+            flight = inFlight.putIfAbsent(key, own);
+            if (flight == null) {
+                return load(key, own, loader);
+            }
+        }
+        coalesced.increment();
+        return flight.join();
+    }
+
+    /**
+     * Номер поколения данных: меняется при каждом сбросе кэша.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cached.clear();
+        inFlight.clear();
+    }
+
+    private V load(K key, Flight<V> flight, Supplier<V> loader) {
+        loads.increment();
+        try {
+            V value = loader.get();
+            cache(key, flight, value);
+            flight.future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private void cache(K key, Flight<V> flight, V value) {
+        if (ttlNanos <= 0 || generation.get() != flight.generation) {
+            return;
+        }
+        if (cached.size() >= maxEntries) {
+            cached.clear();
+        }
+        Cached<V> entry = new Cached<>(value, flight.startedAt);
+        cached.put(key, entry);
+        if (generation.get() != flight.generation) {
+            cached.remove(key, entry);
+        }
+    }
+
+    private static Counter requests(MeterRegistry registry, String name, String result) {
+        return Counter.builder("filmorate.coalescing.requests")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private record Cached<V>(V value, long loadedAt) {
+    }
+
+    private static final class Flight<V> {
+        private final long generation;
+        private final long startedAt;
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+
+        private Flight(long generation, long startedAt) {
+            this.generation = generation;
+            this.startedAt = startedAt;
+        }
+
+        private V join() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.yandex.practicum.filmorate.service.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "filmorate.coalescing")
+public record CoalescingCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("50ms") Duration ttl,
+        @DefaultValue("1024") int maxEntries
+) {
+}
@@ -0,0 +1,41 @@
+package ru.yandex.practicum.filmorate.service.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Component
+public class CoalescingCaches {
+    private final CoalescingCacheProperties properties;
+    private final MeterRegistry registry;
+    private final List<CoalescingCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    public CoalescingCaches(CoalescingCacheProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    public <K, V> CoalescingCache<K, V> create(String name) {
+        CoalescingCache<K, V> cache = new CoalescingCache<>(name, properties, registry);
+        caches.add(cache);
+        return cache;
+    }
+
+    /**
+     * Подписывает другой кэш на {@link #invalidateAll()}.
+     */
+    public void onInvalidateAll(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Сбрасывает все кэши, когда данные изменились в обход сервисов (например, на реплике).
+     */
+    public void invalidateAll() {
+        caches.forEach(CoalescingCache::invalidateAll);
+        listeners.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,211 @@
+package ru.yandex.practicum.filmorate.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Общие друзья для пар пользователей, ключ — упорядоченная пара id. Размер ограничен {@code max-entries},
+ * вытесняется пара, к которой дольше всего не обращались.
+ * <p>
+ * Изменения дружбы не сбрасывают кэш, а правят только пары с участием изменённых пользователей:
+ * новая дружба {@code u — f} добавляет {@code f} к паре {@code (u, y)}, если {@code y} дружит с {@code f},
+ * удаление дружбы убирает {@code f} из всех пар с {@code u}. Друзья для правки читаются из хранилища
+ * под блокировкой кэша уже после записи, поэтому одновременные изменения дружбы не теряют друг друга.
+ * Значение, вычисленное до изменения, в кэш не попадает.
+ */
+@Component
+public class CommonFriendsCache {
+    private final boolean enabled;
+    private final int maxEntries;
+    private final LinkedHashMap<Long, Set<Integer>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Integer, Set<Long>> pairsByUser = new HashMap<>();
+    private long modifications;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter updates;
+    private final Counter evictions;
+
+    public CommonFriendsCache(CommonFriendsCacheProperties properties, MeterRegistry registry,
+                              CoalescingCaches caches) {
+        this.enabled = properties.enabled();
+        this.maxEntries = properties.maxEntries();
+        this.hits = requests(registry, "hit");
+        this.misses = requests(registry, "miss");
+        this.updates = Counter.builder("filmorate.common-friends.cache.updates").register(registry);
+        this.evictions = Counter.builder("filmorate.common-friends.cache.evictions").register(registry);
+        Gauge.builder("filmorate.common-friends.cache.size", this, CommonFriendsCache::size).register(registry);
+        caches.onInvalidateAll(this::invalidateAll);
+    }
+
+    /**
+     * Номер изменения: значение, вычисленное после этого вызова, передаётся в {@link #put} с ним.
+     */
+    public synchronized long stamp() {
+        return modifications;
+    }
+
+    /**
+     * @return общие друзья или {@code null}, если пары нет в кэше.
+     */
+    public synchronized Collection<Integer> get(int userId, int otherId) {
+        if (!enabled) {
+            return null;
+        }
+        Set<Integer> common = entries.get(key(userId, otherId));
+        if (common == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return List.copyOf(common);
+    }
+
+    public synchronized void put(int userId, int otherId, Collection<Integer> common, long stamp) {
+        if (!enabled || maxEntries <= 0 || stamp != modifications) {
+            return;
+        }
+        long key = key(userId, otherId);
+        if (entries.put(key, new HashSet<>(common)) == null) {
+            pairsByUser.computeIfAbsent(userId, id -> new HashSet<>()).add(key);
+            pairsByUser.computeIfAbsent(otherId, id -> new HashSet<>()).add(key);
+        }
+        Iterator<Map.Entry<Long, Set<Integer>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries) {
+            long evicted = eldest.next().getKey();
+            eldest.remove();
+            unindex(evicted);
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Вызывается после записи дружбы {@code userId — friendId}. Если к этому моменту дружбу уже удалили,
+     * ничего не делает: пары правит {@link #friendRemoved}.
+     *
+     * @param friendsOf текущие друзья пользователя из хранилища
+     */
+    public synchronized void friendAdded(int userId, int friendId, IntFunction<Set<Integer>> friendsOf) {
+        modifications++;
+        if (!pairsByUser.containsKey(userId) && !pairsByUser.containsKey(friendId)) {
+            return;
+        }
+        Set<Integer> userFriends = friendsOf.apply(userId);
+        if (!userFriends.contains(friendId)) {
+            return;
+        }
+        addToPairs(userId, friendId, friendsOf.apply(friendId));
+        addToPairs(friendId, userId, userFriends);
+    }
+
+    /**
+     * Вызывается после удаления дружбы {@code userId — friendId}. Если к этому моменту дружбу записали снова,
+     * ничего не делает: пары правит {@link #friendAdded}.
+     *
+     * @param friendsOf текущие друзья пользователя из хранилища
+     */
+    public synchronized void friendRemoved(int userId, int friendId, IntFunction<Set<Integer>> friendsOf) {
+        modifications++;
+        if (!pairsByUser.containsKey(userId) && !pairsByUser.containsKey(friendId)
+                || friendsOf.apply(userId).contains(friendId)) {
+            return;
+        }
+        removeFromPairs(userId, friendId);
+        removeFromPairs(friendId, userId);
+    }
+
+    /**
+     * Сбрасывает пары пользователя, чьи друзья могли измениться целиком (обновление пользователя).
+     */
+    public synchronized void invalidateUser(int userId) {
+        modifications++;
+        Set<Long> pairs = pairsByUser.get(userId);
+        if (pairs == null) {
+            return;
+        }
+        for (long key : List.copyOf(pairs)) {
+            entries.remove(key);
+            unindex(key);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        modifications++;
+        entries.clear();
+        pairsByUser.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * У пользователя {@code userId} появился друг {@code newFriend}: он становится общим для пар
+     * {@code (userId, y)}, где {@code y} уже дружит с {@code newFriend}.
+     */
+    private void addToPairs(int userId, int newFriend, Set<Integer> friendsOfNewFriend) {
+        Set<Long> pairs = pairsByUser.get(userId);
+        if (pairs == null) {
+            return;
+        }
+        for (long key : pairs) {
+            int other = other(key, userId);
+            if (other != newFriend && friendsOfNewFriend.contains(other)) {
+                entries.get(key).add(newFriend);
+                updates.increment();
+            }
+        }
+    }
+
+    private void removeFromPairs(int userId, int formerFriend) {
+        Set<Long> pairs = pairsByUser.get(userId);
+        if (pairs == null) {
+            return;
+        }
+        for (long key : pairs) {
+            if (entries.get(key).remove(formerFriend)) {
+                updates.increment();
+            }
+        }
+    }
+
+    private void unindex(long key) {
+        unindex((int) (key >>> 32), key);
+        unindex((int) key, key);
+    }
+
+    private void unindex(int userId, long key) {
+        Set<Long> pairs = pairsByUser.get(userId);
+        if (pairs != null && pairs.remove(key) && pairs.isEmpty()) {
+            pairsByUser.remove(userId);
+        }
+    }
+
+    private static long key(int userId, int otherId) {
+        int low = Math.min(userId, otherId);
+        int high = Math.max(userId, otherId);
+        return (long) low << 32 | (high & 0xFFFFFFFFL);
+    }
+
+    private static int other(long key, int userId) {
+        int low = (int) (key >>> 32);
+        return low == userId ? (int) key : low;
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder("filmorate.common-friends.cache.requests")
+                .tag("result", result)
+                .register(registry);
+    }
+}
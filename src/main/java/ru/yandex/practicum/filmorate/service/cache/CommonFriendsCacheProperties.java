@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.service.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "filmorate.common-friends.cache")
+public record CommonFriendsCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") int maxEntries
+) {
+}
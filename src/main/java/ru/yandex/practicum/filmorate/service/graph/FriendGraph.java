@@ -0,0 +1,335 @@
+package ru.yandex.practicum.filmorate.service.graph;
+
+import ru.yandex.practicum.filmorate.models.User;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Неизменяемый снимок графа дружбы в формате CSR: соседи пользователя {@code id} лежат подряд
+ * в {@code neighbors[offsets[id]..offsets[id + 1])} и отсортированы по возрастанию.
+ * Индекс вершины — id пользователя, поэтому отдельного отображения id не нужно.
+ * <p>
+ * Компоненты связности считаются при построении параллельным объединением множеств без блокировок;
+ * идентификатор компоненты — наименьший id пользователя в ней. Расстояние ищется двусторонним обходом
+ * в ширину, который каждый раз расширяет меньший фронт. Одновременно идёт не больше поисков, чем ядер:
+ * остальные ждут свободный набор рабочих массивов, поэтому всплеск запросов не выделяет новые массивы
+ * размером с граф.
+ */
+public final class FriendGraph {
+    private static final int ABSENT = -1;
+    private static final int MAX_SEARCHES = Runtime.getRuntime().availableProcessors();
+
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final BitSet present;
+    private final int users;
+    private final int[] components;
+    private final int[] componentSizes;
+    private final int componentCount;
+    private final Semaphore searchPermits = new Semaphore(MAX_SEARCHES);
+    private final ConcurrentLinkedQueue<Search> searches = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger createdSearches = new AtomicInteger();
+
+    private FriendGraph(int[] offsets, int[] neighbors, BitSet present) {
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.present = present;
+        this.users = present.cardinality();
+        this.components = components(offsets, neighbors, present);
+        this.componentSizes = new int[components.length];
+        int count = 0;
+        for (int id = present.nextSetBit(0); id >= 0; id = present.nextSetBit(id + 1)) {
+            if (componentSizes[components[id]]++ == 0) {
+                count++;
+            }
+        }
+        this.componentCount = count;
+    }
+
+    public static FriendGraph of(Collection<User> users) {
+        int maxId = 0;
+        for (User user : users) {
+            maxId = Math.max(maxId, user.getId());
+        }
+        BitSet present = new BitSet(maxId + 1);
+        for (User user : users) {
+            present.set(user.getId());
+        }
+        int[] offsets = new int[maxId + 2];
+        for (User user : users) {
+            int degree = 0;
+            for (int friendId : friends(user)) {
+                if (friendId >= 0 && present.get(friendId)) {
+                    degree++;
+                }
+            }
+            offsets[user.getId() + 1] = degree;
+        }
+        for (int id = 0; id <= maxId; id++) {
+            offsets[id + 1] += offsets[id];
+        }
+        int[] neighbors = new int[offsets[maxId + 1]];
+        for (User user : users) {
+            int position = offsets[user.getId()];
+            for (int friendId : friends(user)) {
+                if (friendId >= 0 && present.get(friendId)) {
+                    neighbors[position++] = friendId;
+                }
+            }
+        }
+        IntStream.rangeClosed(0, maxId).parallel()
+                .forEach(id -> Arrays.sort(neighbors, offsets[id], offsets[id + 1]));
+        return new FriendGraph(offsets, neighbors, present);
+    }
+
+    public int users() {
+        return users;
+    }
+
+    /**
+     * Число дружб: каждая пара учитывается один раз.
+     */
+    public long friendships() {
+        return neighbors.length / 2;
+    }
+
+    public boolean contains(int userId) {
+        return userId >= 0 && present.get(userId);
+    }
+
+    public int degree(int userId) {
+        return contains(userId) ? offsets[userId + 1] - offsets[userId] : 0;
+    }
+
+    /**
+     * @return {@code histogram[d]} — число пользователей ровно с {@code d} друзьями.
+     */
+    public int[] degreeHistogram() {
+        int maxDegree = 0;
+        for (int id = present.nextSetBit(0); id >= 0; id = present.nextSetBit(id + 1)) {
+            maxDegree = Math.max(maxDegree, degree(id));
+        }
+        int[] histogram = new int[maxDegree + 1];
+        for (int id = present.nextSetBit(0); id >= 0; id = present.nextSetBit(id + 1)) {
+            histogram[degree(id)]++;
+        }
+        return histogram;
+    }
+
+    public int componentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Наименьший id пользователя в компоненте; пользователь, которого нет в снимке, образует свою.
+     */
+    public int component(int userId) {
+        return contains(userId) ? components[userId] : userId;
+    }
+
+    public int componentSize(int componentId) {
+        if (contains(componentId) && components[componentId] == componentId) {
+            return componentSizes[componentId];
+        }
+        return 1;
+    }
+
+    /**
+     * Идентификаторы {@code count} самых больших компонент, по убыванию размера, при равенстве — по id.
+     */
+    public int[] largestComponents(int count) {
+        return IntStream.range(0, componentSizes.length)
+                .filter(id -> componentSizes[id] > 0)
+                .boxed()
+                .sorted((left, right) -> componentSizes[left] != componentSizes[right]
+                        ? Integer.compare(componentSizes[right], componentSizes[left])
+                        : Integer.compare(left, right))
+                .limit(count)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * Длина кратчайшей цепочки дружб или {@code -1}, если пользователи не связаны.
+     */
+    public int distance(int from, int to) {
+        if (from == to) {
+            return 0;
+        }
+        if (!contains(from) || !contains(to) || components[from] != components[to]) {
+            return ABSENT;
+        }
+        searchPermits.acquireUninterruptibly();
+        try {
+            Search search = searches.poll();
+            if (search == null) {
+                search = new Search(offsets.length - 1);
+                createdSearches.incrementAndGet();
+            }
+            try {
+                return search.run(from, to);
+            } finally {
+                searches.offer(search);
+            }
+        } finally {
+            searchPermits.release();
+        }
+    }
+
+    int createdSearches() {
+        return createdSearches.get();
+    }
+
+    private static Collection<Integer> friends(User user) {
+        return user.getFriends() == null ? List.of() : user.getFriends();
+    }
+
+    private static int[] components(int[] offsets, int[] neighbors, BitSet present) {
+        int size = offsets.length - 1;
+        AtomicIntegerArray parent = new AtomicIntegerArray(size);
+        for (int id = 0; id < size; id++) {
+            parent.set(id, id);
+        }
+        IntStream.range(0, size).parallel().forEach(id -> {
+            for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                if (neighbors[i] > id) {
+                    union(parent, id, neighbors[i]);
+                }
+            }
+        });
+        int[] components = new int[size];
+        IntStream.range(0, size).parallel()
+                .forEach(id -> components[id] = present.get(id) ? find(parent, id) : ABSENT);
+        return components;
+    }
+
+    /**
+     * Подвешивает больший корень к меньшему, поэтому ссылки только уменьшаются и циклов не бывает,
+     * а корнем остаётся наименьший id компоненты.
+     */
+    private static void union(AtomicIntegerArray parent, int left, int right) {
+        while (true) {
+            left = find(parent, left);
+            right = find(parent, right);
+            if (left == right) {
+                return;
+            }
+            int high = Math.max(left, right);
+            int low = Math.min(left, right);
+            if (parent.compareAndSet(high, high, low)) {
+                return;
+            }
+        }
+    }
+
+    private static int find(AtomicIntegerArray parent, int id) {
+        while (true) {
+            int up = parent.get(id);
+            if (up == id) {
+                return id;
+            }
+            int grand = parent.get(up);
+            if (grand != up) {
+                parent.compareAndSet(id, up, grand);
+            }
+            id = grand;
+        }
+    }
+
+    /**
+     * Рабочие массивы обхода. Посещённые вершины помечаются номером поиска, поэтому массивы
+     * не очищаются между запросами и время запроса зависит только от числа посещённых вершин.
+     */
+    private final class Search {
+        private final int[] forwardMark;
+        private final int[] backwardMark;
+        private final int[] forwardDistance;
+        private final int[] backwardDistance;
+        private final int[] forwardQueue;
+        private final int[] backwardQueue;
+        private int stamp;
+        private int tail;
+
+        private Search(int size) {
+            forwardMark = new int[size];
+            backwardMark = new int[size];
+            forwardDistance = new int[size];
+            backwardDistance = new int[size];
+            forwardQueue = new int[size];
+            backwardQueue = new int[size];
+        }
+
+        private int run(int from, int to) {
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(forwardMark, 0);
+                Arrays.fill(backwardMark, 0);
+                stamp = 1;
+            }
+            forwardQueue[0] = from;
+            forwardMark[from] = stamp;
+            forwardDistance[from] = 0;
+            backwardQueue[0] = to;
+            backwardMark[to] = stamp;
+            backwardDistance[to] = 0;
+            int forwardHead = 0;
+            int forwardTail = 1;
+            int backwardHead = 0;
+            int backwardTail = 1;
+            while (forwardHead < forwardTail && backwardHead < backwardTail) {
+                int best;
+                if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+                    int levelEnd = forwardTail;
+                    best = expand(forwardQueue, forwardHead, levelEnd, forwardMark, forwardDistance,
+                            backwardMark, backwardDistance);
+                    forwardTail = tail;
+                    forwardHead = levelEnd;
+                } else {
+                    int levelEnd = backwardTail;
+                    best = expand(backwardQueue, backwardHead, levelEnd, backwardMark, backwardDistance,
+                            forwardMark, forwardDistance);
+                    backwardTail = tail;
+                    backwardHead = levelEnd;
+                }
+                if (best != Integer.MAX_VALUE) {
+                    return best;
+                }
+            }
+            return ABSENT;
+        }
+
+        /**
+         * Проходит один уровень {@code queue[head..levelEnd)} и возвращает кратчайшую длину пути
+         * через вершины, уже посещённые встречным обходом.
+         */
+        private int expand(int[] queue, int head, int levelEnd, int[] mark, int[] distance,
+                           int[] otherMark, int[] otherDistance) {
+            int best = Integer.MAX_VALUE;
+            tail = levelEnd;
+            for (int i = head; i < levelEnd; i++) {
+                int user = queue[i];
+                int next = distance[user] + 1;
+                for (int j = offsets[user]; j < offsets[user + 1]; j++) {
+                    int friend = neighbors[j];
+                    if (mark[friend] == stamp) {
+                        continue;
+                    }
+                    if (otherMark[friend] == stamp) {
+                        best = Math.min(best, next + otherDistance[friend]);
+                    }
+                    mark[friend] = stamp;
+                    distance[friend] = next;
+                    queue[tail++] = friend;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.yandex.practicum.filmorate.service.graph;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "filmorate.graph")
+public record FriendGraphProperties(
+        @DefaultValue("5s") Duration refreshInterval,
+        @DefaultValue("1m") Duration maxAge
+) {
+}
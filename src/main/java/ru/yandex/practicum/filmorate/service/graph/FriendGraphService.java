@@ -0,0 +1,100 @@
+package ru.yandex.practicum.filmorate.service.graph;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Аналитика графа дружбы по снимку {@link FriendGraph}. Снимок строится при первом запросе
+ * и перестраивается не чаще {@code refresh-interval} после изменений через {@code UserService}
+ * и не реже {@code max-age}, чтобы увидеть изменения в обход сервиса (реплика, другие шарды).
+ */
+@Slf4j
+@Service
+public class FriendGraphService {
+    private final UserStorage storage;
+    private final long refreshIntervalNanos;
+    private final long maxAgeNanos;
+    private volatile FriendGraph graph;
+    private volatile long builtAt;
+    private volatile boolean changed;
+
+    public FriendGraphService(UserStorage storage, FriendGraphProperties properties) {
+        this.storage = storage;
+        this.refreshIntervalNanos = properties.refreshInterval().toNanos();
+        this.maxAgeNanos = properties.maxAge().toNanos();
+    }
+
+    public void markChanged() {
+        changed = true;
+    }
+
+    public FriendGraphStats.Degrees getDegrees() {
+        FriendGraph snapshot = graph();
+        int[] histogram = snapshot.degreeHistogram();
+        Map<Integer, Integer> counts = new LinkedHashMap<>();
+        for (int degree = 0; degree < histogram.length; degree++) {
+            if (histogram[degree] > 0) {
+                counts.put(degree, histogram[degree]);
+            }
+        }
+        double average = snapshot.users() == 0 ? 0 : 2.0 * snapshot.friendships() / snapshot.users();
+        return new FriendGraphStats.Degrees(snapshot.users(), snapshot.friendships(), average,
+                snapshot.users() == 0 ? 0 : histogram.length - 1, counts);
+    }
+
+    public FriendGraphStats.Components getComponents(int count) {
+        if (count <= 0) {
+            throw new ValidationException("Количество count должен быть положительным числом.");
+        }
+        FriendGraph snapshot = graph();
+        List<FriendGraphStats.Component> largest = new ArrayList<>();
+        for (int componentId : snapshot.largestComponents(count)) {
+            largest.add(new FriendGraphStats.Component(componentId, snapshot.componentSize(componentId)));
+        }
+        return new FriendGraphStats.Components(snapshot.users(), snapshot.componentCount(), largest);
+    }
+
+    public FriendGraphStats.UserComponent getComponent(int userId) {
+        storage.getOrThrow(userId);
+        FriendGraph snapshot = graph();
+        int componentId = snapshot.component(userId);
+        return new FriendGraphStats.UserComponent(userId, componentId, snapshot.componentSize(componentId));
+    }
+
+    public FriendGraphStats.Distance getDistance(int userId, int otherId) {
+        storage.getOrThrow(userId);
+        storage.getOrThrow(otherId);
+        int distance = graph().distance(userId, otherId);
+        return new FriendGraphStats.Distance(userId, otherId, distance < 0 ? null : distance);
+    }
+
+    private FriendGraph graph() {
+        FriendGraph current = graph;
+        if (current != null && !stale()) {
+            return current;
+        }
+        synchronized (this) {
+            if (graph == null || stale()) {
+                changed = false;
+                long start = System.nanoTime();
+                graph = FriendGraph.of(storage.list());
+                builtAt = System.nanoTime();
+                log.info("Граф дружбы построен за {} мс: {} пользователей, {} дружб",
+                        (builtAt - start) / 1_000_000, graph.users(), graph.friendships());
+            }
+            return graph;
+        }
+    }
+
+    private boolean stale() {
+        long age = System.nanoTime() - builtAt;
+        return age >= maxAgeNanos || changed && age >= refreshIntervalNanos;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.yandex.practicum.filmorate.service.graph;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ответы аналитики графа дружбы.
+ */
+public final class FriendGraphStats {
+    private FriendGraphStats() {
+    }
+
+    /**
+     * @param histogram число друзей → число пользователей с таким числом друзей
+     */
+    public record Degrees(int users, long friendships, double averageDegree, int maxDegree,
+                          Map<Integer, Integer> histogram) {
+    }
+
+    public record Component(int componentId, int size) {
+    }
+
+    public record Components(int users, int components, List<Component> largest) {
+    }
+
+    public record UserComponent(int userId, int componentId, int size) {
+    }
+
+    /**
+     * @param distance длина кратчайшей цепочки дружб; {@code null}, если пользователи не связаны
+     */
+    public record Distance(int userId, int otherId, Integer distance) {
+    }
+}
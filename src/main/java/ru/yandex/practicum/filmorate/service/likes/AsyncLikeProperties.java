@@ -0,0 +1,15 @@
+package ru.yandex.practicum.filmorate.service.likes;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "filmorate.likes.async")
+public record AsyncLikeProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("65536") int queueCapacity,
+        @DefaultValue("4096") int batchSize,
+        @DefaultValue("1ms") Duration idlePoll
+) {
+}
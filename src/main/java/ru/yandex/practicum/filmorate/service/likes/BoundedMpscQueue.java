@@ -0,0 +1,67 @@
+package ru.yandex.practicum.filmorate.service.likes;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ограниченная очередь для многих производителей и одного потребителя. Производители занимают
+ * ячейку CAS-ом хвоста и публикуют элемент записью в неё; потребитель ждёт, пока занятая ячейка
+ * заполнится, и освобождает её перед сдвигом головы.
+ */
+final class BoundedMpscQueue<E> {
+    private final AtomicReferenceArray<E> buffer;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    BoundedMpscQueue(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ёмкость очереди должна быть степенью двойки");
+        }
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    boolean offer(E element) {
+        while (true) {
+            long current = tail.get();
+            if (current - head.get() >= buffer.length()) {
+                return false;
+            }
+            if (tail.compareAndSet(current, current + 1)) {
+                buffer.lazySet((int) (current & mask), element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Вызывается только потоком-потребителем.
+     */
+    E poll() {
+        long current = head.get();
+        int index = (int) (current & mask);
+        E element = buffer.get(index);
+        if (element == null) {
+            return null;
+        }
+        buffer.lazySet(index, null);
+        head.lazySet(current + 1);
+        return element;
+    }
+
+    /**
+     * Вызывается только потоком-потребителем.
+     */
+    E peek() {
+        return buffer.get((int) (head.get() & mask));
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return buffer.length();
+    }
+}
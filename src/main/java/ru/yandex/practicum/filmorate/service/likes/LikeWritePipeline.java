@@ -0,0 +1,190 @@
+package ru.yandex.practicum.filmorate.service.likes;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.exceptions.ServiceOverloadedException;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Асинхронная запись лайков. Лайк подтверждается после постановки в очередь, а отдельный поток
+ * забирает очередь пачками, сворачивает операции по паре фильм-пользователь и применяет их
+ * одной записью на фильм.
+ * <p>
+ * Чтобы повторный лайк и удаление несуществующего лайка отклонялись так же, как в синхронном режиме,
+ * для пар с неприменёнными операциями хранится ожидаемое состояние. Проверка, изменение этого
+ * состояния и постановка в очередь выполняются атомарно для пары, поэтому операции одной пары
+ * попадают в очередь в том же порядке, в котором были приняты.
+ */
+@Slf4j
+public class LikeWritePipeline {
+    private final FilmStorage storage;
+    private final Listener listener;
+    private final AsyncLikeProperties properties;
+    private final BoundedMpscQueue<Operation> queue;
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final Timer applyLag;
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile long appliedOperations;
+
+    public LikeWritePipeline(FilmStorage storage, Listener listener, AsyncLikeProperties properties,
+                             MeterRegistry registry) {
+        this.storage = storage;
+        this.listener = listener;
+        this.properties = properties;
+        this.queue = new BoundedMpscQueue<>(properties.queueCapacity());
+        this.applyLag = Timer.builder("filmorate.likes.apply.lag")
+                .description("Время от приёма лайка до его применения в хранилище")
+                .register(registry);
+        Gauge.builder("filmorate.likes.queue.depth", queue, BoundedMpscQueue::size)
+                .register(registry);
+        Gauge.builder("filmorate.likes.queue.oldest.seconds", this, LikeWritePipeline::getOldestAgeSeconds)
+                .register(registry);
+        this.writer = Thread.ofPlatform().name("like-writer").daemon().start(this::run);
+    }
+
+    /**
+     * @return {@code false}, если пара уже находится в требуемом состоянии
+     */
+    public boolean submit(int filmId, int userId, boolean like) {
+        boolean[] accepted = new boolean[1];
+        pending.compute(key(filmId, userId), (key, current) -> {
+            boolean liked = current != null ? current.liked : isLikedInStorage(filmId, userId);
+            if (liked == like) {
+                return current;
+            }
+            if (!queue.offer(new Operation(filmId, userId, like, System.nanoTime()))) {
+                throw new ServiceOverloadedException("Очередь лайков переполнена, повторите запрос позже");
+            }
+            accepted[0] = true;
+            return new Pending(like, current == null ? 1 : current.outstanding + 1);
+        });
+        return accepted[0];
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getAppliedOperations() {
+        return appliedOperations;
+    }
+
+    /**
+     * Ждёт, пока все принятые лайки будут применены.
+     */
+    public boolean awaitDrained(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!pending.isEmpty()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(properties.idlePoll().toNanos());
+        }
+        return true;
+    }
+
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double getOldestAgeSeconds() {
+        Operation oldest = queue.peek();
+        return oldest == null ? 0 : (System.nanoTime() - oldest.enqueuedAt) / 1e9;
+    }
+
+    private boolean isLikedInStorage(int filmId, int userId) {
+        Film film = storage.get(filmId);
+        return film != null && film.getLikes().contains(userId);
+    }
+
+    private void run() {
+        List<Operation> batch = new ArrayList<>(properties.batchSize());
+        while (true) {
+            Operation operation;
+            while (batch.size() < properties.batchSize() && (operation = queue.poll()) != null) {
+                batch.add(operation);
+            }
+            if (batch.isEmpty()) {
+                if (!running && queue.size() == 0) {
+                    return;
+                }
+                LockSupport.parkNanos(properties.idlePoll().toNanos());
+                continue;
+            }
+            apply(batch);
+            batch.clear();
+        }
+    }
+
+    private void apply(List<Operation> batch) {
+        Map<Integer, Map<Integer, Boolean>> byFilm = new HashMap<>();
+        for (Operation operation : batch) {
+            byFilm.computeIfAbsent(operation.filmId, filmId -> new LinkedHashMap<>())
+                    .put(operation.userId, operation.like);
+        }
+        byFilm.forEach((filmId, states) -> {
+            List<Integer> added = new ArrayList<>();
+            List<Integer> removed = new ArrayList<>();
+            Film film = storage.get(filmId);
+            states.forEach((userId, like) -> {
+                boolean liked = film != null && film.getLikes().contains(userId);
+                if (like && !liked) {
+                    added.add(userId);
+                } else if (!like && liked) {
+                    removed.add(userId);
+                }
+            });
+            if (added.isEmpty() && removed.isEmpty()) {
+                return;
+            }
+            try {
+                storage.applyLikes(filmId, added, removed);
+                listener.applied(filmId, added, removed);
+            } catch (RuntimeException e) {
+                log.error("Не удалось применить {} лайков и {} удалений лайков фильма {}: {}",
+                        added.size(), removed.size(), filmId, e.getMessage());
+            }
+        });
+        long now = System.nanoTime();
+        for (Operation operation : batch) {
+            applyLag.record(now - operation.enqueuedAt, TimeUnit.NANOSECONDS);
+            pending.computeIfPresent(key(operation.filmId, operation.userId),
+                    (key, current) -> current.outstanding == 1 ? null : new Pending(current.liked, current.outstanding - 1));
+        }
+        appliedOperations += batch.size();
+    }
+
+    private static long key(int filmId, int userId) {
+        return ((long) filmId << 32) | (userId & 0xFFFFFFFFL);
+    }
+
+    public interface Listener {
+        public void applied(int filmId, List<Integer> added, List<Integer> removed);
+    }
+
+    private record Operation(int filmId, int userId, boolean like, long enqueuedAt) {
+    }
+
+    private record Pending(boolean liked, int outstanding) {
+    }
+}
@@ -0,0 +1,77 @@
+package ru.yandex.practicum.filmorate.service.popular;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Приблизительный рейтинг фильмов по лайкам: Space-Saving выбирает кандидатов,
+ * а Count-Min Sketch уточняет их счётчики (берётся минимум из двух оценок).
+ */
+@Slf4j
+@Component
+public class ApproximatePopularFilms {
+    private final boolean enabled;
+    private final CountMinSketch sketch;
+    private final SpaceSaving heavyHitters;
+
+    public ApproximatePopularFilms(ApproximatePopularityProperties properties) {
+        this.enabled = properties.enabled();
+        if (enabled) {
+            this.sketch = new CountMinSketch(properties.epsilon(), properties.delta());
+            this.heavyHitters = new SpaceSaving(properties.capacity());
+            log.info("Приблизительный рейтинг фильмов включен: ширина={}, глубина={}, кандидатов={}",
+                    sketch.getWidth(), sketch.getDepth(), heavyHitters.getCapacity());
+        } else {
+            this.sketch = null;
+            this.heavyHitters = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordLike(int filmId) {
+        if (!enabled) {
+            return;
+        }
+        sketch.add(filmId, 1);
+        synchronized (heavyHitters) {
+            heavyHitters.increment(filmId);
+        }
+    }
+
+    public void recordUnlike(int filmId) {
+        if (!enabled) {
+            return;
+        }
+        sketch.add(filmId, -1);
+        synchronized (heavyHitters) {
+            heavyHitters.decrement(filmId);
+        }
+    }
+
+    public List<Integer> top(int count) {
+        if (!enabled) {
+            return List.of();
+        }
+        List<SpaceSaving.Entry> candidates;
+        synchronized (heavyHitters) {
+            candidates = heavyHitters.entries();
+        }
+        return candidates.stream()
+                .map(entry -> new SpaceSaving.Entry(entry.item(), Math.min(entry.count(), sketch.estimate(entry.item()))))
+                .filter(entry -> entry.count() > 0)
+                .sorted(Comparator.comparingLong(SpaceSaving.Entry::count).reversed())
+                .limit(count)
+                .map(SpaceSaving.Entry::item)
+                .toList();
+    }
+
+    public long estimatedMemoryBytes() {
+        return enabled ? sketch.estimatedMemoryBytes() + heavyHitters.estimatedMemoryBytes() : 0;
+    }
+}
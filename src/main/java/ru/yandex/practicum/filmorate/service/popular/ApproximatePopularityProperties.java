@@ -0,0 +1,13 @@
+package ru.yandex.practicum.filmorate.service.popular;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "filmorate.popular.approximate")
+public record ApproximatePopularityProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("0.0001") double epsilon,
+        @DefaultValue("0.01") double delta,
+        @DefaultValue("1000") int capacity
+) {
+}
@@ -0,0 +1,68 @@
+package ru.yandex.practicum.filmorate.service.popular;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min Sketch с поддержкой уменьшения счётчиков (turnstile-модель).
+ * <p>
+ * Для ширины {@code w = ceil(e / epsilon)} и глубины {@code d = ceil(ln(1 / delta))} оценка
+ * {@code estimate(x)} не меньше истинной частоты и с вероятностью не ниже {@code 1 - delta}
+ * превышает её не более чем на {@code epsilon * N}, где {@code N} — сумма всех счётчиков.
+ * Гарантия сохраняется, пока истинные частоты не становятся отрицательными.
+ */
+public class CountMinSketch {
+    private final int width;
+    private final int depth;
+    private final long[] seeds;
+    private final AtomicLongArray counters;
+
+    public CountMinSketch(double epsilon, double delta) {
+        if (epsilon <= 0 || epsilon >= 1) {
+            throw new IllegalArgumentException("epsilon должен быть в интервале (0, 1)");
+        }
+        if (delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("delta должен быть в интервале (0, 1)");
+        }
+        this.width = (int) Math.ceil(Math.E / epsilon);
+        this.depth = (int) Math.ceil(Math.log(1 / delta));
+        this.seeds = new long[depth];
+        for (int i = 0; i < depth; i++) {
+            seeds[i] = 0x9E3779B97F4A7C15L * (i + 1);
+        }
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    public void add(int item, long delta) {
+        for (int row = 0; row < depth; row++) {
+            counters.addAndGet(row * width + bucket(item, row), delta);
+        }
+    }
+
+    public long estimate(int item) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.get(row * width + bucket(item, row)));
+        }
+        return Math.max(min, 0);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long estimatedMemoryBytes() {
+        return (long) width * depth * Long.BYTES + (long) depth * Long.BYTES;
+    }
+
+    private int bucket(int item, int row) {
+        long h = (item + seeds[row]) * 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 31;
+        h *= 0x94D049BB133111EBL;
+        h ^= h >>> 29;
+        return (int) ((h & Long.MAX_VALUE) % width);
+    }
+}
@@ -0,0 +1,122 @@
+package ru.yandex.practicum.filmorate.service.popular;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Алгоритм Space-Saving на {@code capacity} счётчиках.
+ * <p>
+ * Любой элемент с частотой больше {@code N / capacity} гарантированно отслеживается,
+ * а завышение счётчика отслеживаемого элемента не превышает {@code N / capacity}.
+ * Уменьшение применяется только к уже отслеживаемым элементам. Класс не потокобезопасен.
+ */
+public class SpaceSaving {
+    private final int capacity;
+    private final int[] items;
+    private final long[] counts;
+    private final Map<Integer, Integer> positions;
+    private int size;
+
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity должен быть положительным числом");
+        }
+        this.capacity = capacity;
+        this.items = new int[capacity];
+        this.counts = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    public void increment(int item) {
+        Integer position = positions.get(item);
+        if (position != null) {
+            counts[position]++;
+            siftDown(position);
+            return;
+        }
+        if (size < capacity) {
+            items[size] = item;
+            counts[size] = 1;
+            positions.put(item, size);
+            siftUp(size++);
+            return;
+        }
+        positions.remove(items[0]);
+        items[0] = item;
+        counts[0]++;
+        positions.put(item, 0);
+        siftDown(0);
+    }
+
+    public void decrement(int item) {
+        Integer position = positions.get(item);
+        if (position == null || counts[position] == 0) {
+            return;
+        }
+        counts[position]--;
+        siftUp(position);
+    }
+
+    public List<Entry> entries() {
+        List<Entry> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new Entry(items[i], counts[i]));
+        }
+        return result;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long estimatedMemoryBytes() {
+        // два массива и HashMap: узел (32 байта), упакованные ключ и значение (по 16 байт), ячейка таблицы
+        return (long) capacity * (Integer.BYTES + Long.BYTES) + (long) capacity * (32 + 16 + 16 + 2 * 4);
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (counts[parent] <= counts[position]) {
+                return;
+            }
+            swap(parent, position);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int left = 2 * position + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && counts[right] < counts[left]) {
+                smallest = right;
+            }
+            if (counts[position] <= counts[smallest]) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int item = items[a];
+        long count = counts[a];
+        items[a] = items[b];
+        counts[a] = counts[b];
+        items[b] = item;
+        counts[b] = count;
+        positions.put(items[a], a);
+        positions.put(items[b], b);
+    }
+
+    public record Entry(int item, long count) {
+    }
+}
@@ -0,0 +1,81 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Параллельный {@link TopByLinks} по диапазону id: диапазон делится пополам, пока части больше
+ * порога, каждая часть отбирает свои N кандидатов в отдельной куче, а кучи сливаются попарно.
+ * Результат и порядок при равенстве совпадают с последовательным отбором.
+ */
+public final class ParallelTopByLinks {
+    public static final int DEFAULT_THRESHOLD = 1 << 14;
+
+    private static final ParallelTopByLinks COMMON =
+            new ParallelTopByLinks(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelTopByLinks(ForkJoinPool pool, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Порог должен быть положительным");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    public static ParallelTopByLinks common() {
+        return COMMON;
+    }
+
+    /**
+     * Id из {@code [0, toId)} с наибольшим числом связей, по убыванию.
+     *
+     * @param links число связей по id или отрицательное число, если id не занят
+     */
+    public int[] select(int toId, int count, IntUnaryOperator links) {
+        if (count <= 0 || toId <= 0) {
+            return new int[0];
+        }
+        Part part = new Part(0, toId, count, links);
+        return (toId <= threshold ? part.compute() : pool.invoke(part)).ids();
+    }
+
+    private final class Part extends RecursiveTask<TopByLinks> {
+        private final int from;
+        private final int to;
+        private final int count;
+        private final IntUnaryOperator links;
+
+        private Part(int from, int to, int count, IntUnaryOperator links) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+            this.links = links;
+        }
+
+        @Override
+        protected TopByLinks compute() {
+            if (to - from <= threshold) {
+                TopByLinks top = new TopByLinks(Math.min(count, to - from));
+                for (int id = from; id < to; id++) {
+                    int value = links.applyAsInt(id);
+                    if (value >= 0) {
+                        top.offer(id, value);
+                    }
+                }
+                return top;
+            }
+            int middle = (from + to) >>> 1;
+            Part right = new Part(middle, to, count, links);
+            right.fork();
+            TopByLinks left = new Part(from, middle, count, links).compute();
+            TopByLinks merged = new TopByLinks(Math.min(count, to - from));
+            merged.merge(left);
+            merged.merge(right.join());
+            return merged;
+        }
+    }
+}
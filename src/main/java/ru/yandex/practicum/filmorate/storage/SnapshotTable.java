@@ -0,0 +1,213 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Таблица неизменяемых версий сущностей, индексированная по плотным целочисленным id.
+ * <p>
+ * Снимок — массив блоков по {@value #CHUNK_SIZE} элементов. Транзакция записи копирует
+ * только верхний массив и изменённые блоки, а затем публикует новый снимок одной
+ * volatile-записью. Читатели не берут блокировок и видят согласованное состояние на момент
+ * получения снимка; писатели упорядочены между собой, но никогда не ждут читателей.
+ * <p>
+ * Рядом с каждым блоком хранится битовая маска занятых ячеек: проверка существования — один бит,
+ * а обход пропускает пустые ячейки по 64 за раз.
+ */
+public class SnapshotTable<T> {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int WORDS_PER_CHUNK = CHUNK_SIZE / Long.SIZE;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Snapshot<T> current = new Snapshot<>(new Object[0][], new long[0][], 0, 0, 0);
+
+    public Snapshot<T> snapshot() {
+        return current;
+    }
+
+    public <R> R write(Function<Transaction<T>, R> mutation) {
+        writeLock.lock();
+        try {
+            Transaction<T> transaction = new Transaction<>(current);
+            R result = mutation.apply(transaction);
+            current = transaction.commit();
+            return result;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public static final class Snapshot<T> {
+        private final Object[][] chunks;
+        private final long[][] presence;
+        private final int size;
+        private final int maxId;
+        private final long version;
+
+        private Snapshot(Object[][] chunks, long[][] presence, int size, int maxId, long version) {
+            this.chunks = chunks;
+            this.presence = presence;
+            this.size = size;
+            this.maxId = maxId;
+            this.version = version;
+        }
+
+        @SuppressWarnings("unchecked")
+        public T get(int id) {
+            if (id < 0) {
+                return null;
+            }
+            int chunk = id >>> CHUNK_BITS;
+            if (chunk >= chunks.length || chunks[chunk] == null) {
+                return null;
+            }
+            return (T) chunks[chunk][id & CHUNK_MASK];
+        }
+
+        public boolean contains(int id) {
+            if (id < 0) {
+                return false;
+            }
+            int chunk = id >>> CHUNK_BITS;
+            return chunk < presence.length && presence[chunk] != null
+                    && (presence[chunk][(id & CHUNK_MASK) >>> 6] & (1L << id)) != 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int maxId() {
+            return maxId;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public Collection<T> values() {
+            return new AbstractCollection<>() {
+                @Override
+                public Iterator<T> iterator() {
+                    return new ValueIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        private int nextPresent(int from) {
+            for (int chunk = from >>> CHUNK_BITS; chunk < presence.length; chunk++, from = chunk << CHUNK_BITS) {
+                long[] words = presence[chunk];
+                if (words == null) {
+                    continue;
+                }
+                long mask = -1L << from;
+                for (int word = (from & CHUNK_MASK) >>> 6; word < WORDS_PER_CHUNK; word++, mask = -1L) {
+                    long bits = words[word] & mask;
+                    if (bits != 0) {
+                        return (chunk << CHUNK_BITS) | (word << 6) | Long.numberOfTrailingZeros(bits);
+                    }
+                }
+            }
+            return -1;
+        }
+
+        private final class ValueIterator implements Iterator<T> {
+            private int nextId = nextPresent(0);
+
+            @Override
+            public boolean hasNext() {
+                return nextId >= 0;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T value = get(nextId);
+                nextId = nextId == Integer.MAX_VALUE ? -1 : nextPresent(nextId + 1);
+                return value;
+            }
+        }
+    }
+
+    public static final class Transaction<T> {
+        private final long version;
+        private final BitSet copiedChunks = new BitSet();
+        private Object[][] chunks;
+        private long[][] presence;
+        private boolean topCopied;
+        private int size;
+        private int maxId;
+
+        private Transaction(Snapshot<T> base) {
+            this.chunks = base.chunks;
+            this.presence = base.presence;
+            this.size = base.size;
+            this.maxId = base.maxId;
+            this.version = base.version + 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        public T get(int id) {
+            if (id < 0) {
+                return null;
+            }
+            int chunk = id >>> CHUNK_BITS;
+            if (chunk >= chunks.length || chunks[chunk] == null) {
+                return null;
+            }
+            return (T) chunks[chunk][id & CHUNK_MASK];
+        }
+
+        public int nextId() {
+            return maxId + 1;
+        }
+
+        public void put(int id, T value) {
+            if (id < 0) {
+                throw new IllegalArgumentException("Id не может быть отрицательным");
+            }
+            int chunk = id >>> CHUNK_BITS;
+            if (!topCopied || chunk >= chunks.length) {
+                chunks = Arrays.copyOf(chunks, Math.max(chunks.length, chunk + 1));
+                presence = Arrays.copyOf(presence, chunks.length);
+                topCopied = true;
+            }
+            if (!copiedChunks.get(chunk)) {
+                Object[] source = chunks[chunk];
+                chunks[chunk] = source == null ? new Object[CHUNK_SIZE] : source.clone();
+                presence[chunk] = source == null ? new long[WORDS_PER_CHUNK] : presence[chunk].clone();
+                copiedChunks.set(chunk);
+            }
+            Object previous = chunks[chunk][id & CHUNK_MASK];
+            chunks[chunk][id & CHUNK_MASK] = value;
+            int word = (id & CHUNK_MASK) >>> 6;
+            if (previous == null && value != null) {
+                presence[chunk][word] |= 1L << id;
+                size++;
+            } else if (previous != null && value == null) {
+                presence[chunk][word] &= ~(1L << id);
+                size--;
+            }
+            maxId = Math.max(maxId, id);
+        }
+
+        private Snapshot<T> commit() {
+            return new Snapshot<>(chunks, presence, size, maxId, version);
+        }
+    }
+}
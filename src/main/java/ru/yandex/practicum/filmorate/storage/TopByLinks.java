@@ -0,0 +1,83 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.Arrays;
+
+/**
+ * Отбор N id с наибольшим числом связей (при равенстве — с меньшим id) в порядке
+ * {@link ru.yandex.practicum.filmorate.storage.film.FilmStorage#BY_POPULARITY}.
+ * Держит кучу из N чисел и не создаёт объектов на каждый кандидат.
+ */
+public final class TopByLinks {
+    private final long[] heap;
+    private int size;
+
+    public TopByLinks(int count) {
+        this.heap = new long[Math.max(0, count)];
+    }
+
+    public void offer(int id, int links) {
+        offerKey((long) links << 32 | (Integer.MAX_VALUE - id));
+    }
+
+    /**
+     * Добавляет кандидатов другого отбора; результат тот же, что при одном отборе по объединению.
+     */
+    public void merge(TopByLinks other) {
+        for (int i = 0; i < other.size; i++) {
+            offerKey(other.heap[i]);
+        }
+    }
+
+    public int[] ids() {
+        long[] keys = Arrays.copyOf(heap, size);
+        Arrays.sort(keys);
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = Integer.MAX_VALUE - (int) keys[size - 1 - i];
+        }
+        return ids;
+    }
+
+    private void offerKey(long key) {
+        if (size < heap.length) {
+            heap[size] = key;
+            siftUp(size++);
+        } else if (size > 0 && key > heap[0]) {
+            heap[0] = key;
+            siftDown();
+        }
+    }
+
+    private void siftUp(int index) {
+        long key = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= key) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = key;
+    }
+
+    private void siftDown() {
+        long key = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (key <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = key;
+    }
+}
@@ -0,0 +1,155 @@
+package ru.yandex.practicum.filmorate.storage.catalog;
+
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.storage.offheap.EntityCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * Файл каталога: заголовок, индексы фильмов и пользователей по id и записи в формате
+ * {@link EntityCodec}, включая лайки и дружбу.
+ * <p>
+ * Открытие только отображает файл в память и читает заголовок, поэтому не зависит от размера
+ * каталога; записи разбираются при обращении, а страницы подгружает операционная система.
+ */
+public final class CatalogFile {
+    private static final int MAGIC = 0x464D4331;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int ABSENT = -1;
+
+    private final ByteBuffer buffer;
+    private final int filmMaxId;
+    private final int userMaxId;
+    private final int filmIndex;
+    private final int userIndex;
+    private final int filmCount;
+    private final int userCount;
+
+    private CatalogFile(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Файл не является каталогом Filmorate");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Неподдерживаемая версия каталога: " + buffer.getInt(4));
+        }
+        this.buffer = buffer;
+        this.filmMaxId = buffer.getInt(8);
+        this.userMaxId = buffer.getInt(12);
+        this.filmIndex = buffer.getInt(16);
+        this.userIndex = buffer.getInt(20);
+        this.filmCount = buffer.getInt(24);
+        this.userCount = buffer.getInt(28);
+    }
+
+    public static CatalogFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Каталог больше 2 ГБ не поддерживается: " + path);
+            }
+            return new CatalogFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static void write(Path path, Collection<Film> films, Collection<User> users) throws IOException {
+        int filmMaxId = films.stream().mapToInt(Film::getId).max().orElse(0);
+        int userMaxId = users.stream().mapToInt(User::getId).max().orElse(0);
+        int filmIndex = HEADER_SIZE;
+        int userIndex = filmIndex + (filmMaxId + 1) * Integer.BYTES;
+        long size = userIndex + (long) (userMaxId + 1) * Integer.BYTES;
+        for (Film film : films) {
+            size += EntityCodec.FILM.size(film);
+        }
+        for (User user : users) {
+            size += EntityCodec.USER.size(user);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Каталог больше 2 ГБ не поддерживается");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, filmMaxId);
+            buffer.putInt(12, userMaxId);
+            buffer.putInt(16, filmIndex);
+            buffer.putInt(20, userIndex);
+            buffer.putInt(24, films.size());
+            buffer.putInt(28, users.size());
+            for (int id = 0; id <= filmMaxId; id++) {
+                buffer.putInt(filmIndex + id * Integer.BYTES, ABSENT);
+            }
+            for (int id = 0; id <= userMaxId; id++) {
+                buffer.putInt(userIndex + id * Integer.BYTES, ABSENT);
+            }
+            int position = userIndex + (userMaxId + 1) * Integer.BYTES;
+            for (Film film : films) {
+                EntityCodec.FILM.write(buffer, position, film);
+                buffer.putInt(filmIndex + film.getId() * Integer.BYTES, position);
+                position += EntityCodec.FILM.size(film);
+            }
+            for (User user : users) {
+                EntityCodec.USER.write(buffer, position, user);
+                buffer.putInt(userIndex + user.getId() * Integer.BYTES, position);
+                position += EntityCodec.USER.size(user);
+            }
+            buffer.force();
+        }
+    }
+
+    public int getFilmMaxId() {
+        return filmMaxId;
+    }
+
+    public int getUserMaxId() {
+        return userMaxId;
+    }
+
+    public int getFilmCount() {
+        return filmCount;
+    }
+
+    public int getUserCount() {
+        return userCount;
+    }
+
+    public boolean containsFilm(int id) {
+        return offset(filmIndex, filmMaxId, id) != ABSENT;
+    }
+
+    public boolean containsUser(int id) {
+        return offset(userIndex, userMaxId, id) != ABSENT;
+    }
+
+    public Film film(int id) {
+        int offset = offset(filmIndex, filmMaxId, id);
+        return offset == ABSENT ? null : EntityCodec.FILM.read(buffer, offset);
+    }
+
+    public User user(int id) {
+        int offset = offset(userIndex, userMaxId, id);
+        return offset == ABSENT ? null : EntityCodec.USER.read(buffer, offset);
+    }
+
+    public int filmLikes(int id) {
+        int offset = offset(filmIndex, filmMaxId, id);
+        return offset == ABSENT ? 0 : EntityCodec.FILM.linkCount(buffer, offset);
+    }
+
+    public int[] userFriends(int id) {
+        int offset = offset(userIndex, userMaxId, id);
+        return offset == ABSENT ? new int[0] : EntityCodec.USER.links(buffer, offset);
+    }
+
+    private int offset(int index, int maxId, int id) {
+        return id < 0 || id > maxId ? ABSENT : buffer.getInt(index + id * Integer.BYTES);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.yandex.practicum.filmorate.storage.catalog;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "filmorate.storage", name = "mode", havingValue = "mapped")
+public class MappedCatalog {
+    private final CatalogFile file;
+
+    public MappedCatalog(MappedCatalogProperties properties) {
+        if (properties.path() == null || properties.path().isBlank()) {
+            throw new IllegalStateException("Для режима mapped нужно указать filmorate.storage.mapped.path");
+        }
+        try {
+            this.file = CatalogFile.open(Path.of(properties.path()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть каталог " + properties.path(), e);
+        }
+        log.info("Каталог {} отображён в память: {} фильмов, {} пользователей",
+                properties.path(), file.getFilmCount(), file.getUserCount());
+    }
+
+    public CatalogFile file() {
+        return file;
+    }
+}
@@ -0,0 +1,9 @@
+package ru.yandex.practicum.filmorate.storage.catalog;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "filmorate.storage.mapped")
+public record MappedCatalogProperties(
+        String path
+) {
+}
@@ -1,17 +1,46 @@
 package ru.yandex.practicum.filmorate.storage.film;
 
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
 import ru.yandex.practicum.filmorate.models.Film;
 
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Set;
 
 public interface FilmStorage {
+    Comparator<Film> BY_POPULARITY = Comparator.comparingInt(
+            (Film film) -> Optional.ofNullable(film.getLikes())
+                    .map(Set::size)
+                    .orElse(0)
+    ).reversed().thenComparing(Film::getId);
+
     public Collection<Film> list();
 
     public Film get(int filmId);
 
+    public default Film getOrThrow(int filmId) {
+        Film film = get(filmId);
+        if (film == null) {
+            throw new NotFoundException("Фильм с id: " + filmId + " не найден.");
+        }
+        return film;
+    }
+
     public Film create(Film film);
 
     public Film update(Film film);
 
     public boolean notExists(int filmId);
+
+    public void addLike(int filmId, int userId);
+
+    public void removeLike(int filmId, int userId);
+
+    public default void applyLikes(int filmId, Collection<Integer> added, Collection<Integer> removed) {
+        added.forEach(userId -> addLike(filmId, userId));
+        removed.forEach(userId -> removeLike(filmId, userId));
+    }
+
+    public Collection<Film> getPopular(int count);
 }
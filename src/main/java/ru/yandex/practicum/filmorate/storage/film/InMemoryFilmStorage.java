@@ -1,54 +1,105 @@
 package ru.yandex.practicum.filmorate.storage.film;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.storage.ParallelTopByLinks;
+import ru.yandex.practicum.filmorate.storage.SnapshotTable;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.List;
 
 @Component
+@ConditionalOnProperty(prefix = "filmorate.storage", name = "mode", havingValue = "in-memory", matchIfMissing = true)
 public class InMemoryFilmStorage implements FilmStorage {
 
-    private final HashMap<Integer, Film> films = new HashMap<>();
-    private static int currentMaxId = 0;
-
-    private int generateId() {
-        return ++currentMaxId;
-    }
+    private final SnapshotTable<Film> films = new SnapshotTable<>();
 
     @Override
     public Film create(Film newFilm) {
-        newFilm.setId(generateId());
-        films.put(newFilm.getId(), newFilm);
-        return newFilm;
+        return films.write(transaction -> {
+            newFilm.setId(transaction.nextId());
+            transaction.put(newFilm.getId(), freeze(newFilm.copy()));
+            return newFilm;
+        });
     }
 
     @Override
     public Film get(int filmId) {
-        return films.get(filmId);
+        return films.snapshot().get(filmId);
     }
 
     @Override
     public boolean notExists(int filmId) {
-        return !films.containsKey(filmId);
+        return !films.snapshot().contains(filmId);
     }
 
     @Override
     public Film update(Film film) {
-        Film oldFilm = get(film.getId());
+        Film updated = freeze(film.copy());
+        films.write(transaction -> {
+            transaction.put(updated.getId(), updated);
+            return updated;
+        });
+        return updated;
+    }
 
-        oldFilm.setName(film.getName());
-        oldFilm.setDescription(film.getDescription());
-        oldFilm.setReleaseDate(film.getReleaseDate());
-        oldFilm.setDuration(film.getDuration());
-        oldFilm.setLikes(film.getLikes());
+    @Override
+    public Collection<Film> list() {
+        return films.snapshot().values();
+    }
 
-        return oldFilm;
+    @Override
+    public void addLike(int filmId, int userId) {
+        films.write(transaction -> {
+            Film film = transaction.get(filmId).copy();
+            film.getLikes().add(userId);
+            transaction.put(filmId, freeze(film));
+            return film;
+        });
     }
 
     @Override
-    public Collection<Film> list() {
-        return films.values();
+    public void removeLike(int filmId, int userId) {
+        films.write(transaction -> {
+            Film film = transaction.get(filmId).copy();
+            film.getLikes().remove(userId);
+            transaction.put(filmId, freeze(film));
+            return film;
+        });
+    }
+
+    @Override
+    public void applyLikes(int filmId, Collection<Integer> added, Collection<Integer> removed) {
+        films.write(transaction -> {
+            Film film = transaction.get(filmId).copy();
+            film.getLikes().addAll(added);
+            film.getLikes().removeAll(removed);
+            transaction.put(filmId, freeze(film));
+            return film;
+        });
+    }
+
+    @Override
+    public Collection<Film> getPopular(int count) {
+        SnapshotTable.Snapshot<Film> snapshot = films.snapshot();
+        int[] ids = ParallelTopByLinks.common().select(snapshot.maxId() + 1, Math.min(count, snapshot.size()),
+                id -> {
+                    Film film = snapshot.get(id);
+                    return film == null ? -1 : film.getLikesCount();
+                });
+        List<Film> popular = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            popular.add(snapshot.get(id));
+        }
+        return popular;
+    }
+
+    private static Film freeze(Film film) {
+        film.setLikes(Collections.unmodifiableSet(film.getLikes()));
+        return film;
     }
 
 }
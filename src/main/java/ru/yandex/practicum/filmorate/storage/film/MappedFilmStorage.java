@@ -0,0 +1,141 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.storage.SnapshotTable;
+import ru.yandex.practicum.filmorate.storage.TopByLinks;
+import ru.yandex.practicum.filmorate.storage.catalog.CatalogFile;
+import ru.yandex.practicum.filmorate.storage.catalog.MappedCatalog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Фильмы из отображённого в память каталога; созданные и изменённые фильмы хранятся
+ * в таблице снимков поверх каталога и закрывают его версии. Файл каталога не изменяется.
+ */
+@Component
+@ConditionalOnProperty(prefix = "filmorate.storage", name = "mode", havingValue = "mapped")
+public class MappedFilmStorage implements FilmStorage {
+
+    private final CatalogFile catalog;
+    private final SnapshotTable<Film> overlay = new SnapshotTable<>();
+
+    public MappedFilmStorage(MappedCatalog catalog) {
+        this.catalog = catalog.file();
+    }
+
+    @Override
+    public Film create(Film newFilm) {
+        return overlay.write(transaction -> {
+            newFilm.setId(Math.max(transaction.nextId(), catalog.getFilmMaxId() + 1));
+            transaction.put(newFilm.getId(), freeze(newFilm.copy()));
+            return newFilm;
+        });
+    }
+
+    @Override
+    public Film get(int filmId) {
+        Film film = overlay.snapshot().get(filmId);
+        return film != null ? film : catalog.film(filmId);
+    }
+
+    @Override
+    public boolean notExists(int filmId) {
+        return !overlay.snapshot().contains(filmId) && !catalog.containsFilm(filmId);
+    }
+
+    @Override
+    public Film update(Film film) {
+        Film updated = freeze(film.copy());
+        overlay.write(transaction -> {
+            transaction.put(updated.getId(), updated);
+            return updated;
+        });
+        return updated;
+    }
+
+    @Override
+    public Collection<Film> list() {
+        SnapshotTable.Snapshot<Film> snapshot = overlay.snapshot();
+        int maxId = Math.max(snapshot.maxId(), catalog.getFilmMaxId());
+        List<Film> films = new ArrayList<>(snapshot.size() + catalog.getFilmCount());
+        for (int id = 1; id <= maxId; id++) {
+            Film film = snapshot.get(id);
+            if (film == null) {
+                film = catalog.film(id);
+            }
+            if (film != null) {
+                films.add(film);
+            }
+        }
+        return films;
+    }
+
+    @Override
+    public void addLike(int filmId, int userId) {
+        overlay.write(transaction -> {
+            Film film = current(transaction, filmId).copy();
+            film.getLikes().add(userId);
+            transaction.put(filmId, freeze(film));
+            return film;
+        });
+    }
+
+    @Override
+    public void removeLike(int filmId, int userId) {
+        overlay.write(transaction -> {
+            Film film = current(transaction, filmId).copy();
+            film.getLikes().remove(userId);
+            transaction.put(filmId, freeze(film));
+            return film;
+        });
+    }
+
+    @Override
+    public void applyLikes(int filmId, Collection<Integer> added, Collection<Integer> removed) {
+        overlay.write(transaction -> {
+            Film film = current(transaction, filmId).copy();
+            film.getLikes().addAll(added);
+            film.getLikes().removeAll(removed);
+            transaction.put(filmId, freeze(film));
+            return film;
+        });
+    }
+
+    @Override
+    public Collection<Film> getPopular(int count) {
+        SnapshotTable.Snapshot<Film> snapshot = overlay.snapshot();
+        int maxId = Math.max(snapshot.maxId(), catalog.getFilmMaxId());
+        TopByLinks top = new TopByLinks(Math.min(count, maxId));
+        for (int id = 1; id <= maxId; id++) {
+            Film film = snapshot.get(id);
+            if (film != null) {
+                top.offer(id, film.getLikes().size());
+            } else if (catalog.containsFilm(id)) {
+                top.offer(id, catalog.filmLikes(id));
+            }
+        }
+        int[] ids = top.ids();
+        List<Film> films = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Film film = snapshot.get(id);
+            films.add(film != null ? film : catalog.film(id));
+        }
+        return films;
+    }
+
+    private Film current(SnapshotTable.Transaction<Film> transaction, int filmId) {
+        Film film = transaction.get(filmId);
+        return film != null ? film : catalog.film(filmId);
+    }
+
+    private static Film freeze(Film film) {
+        film.setLikes(Collections.unmodifiableSet(film.getLikes()));
+        return film;
+    }
+
+}
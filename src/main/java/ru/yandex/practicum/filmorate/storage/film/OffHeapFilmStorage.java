@@ -0,0 +1,93 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.storage.offheap.EntityCodec;
+import ru.yandex.practicum.filmorate.storage.offheap.OffHeapProperties;
+import ru.yandex.practicum.filmorate.storage.offheap.OffHeapTable;
+
+import java.util.Collection;
+
+@Component
+@ConditionalOnProperty(prefix = "filmorate.storage", name = "mode", havingValue = "off-heap")
+public class OffHeapFilmStorage implements FilmStorage {
+
+    private final OffHeapTable<Film> films;
+
+    public OffHeapFilmStorage(OffHeapProperties properties, MeterRegistry registry) {
+        this.films = new OffHeapTable<>(EntityCodec.FILM, properties.slabBytes());
+        Gauge.builder("filmorate.storage.offheap.reserved", films, OffHeapTable::getReservedBytes)
+                .tag("table", "films").baseUnit("bytes").register(registry);
+        Gauge.builder("filmorate.storage.offheap.used", films, OffHeapTable::getUsedBytes)
+                .tag("table", "films").baseUnit("bytes").register(registry);
+    }
+
+    @Override
+    public Film create(Film newFilm) {
+        return films.write(() -> {
+            newFilm.setId(films.nextId());
+            films.put(newFilm.getId(), newFilm);
+            return newFilm;
+        });
+    }
+
+    @Override
+    public Film get(int filmId) {
+        return films.get(filmId);
+    }
+
+    @Override
+    public boolean notExists(int filmId) {
+        return !films.contains(filmId);
+    }
+
+    @Override
+    public Film update(Film film) {
+        films.put(film.getId(), film);
+        return films.get(film.getId());
+    }
+
+    @Override
+    public Collection<Film> list() {
+        return films.values();
+    }
+
+    @Override
+    public void addLike(int filmId, int userId) {
+        films.write(() -> {
+            Film film = films.get(filmId);
+            film.getLikes().add(userId);
+            films.put(filmId, film);
+            return film;
+        });
+    }
+
+    @Override
+    public void removeLike(int filmId, int userId) {
+        films.write(() -> {
+            Film film = films.get(filmId);
+            film.getLikes().remove(userId);
+            films.put(filmId, film);
+            return film;
+        });
+    }
+
+    @Override
+    public void applyLikes(int filmId, Collection<Integer> added, Collection<Integer> removed) {
+        films.write(() -> {
+            Film film = films.get(filmId);
+            film.getLikes().addAll(added);
+            film.getLikes().removeAll(removed);
+            films.put(filmId, film);
+            return film;
+        });
+    }
+
+    @Override
+    public Collection<Film> getPopular(int count) {
+        return films.read(() -> films.getAll(films.topByLinks(count)));
+    }
+}
@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exceptions.ReplicaUnavailableException;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.replication.ReplicationFollower;
+
+import java.util.Collection;
+
+@Component
+@ConditionalOnProperty(prefix = "filmorate.storage", name = "mode", havingValue = "replica")
+public class ReplicaFilmStorage implements FilmStorage {
+    private final ReplicationFollower follower;
+
+    public ReplicaFilmStorage(ReplicationFollower follower) {
+        this.follower = follower;
+    }
+
+    @Override
+    public Collection<Film> list() {
+        follower.ensureFresh();
+        return follower.films().list();
+    }
+
+    @Override
+    public Film get(int filmId) {
+        follower.ensureFresh();
+        return follower.films().get(filmId);
+    }
+
+    @Override
+    public Film create(Film film) {
+        throw readOnly();
+    }
+
+    @Override
+    public Film update(Film film) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean notExists(int filmId) {
+        return get(filmId) == null;
+    }
+
+    @Override
+    public void addLike(int filmId, int userId) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeLike(int filmId, int userId) {
+        throw readOnly();
+    }
+
+    @Override
+    public Collection<Film> getPopular(int count) {
+        follower.ensureFresh();
+        return follower.films().getPopular(count);
+    }
+
+    private ReplicaUnavailableException readOnly() {
+        return new ReplicaUnavailableException("Реплика доступна только для чтения, изменения принимает лидер");
+    }
+}
@@ -0,0 +1,164 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.storage.shard.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "filmorate.storage", name = "mode", havingValue = "sharded")
+public class ShardedFilmStorage implements FilmStorage {
+    private final int virtualNodes;
+    private final ReadWriteLock rebalanceLock = new ReentrantReadWriteLock();
+    private final AtomicInteger currentMaxId;
+    private volatile ConsistentHashRing<FilmShard> ring;
+
+    @Autowired
+    public ShardedFilmStorage(ShardingProperties properties, RestClient.Builder builder) {
+        this(remoteShards(properties.nodes(), builder), properties.virtualNodes());
+    }
+
+    public ShardedFilmStorage(Map<String, FilmShard> shards, int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+        this.ring = new ConsistentHashRing<>(shards, virtualNodes);
+        int maxId = ScatterGather.gather(ring.shards(), FilmShard::maxId).stream()
+                .mapToInt(Integer::intValue)
+                .max()
+                .orElse(0);
+        this.currentMaxId = new AtomicInteger(maxId);
+        log.info("Фильмы распределены по узлам {}", shards.keySet());
+    }
+
+    public static Map<String, FilmShard> remoteShards(List<String> nodes, RestClient.Builder builder) {
+        Map<String, FilmShard> shards = new LinkedHashMap<>();
+        for (String node : nodes) {
+            shards.put(node, new RemoteFilmShard(builder.clone(), node));
+        }
+        return shards;
+    }
+
+    @Override
+    public Collection<Film> list() {
+        rebalanceLock.readLock().lock();
+        try {
+            return ScatterGather.gather(ring.shards(), FilmShard::list).stream()
+                    .flatMap(Collection::stream)
+                    .sorted(Comparator.comparing(Film::getId))
+                    .toList();
+        } finally {
+            rebalanceLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Film get(int filmId) {
+        ConsistentHashRing<FilmShard> current = ring;
+        Film film = current.shardFor(filmId).get(filmId);
+        if (film == null && current != ring) {
+            film = ring.shardFor(filmId).get(filmId);
+        }
+        return film;
+    }
+
+    @Override
+    public Film create(Film newFilm) {
+        rebalanceLock.readLock().lock();
+        try {
+            newFilm.setId(currentMaxId.incrementAndGet());
+            ring.shardFor(newFilm.getId()).put(newFilm);
+            return newFilm;
+        } finally {
+            rebalanceLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Film update(Film film) {
+        rebalanceLock.readLock().lock();
+        try {
+            ring.shardFor(film.getId()).put(film);
+            return film;
+        } finally {
+            rebalanceLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean notExists(int filmId) {
+        return get(filmId) == null;
+    }
+
+    @Override
+    public void addLike(int filmId, int userId) {
+        rebalanceLock.readLock().lock();
+        try {
+            ring.shardFor(filmId).addLike(filmId, userId);
+        } finally {
+            rebalanceLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeLike(int filmId, int userId) {
+        rebalanceLock.readLock().lock();
+        try {
+            ring.shardFor(filmId).removeLike(filmId, userId);
+        } finally {
+            rebalanceLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Film> getPopular(int count) {
+        rebalanceLock.readLock().lock();
+        try {
+            return ScatterGather.gather(ring.shards(), shard -> shard.getPopular(count)).stream()
+                    .flatMap(Collection::stream)
+                    .sorted(BY_POPULARITY)
+                    .limit(count)
+                    .toList();
+        } finally {
+            rebalanceLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Переносит записи на узлы нового кольца. Записи сначала копируются на новые узлы, затем
+     * переключается кольцо и только после этого записи удаляются со старых узлов: {@link #get} без
+     * блокировки находит запись хотя бы на одном из них.
+     */
+    public int rebalance(Map<String, FilmShard> shards) {
+        rebalanceLock.writeLock().lock();
+        try {
+            ConsistentHashRing<FilmShard> current = ring;
+            ConsistentHashRing<FilmShard> target = new ConsistentHashRing<>(shards, virtualNodes);
+            Map<FilmShard, List<Integer>> moved = new LinkedHashMap<>();
+            for (String node : current.nodeNames()) {
+                FilmShard source = current.shard(node);
+                for (Film film : source.list()) {
+                    String owner = target.nodeFor(film.getId());
+                    if (!owner.equals(node)) {
+                        target.shard(owner).put(film);
+                        moved.computeIfAbsent(source, shard -> new ArrayList<>()).add(film.getId());
+                    }
+                }
+            }
+            ring = target;
+            moved.forEach((source, ids) -> ids.forEach(source::remove));
+            int count = moved.values().stream().mapToInt(List::size).sum();
+            log.info("Фильмы перераспределены по узлам {}, перемещено {}", shards.keySet(), count);
+            return count;
+        } finally {
+            rebalanceLock.writeLock().unlock();
+        }
+    }
+}
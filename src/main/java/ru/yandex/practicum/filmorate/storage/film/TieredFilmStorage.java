@@ -0,0 +1,405 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.storage.ParallelTopByLinks;
+import ru.yandex.practicum.filmorate.storage.offheap.EntityCodec;
+import ru.yandex.practicum.filmorate.storage.tiered.ColdSegmentStore;
+import ru.yandex.practicum.filmorate.storage.tiered.FrequencySketch;
+import ru.yandex.practicum.filmorate.storage.tiered.TieredStorageProperties;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Фильмы в двух уровнях: недавно прочитанные и лайкнутые — в куче, остальные — в сегментах
+ * на диске ({@link ColdSegmentStore}). Запись и лайк всегда поднимают фильм в кучу. Холодное чтение
+ * поднимает фильм, только если его частота обращений ({@link FrequencySketch}) выше частоты последнего
+ * вытесненного, чтобы разовые запросы к старым фильмам не выталкивали популярные.
+ * <p>
+ * Когда фильмов в куче становится больше {@code maxHotEntries}, самые редкие и давние из них вытесняются
+ * пачкой до 90% лимита; фоновая задача вытесняет фильмы без обращений дольше {@code idleTimeout}.
+ * Число лайков всех фильмов хранится отдельным массивом, поэтому рейтинг не читает диск.
+ */
+@Component
+@ConditionalOnProperty(prefix = "filmorate.storage", name = "mode", havingValue = "tiered")
+public class TieredFilmStorage implements FilmStorage {
+    private static final int ABSENT = -1;
+
+    private final Map<Integer, Hot> hot = new ConcurrentHashMap<>();
+    private final ColdSegmentStore<Film> cold;
+    private final Path directory;
+    private final FrequencySketch frequencies;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int maxHotEntries;
+    private final long idleTimeoutNanos;
+    private final ScheduledExecutorService sweeper;
+    private final AtomicLong coldHeapBytes = new AtomicLong();
+    private final Timer coldReads;
+    private final Counter promotions;
+    private final Counter demotions;
+    private volatile AtomicIntegerArray likeCounts = new AtomicIntegerArray(0);
+    private volatile int admissionFrequency;
+    private int lastId;
+    private volatile int size;
+
+    public TieredFilmStorage(TieredStorageProperties properties, MeterRegistry registry) {
+        try {
+            Path parent = properties.directory() == null
+                    ? Path.of(System.getProperty("java.io.tmpdir"))
+                    : Files.createDirectories(Path.of(properties.directory()));
+            this.directory = Files.createTempDirectory(parent, "films-");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось создать каталог холодных сегментов", e);
+        }
+        this.cold = new ColdSegmentStore<>(directory, EntityCodec.FILM, properties.segmentBytes());
+        this.frequencies = new FrequencySketch(properties.maxHotEntries());
+        this.maxHotEntries = properties.maxHotEntries();
+        this.idleTimeoutNanos = properties.idleTimeout().toNanos();
+
+        Gauge.builder("filmorate.storage.tiered.hot.entries", hot, Map::size).register(registry);
+        Gauge.builder("filmorate.storage.tiered.cold.entries", cold, ColdSegmentStore::size).register(registry);
+        Gauge.builder("filmorate.storage.tiered.disk.bytes", cold, ColdSegmentStore::getDiskBytes)
+                .baseUnit("bytes").register(registry);
+        Gauge.builder("filmorate.storage.tiered.heap.saved", coldHeapBytes, AtomicLong::get)
+                .description("Оценка памяти, которую заняли бы холодные фильмы в куче")
+                .baseUnit("bytes").register(registry);
+        this.coldReads = Timer.builder("filmorate.storage.tiered.cold.read")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.promotions = registry.counter("filmorate.storage.tiered.promotions");
+        this.demotions = registry.counter("filmorate.storage.tiered.demotions");
+
+        long sweepMillis = properties.sweepInterval().toMillis();
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("tiered-films-sweeper").daemon().factory());
+        sweeper.scheduleWithFixedDelay(this::demoteIdle, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        sweeper.shutdownNow();
+        cold.close();
+        Files.deleteIfExists(directory);
+    }
+
+    @Override
+    public Film create(Film newFilm) {
+        lock.lock();
+        try {
+            newFilm.setId(++lastId);
+            size++;
+            makeHot(freeze(newFilm.copy()));
+            return newFilm;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Film get(int filmId) {
+        Hot entry = hot.get(filmId);
+        frequencies.increment(filmId);
+        if (entry != null) {
+            entry.lastAccess = System.nanoTime();
+            return entry.film;
+        }
+        long start = System.nanoTime();
+        Film film = cold.read(filmId);
+        if (film == null) {
+            entry = hot.get(filmId);
+            return entry == null ? null : entry.film;
+        }
+        coldReads.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        freeze(film);
+        if (admits(filmId) && lock.tryLock()) {
+            try {
+                promote(filmId);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return film;
+    }
+
+    @Override
+    public boolean notExists(int filmId) {
+        return likeCount(filmId) == ABSENT;
+    }
+
+    @Override
+    public Film update(Film film) {
+        Film updated = freeze(film.copy());
+        lock.lock();
+        try {
+            Film stale = cold.read(updated.getId());
+            makeHot(updated);
+            dropCold(updated.getId(), stale);
+            return updated;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Все фильмы по возрастанию id; холодные читаются с диска, но не поднимаются в кучу.
+     */
+    @Override
+    public Collection<Film> list() {
+        int maxId = likeCounts.length() - 1;
+        List<Film> films = new ArrayList<>();
+        for (int id = 1; id <= maxId; id++) {
+            Film film = peek(id);
+            if (film != null) {
+                films.add(film);
+            }
+        }
+        return films;
+    }
+
+    @Override
+    public void addLike(int filmId, int userId) {
+        modify(filmId, film -> film.getLikes().add(userId));
+    }
+
+    @Override
+    public void removeLike(int filmId, int userId) {
+        modify(filmId, film -> film.getLikes().remove(userId));
+    }
+
+    @Override
+    public void applyLikes(int filmId, Collection<Integer> added, Collection<Integer> removed) {
+        modify(filmId, film -> {
+            film.getLikes().addAll(added);
+            film.getLikes().removeAll(removed);
+        });
+    }
+
+    @Override
+    public Collection<Film> getPopular(int count) {
+        AtomicIntegerArray counts = likeCounts;
+        int[] ids = ParallelTopByLinks.common().select(counts.length(), Math.min(count, size),
+                counts::get);
+        List<Film> popular = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Film film = peek(id);
+            if (film != null) {
+                popular.add(film);
+            }
+        }
+        return popular;
+    }
+
+    public int getHotSize() {
+        return hot.size();
+    }
+
+    public int getColdSize() {
+        return cold.size();
+    }
+
+    public boolean isHot(int filmId) {
+        return hot.containsKey(filmId);
+    }
+
+    /**
+     * Вытесняет на диск фильмы, к которым не обращались дольше {@code idleTimeout}, и снимает порог
+     * допуска: в освободившееся место снова поднимается любой прочитанный фильм.
+     *
+     * @return сколько фильмов вытеснено
+     */
+    public int demoteIdle() {
+        long threshold = System.nanoTime() - idleTimeoutNanos;
+        lock.lock();
+        try {
+            int demoted = 0;
+            for (Map.Entry<Integer, Hot> entry : hot.entrySet()) {
+                if (entry.getValue().lastAccess - threshold <= 0) {
+                    demote(entry.getKey(), entry.getValue());
+                    demoted++;
+                }
+            }
+            if (demoted > 0) {
+                admissionFrequency = 0;
+            }
+            return demoted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void modify(int filmId, Consumer<Film> change) {
+        lock.lock();
+        try {
+            Hot entry = hot.get(filmId);
+            Film stale = entry != null ? null : cold.read(filmId);
+            Film film = entry != null ? entry.film.copy() : stale.copy();
+            change.accept(film);
+            makeHot(freeze(film));
+            dropCold(filmId, stale);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Film peek(int filmId) {
+        Hot entry = hot.get(filmId);
+        if (entry != null) {
+            return entry.film;
+        }
+        Film film = cold.read(filmId);
+        if (film == null) {
+            entry = hot.get(filmId);
+            return entry == null ? null : entry.film;
+        }
+        return freeze(film);
+    }
+
+    private boolean admits(int filmId) {
+        return frequencies.estimate(filmId) > admissionFrequency;
+    }
+
+    /**
+     * Под блокировкой: переносит фильм с диска в кучу. Сначала фильм появляется в куче и только потом
+     * исчезает с диска, чтобы читатели без блокировки всегда находили его хотя бы на одном уровне.
+     */
+    private void promote(int filmId) {
+        if (hot.containsKey(filmId)) {
+            return;
+        }
+        Film film = cold.read(filmId);
+        if (film == null) {
+            return;
+        }
+        hot.put(filmId, new Hot(freeze(film)));
+        dropCold(filmId, film);
+        promotions.increment();
+        evictIfFull(filmId);
+    }
+
+    /**
+     * Под блокировкой: удаляет холодную версию фильма {@code stale}, если она была. Вызывается после
+     * того, как новая версия уже лежит в куче, — иначе читатель без блокировки между удалением с диска
+     * и записью в кучу не нашёл бы фильм ни на одном уровне.
+     */
+    private void dropCold(int filmId, Film stale) {
+        if (stale != null) {
+            cold.remove(filmId);
+            coldHeapBytes.addAndGet(-heapBytes(stale));
+        }
+    }
+
+    /**
+     * Под блокировкой: кладёт новую версию фильма в кучу и обновляет число его лайков.
+     */
+    private void makeHot(Film film) {
+        int id = film.getId();
+        hot.put(id, new Hot(film));
+        frequencies.increment(id);
+        AtomicIntegerArray counts = likeCounts;
+        if (id >= counts.length()) {
+            AtomicIntegerArray grown = new AtomicIntegerArray(Math.max(id + 1, counts.length() * 2));
+            for (int i = 0; i < grown.length(); i++) {
+                grown.set(i, i < counts.length() ? counts.get(i) : ABSENT);
+            }
+            counts = grown;
+            likeCounts = grown;
+        }
+        counts.set(id, film.getLikesCount());
+        evictIfFull(id);
+    }
+
+    /**
+     * Под блокировкой: при переполнении вытесняет пачкой самые редкие, а при равной частоте — самые
+     * давние фильмы, кроме только что записанного {@code keepId}, и запоминает частоту последнего вытесненного как порог допуска в кучу.
+     */
+    private void evictIfFull(int keepId) {
+        if (hot.size() <= maxHotEntries) {
+            return;
+        }
+        Map<Integer, Integer> estimates = new HashMap<>(hot.size() * 2);
+        List<Map.Entry<Integer, Hot>> entries = new ArrayList<>(hot.size());
+        for (Map.Entry<Integer, Hot> entry : hot.entrySet()) {
+            if (entry.getKey() != keepId) {
+                estimates.put(entry.getKey(), frequencies.estimate(entry.getKey()));
+                entries.add(entry);
+            }
+        }
+        entries.sort(Comparator.<Map.Entry<Integer, Hot>>comparingInt(entry -> estimates.get(entry.getKey()))
+                .thenComparingLong(entry -> entry.getValue().lastAccess));
+        int target = Math.max(1, maxHotEntries - maxHotEntries / 10);
+        int victims = hot.size() - target;
+        for (int i = 0; i < victims; i++) {
+            demote(entries.get(i).getKey(), entries.get(i).getValue());
+        }
+        admissionFrequency = estimates.get(entries.get(victims - 1).getKey());
+    }
+
+    /**
+     * Под блокировкой: пишет фильм на диск и только потом убирает его из кучи.
+     */
+    private void demote(int filmId, Hot entry) {
+        cold.put(filmId, entry.film);
+        hot.remove(filmId, entry);
+        coldHeapBytes.addAndGet(heapBytes(entry.film));
+        demotions.increment();
+    }
+
+    private int likeCount(int filmId) {
+        AtomicIntegerArray counts = likeCounts;
+        return filmId >= 0 && filmId < counts.length() ? counts.get(filmId) : ABSENT;
+    }
+
+    /**
+     * Приблизительный размер фильма в куче со сжатыми указателями: объект и даты, строки в UTF-16
+     * и {@code HashSet} лайков (узел, {@code Integer} и ячейка таблицы на каждый лайк).
+     */
+    static long heapBytes(Film film) {
+        long bytes = 32 + 24 + 16;
+        bytes += stringBytes(film.getName()) + stringBytes(film.getDescription());
+        int likes = film.getLikesCount();
+        bytes += 16 + 48 + likes * (32L + 16 + 8);
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+
+    private static Film freeze(Film film) {
+        film.setLikes(Collections.unmodifiableSet(film.getLikes()));
+        return film;
+    }
+
+    private static final class Hot {
+        private final Film film;
+        private volatile long lastAccess = System.nanoTime();
+
+        private Hot(Film film) {
+            this.film = film;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package ru.yandex.practicum.filmorate.storage.offheap;
+
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Компактное двоичное представление фильмов и пользователей.
+ * <p>
+ * Запись начинается с id и числа связей (лайков или друзей), затем идут поля фиксированной длины,
+ * отсортированный список связей и строки в UTF-8 с длиной впереди. Id, число связей и сами связи
+ * читаются по фиксированным смещениям без разбора остальной записи. Все операции — по абсолютным
+ * смещениям, поэтому кодек работает и с прямыми, и с отображёнными в память буферами.
+ */
+public abstract class EntityCodec<T> {
+    public static final EntityCodec<Film> FILM = new FilmCodec();
+    public static final EntityCodec<User> USER = new UserCodec();
+
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final int NULL_STRING = -1;
+
+    private final int linksOffset;
+
+    private EntityCodec(int linksOffset) {
+        this.linksOffset = linksOffset;
+    }
+
+    public abstract int size(T value);
+
+    public abstract void write(ByteBuffer buffer, int offset, T value);
+
+    public abstract T read(ByteBuffer buffer, int offset);
+
+    public int id(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset);
+    }
+
+    public int linkCount(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset + Integer.BYTES);
+    }
+
+    public int[] links(ByteBuffer buffer, int offset) {
+        int[] links = new int[linkCount(buffer, offset)];
+        for (int i = 0; i < links.length; i++) {
+            links[i] = buffer.getInt(offset + linksOffset + i * Integer.BYTES);
+        }
+        return links;
+    }
+
+    int writeHeader(ByteBuffer buffer, int offset, Integer id, Set<Integer> links) {
+        int[] sorted = links == null ? new int[0] : links.stream().mapToInt(Integer::intValue).sorted().toArray();
+        buffer.putInt(offset, id == null ? 0 : id);
+        buffer.putInt(offset + Integer.BYTES, sorted.length);
+        int position = offset + linksOffset;
+        for (int link : sorted) {
+            buffer.putInt(position, link);
+            position += Integer.BYTES;
+        }
+        return position;
+    }
+
+    Set<Integer> readLinks(ByteBuffer buffer, int offset) {
+        int count = linkCount(buffer, offset);
+        Set<Integer> links = new HashSet<>(Math.max(16, count * 4 / 3 + 1));
+        for (int i = 0; i < count; i++) {
+            links.add(buffer.getInt(offset + linksOffset + i * Integer.BYTES));
+        }
+        return links;
+    }
+
+    int linksEnd(ByteBuffer buffer, int offset) {
+        return offset + linksOffset + linkCount(buffer, offset) * Integer.BYTES;
+    }
+
+    int fixedSize(Set<Integer> links) {
+        return linksOffset + (links == null ? 0 : links.size()) * Integer.BYTES;
+    }
+
+    static int stringSize(String value) {
+        if (value == null) {
+            return Integer.BYTES;
+        }
+        int bytes = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return Integer.BYTES + bytes;
+    }
+
+    static int writeString(ByteBuffer buffer, int offset, String value) {
+        if (value == null) {
+            buffer.putInt(offset, NULL_STRING);
+            return offset + Integer.BYTES;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(offset, bytes.length);
+        buffer.put(offset + Integer.BYTES, bytes);
+        return offset + Integer.BYTES + bytes.length;
+    }
+
+    static String readString(ByteBuffer buffer, int[] position) {
+        int length = buffer.getInt(position[0]);
+        position[0] += Integer.BYTES;
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(position[0], bytes);
+        position[0] += length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static long dateToLong(LocalDate date) {
+        return date == null ? NULL_LONG : date.toEpochDay();
+    }
+
+    static LocalDate longToDate(long value) {
+        return value == NULL_LONG ? null : LocalDate.ofEpochDay(value);
+    }
+
+    private static final class FilmCodec extends EntityCodec<Film> {
+        private static final int RELEASE_DATE = 8;
+        private static final int DURATION = 16;
+
+        private FilmCodec() {
+            super(24);
+        }
+
+        @Override
+        public int size(Film film) {
+            return fixedSize(film.getLikes()) + stringSize(film.getName()) + stringSize(film.getDescription());
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Film film) {
+            int position = writeHeader(buffer, offset, film.getId(), film.getLikes());
+            buffer.putLong(offset + RELEASE_DATE, dateToLong(film.getReleaseDate()));
+            buffer.putLong(offset + DURATION, film.getDuration() == null ? NULL_LONG : film.getDuration().getSeconds());
+            position = writeString(buffer, position, film.getName());
+            writeString(buffer, position, film.getDescription());
+        }
+
+        @Override
+        public Film read(ByteBuffer buffer, int offset) {
+            Film film = new Film();
+            film.setId(id(buffer, offset));
+            film.setLikes(readLinks(buffer, offset));
+            film.setReleaseDate(longToDate(buffer.getLong(offset + RELEASE_DATE)));
+            long duration = buffer.getLong(offset + DURATION);
+            film.setDuration(duration == NULL_LONG ? null : Duration.ofSeconds(duration));
+            int[] position = {linksEnd(buffer, offset)};
+            film.setName(readString(buffer, position));
+            film.setDescription(readString(buffer, position));
+            return film;
+        }
+    }
+
+    private static final class UserCodec extends EntityCodec<User> {
+        private static final int BIRTHDAY = 8;
+
+        private UserCodec() {
+            super(16);
+        }
+
+        @Override
+        public int size(User user) {
+            return fixedSize(user.getFriends()) + stringSize(user.getEmail()) + stringSize(user.getLogin())
+                    + stringSize(user.getName());
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, User user) {
+            int position = writeHeader(buffer, offset, user.getId(), user.getFriends());
+            buffer.putLong(offset + BIRTHDAY, dateToLong(user.getBirthday()));
+            position = writeString(buffer, position, user.getEmail());
+            position = writeString(buffer, position, user.getLogin());
+            writeString(buffer, position, user.getName());
+        }
+
+        @Override
+        public User read(ByteBuffer buffer, int offset) {
+            User user = new User();
+            user.setId(id(buffer, offset));
+            user.setFriends(readLinks(buffer, offset));
+            user.setBirthday(longToDate(buffer.getLong(offset + BIRTHDAY)));
+            int[] position = {linksEnd(buffer, offset)};
+            user.setEmail(readString(buffer, position));
+            user.setLogin(readString(buffer, position));
+            user.setName(readString(buffer, position));
+            return user;
+        }
+    }
+}
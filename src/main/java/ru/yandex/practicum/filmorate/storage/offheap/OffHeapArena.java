@@ -0,0 +1,82 @@
+package ru.yandex.practicum.filmorate.storage.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Распределитель памяти вне кучи поверх прямых {@link ByteBuffer} фиксированного размера.
+ * <p>
+ * Записи занимают ячейки размером в степень двойки (от 16 байт); освобождённые ячейки попадают
+ * в список своего класса и переиспользуются. Адрес записи — номер блока в старших 32 битах
+ * и смещение в младших. Не потокобезопасен: доступ упорядочивает {@link OffHeapTable}.
+ */
+public class OffHeapArena {
+    private static final int MIN_CLASS_BITS = 4;
+
+    private final int slabSize;
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private final long[][] freeLists = new long[32][];
+    private final int[] freeCounts = new int[32];
+    private int slabOffset;
+    private long usedBytes;
+
+    public OffHeapArena(int slabSize) {
+        if (Integer.bitCount(slabSize) != 1 || slabSize < (1 << MIN_CLASS_BITS)) {
+            throw new IllegalArgumentException("Размер блока должен быть степенью двойки не меньше 16 байт");
+        }
+        this.slabSize = slabSize;
+        this.slabOffset = slabSize;
+    }
+
+    public static int sizeClass(int bytes) {
+        return Math.max(MIN_CLASS_BITS, 32 - Integer.numberOfLeadingZeros(Math.max(1, bytes) - 1));
+    }
+
+    public long allocate(int sizeClass) {
+        int bytes = 1 << sizeClass;
+        if (bytes > slabSize) {
+            throw new IllegalArgumentException(
+                    String.format("Запись размером %d байт не помещается в блок %d байт", bytes, slabSize));
+        }
+        usedBytes += bytes;
+        if (freeCounts[sizeClass] > 0) {
+            return freeLists[sizeClass][--freeCounts[sizeClass]];
+        }
+        if (slabOffset + bytes > slabSize) {
+            slabs.add(ByteBuffer.allocateDirect(slabSize));
+            slabOffset = 0;
+        }
+        long address = ((long) (slabs.size() - 1) << 32) | slabOffset;
+        slabOffset += bytes;
+        return address;
+    }
+
+    public void free(long address, int sizeClass) {
+        long[] list = freeLists[sizeClass];
+        if (list == null) {
+            list = freeLists[sizeClass] = new long[16];
+        } else if (freeCounts[sizeClass] == list.length) {
+            list = freeLists[sizeClass] = Arrays.copyOf(list, list.length * 2);
+        }
+        list[freeCounts[sizeClass]++] = address;
+        usedBytes -= 1L << sizeClass;
+    }
+
+    public ByteBuffer buffer(long address) {
+        return slabs.get((int) (address >>> 32));
+    }
+
+    public static int offset(long address) {
+        return (int) address;
+    }
+
+    public long getReservedBytes() {
+        return (long) slabs.size() * slabSize;
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+}
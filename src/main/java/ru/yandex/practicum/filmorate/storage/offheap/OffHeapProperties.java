@@ -0,0 +1,14 @@
+package ru.yandex.practicum.filmorate.storage.offheap;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "filmorate.storage.off-heap")
+public record OffHeapProperties(
+        @DefaultValue("64MB") DataSize slabSize
+) {
+    public int slabBytes() {
+        return Math.toIntExact(slabSize.toBytes());
+    }
+}
@@ -0,0 +1,167 @@
+package ru.yandex.practicum.filmorate.storage.offheap;
+
+import ru.yandex.practicum.filmorate.storage.TopByLinks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Таблица сущностей вне кучи, индексированная по плотным id. В куче остаются только адрес
+ * и класс размера каждой записи; объекты собираются из двоичного представления при чтении.
+ * Изменение записи пишет её заново, освобождая прежнюю ячейку, поэтому чтение и запись
+ * разделены блокировкой, а не снимками.
+ */
+public class OffHeapTable<T> {
+    private static final long ABSENT = -1;
+
+    private final EntityCodec<T> codec;
+    private final OffHeapArena arena;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] addresses = new long[0];
+    private byte[] sizeClasses = new byte[0];
+    private int size;
+    private int maxId;
+
+    public OffHeapTable(EntityCodec<T> codec, int slabSize) {
+        this.codec = codec;
+        this.arena = new OffHeapArena(slabSize);
+    }
+
+    public <R> R read(Supplier<R> query) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return query.get();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    public <R> R write(Supplier<R> mutation) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            return mutation.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int nextId() {
+        return read(() -> maxId + 1);
+    }
+
+    public boolean contains(int id) {
+        return read(() -> address(id) != ABSENT);
+    }
+
+    public T get(int id) {
+        return read(() -> {
+            long address = address(id);
+            return address == ABSENT ? null : codec.read(arena.buffer(address), OffHeapArena.offset(address));
+        });
+    }
+
+    public List<T> getAll(int[] ids) {
+        return read(() -> {
+            List<T> values = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                long address = address(id);
+                if (address != ABSENT) {
+                    values.add(codec.read(arena.buffer(address), OffHeapArena.offset(address)));
+                }
+            }
+            return values;
+        });
+    }
+
+    public int[] links(int id) {
+        return read(() -> {
+            long address = address(id);
+            return address == ABSENT ? new int[0] : codec.links(arena.buffer(address), OffHeapArena.offset(address));
+        });
+    }
+
+    public List<T> values() {
+        return read(() -> {
+            List<T> values = new ArrayList<>(size);
+            for (int id = 0; id <= maxId && id < addresses.length; id++) {
+                long address = addresses[id];
+                if (address != ABSENT) {
+                    values.add(codec.read(arena.buffer(address), OffHeapArena.offset(address)));
+                }
+            }
+            return values;
+        });
+    }
+
+    /**
+     * Id записей с наибольшим числом связей (при равенстве — с меньшим id), по убыванию.
+     * Читает только заголовки записей.
+     */
+    public int[] topByLinks(int count) {
+        return read(() -> {
+            TopByLinks top = new TopByLinks(Math.min(count, size));
+            for (int id = 0; id <= maxId && id < addresses.length; id++) {
+                long address = addresses[id];
+                if (address != ABSENT) {
+                    top.offer(id, codec.linkCount(arena.buffer(address), OffHeapArena.offset(address)));
+                }
+            }
+            return top.ids();
+        });
+    }
+
+    public void put(int id, T value) {
+        write(() -> {
+            int sizeClass = OffHeapArena.sizeClass(codec.size(value));
+            long address = arena.allocate(sizeClass);
+            codec.write(arena.buffer(address), OffHeapArena.offset(address), value);
+            ensureCapacity(id);
+            long previous = addresses[id];
+            if (previous == ABSENT) {
+                size++;
+            } else {
+                arena.free(previous, sizeClasses[id]);
+            }
+            addresses[id] = address;
+            sizeClasses[id] = (byte) sizeClass;
+            maxId = Math.max(maxId, id);
+            return null;
+        });
+    }
+
+    public int size() {
+        return read(() -> size);
+    }
+
+    public long getReservedBytes() {
+        return read(arena::getReservedBytes);
+    }
+
+    public long getUsedBytes() {
+        return read(arena::getUsedBytes);
+    }
+
+    private long address(int id) {
+        return id < 0 || id >= addresses.length ? ABSENT : addresses[id];
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Id не может быть отрицательным");
+        }
+        if (id < addresses.length) {
+            return;
+        }
+        int capacity = Math.max(1024, Integer.highestOneBit(id) << 1);
+        int from = addresses.length;
+        addresses = Arrays.copyOf(addresses, capacity);
+        sizeClasses = Arrays.copyOf(sizeClasses, capacity);
+        Arrays.fill(addresses, from, capacity, ABSENT);
+    }
+}
@@ -0,0 +1,90 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Неизменяемое кольцо согласованного хеширования: каждый узел занимает {@code virtualNodes}
+ * точек, а идентификатор принадлежит первому узлу по часовой стрелке от своего хеша.
+ */
+public class ConsistentHashRing<T> {
+    private final Map<String, T> nodes;
+    private final long[] points;
+    private final String[] owners;
+
+    public ConsistentHashRing(Map<String, T> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("Кольцо должно содержать хотя бы один узел");
+        }
+        this.nodes = Collections.unmodifiableMap(new LinkedHashMap<>(nodes));
+        int size = nodes.size() * virtualNodes;
+        long[] hashes = new long[size];
+        String[] names = new String[size];
+        int i = 0;
+        for (String node : nodes.keySet()) {
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                hashes[i] = hash(node + "#" + replica);
+                names[i] = node;
+                i++;
+            }
+        }
+        Integer[] order = new Integer[size];
+        for (int j = 0; j < size; j++) {
+            order[j] = j;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int j = 0; j < size; j++) {
+            points[j] = hashes[order[j]];
+            owners[j] = names[order[j]];
+        }
+    }
+
+    public String nodeFor(int id) {
+        long hash = mix(id);
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public T shardFor(int id) {
+        return nodes.get(nodeFor(id));
+    }
+
+    public T shard(String node) {
+        return nodes.get(node);
+    }
+
+    public Collection<String> nodeNames() {
+        return nodes.keySet();
+    }
+
+    public Collection<T> shards() {
+        return nodes.values();
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import ru.yandex.practicum.filmorate.models.Film;
+
+import java.util.Collection;
+
+public interface FilmShard {
+    public Collection<Film> list();
+
+    public Film get(int filmId);
+
+    public void put(Film film);
+
+    public void remove(int filmId);
+
+    public void addLike(int filmId, int userId);
+
+    public void removeLike(int filmId, int userId);
+
+    public Collection<Film> getPopular(int count);
+
+    public int maxId();
+}
@@ -0,0 +1,74 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Фильмы узла. Хранятся неизменяемые версии: лайк заменяет фильм копией, поэтому {@link #list()}
+ * и {@link #getPopular} отдают сортировке и сериализации объекты, которые никто уже не меняет.
+ */
+public class LocalFilmShard implements FilmShard {
+    private final Map<Integer, Film> films = new ConcurrentHashMap<>();
+
+    @Override
+    public Collection<Film> list() {
+        return List.copyOf(films.values());
+    }
+
+    @Override
+    public Film get(int filmId) {
+        return films.get(filmId);
+    }
+
+    @Override
+    public void put(Film film) {
+        films.put(film.getId(), freeze(film.copy()));
+    }
+
+    @Override
+    public void remove(int filmId) {
+        films.remove(filmId);
+    }
+
+    @Override
+    public void addLike(int filmId, int userId) {
+        films.computeIfPresent(filmId, (id, film) -> {
+            Film changed = film.copy();
+            changed.getLikes().add(userId);
+            return freeze(changed);
+        });
+    }
+
+    @Override
+    public void removeLike(int filmId, int userId) {
+        films.computeIfPresent(filmId, (id, film) -> {
+            Film changed = film.copy();
+            changed.getLikes().remove(userId);
+            return freeze(changed);
+        });
+    }
+
+    @Override
+    public Collection<Film> getPopular(int count) {
+        return films.values().stream()
+                .sorted(FilmStorage.BY_POPULARITY)
+                .limit(count)
+                .toList();
+    }
+
+    @Override
+    public int maxId() {
+        return films.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    private static Film freeze(Film film) {
+        film.setLikes(Collections.unmodifiableSet(film.getLikes()));
+        return film;
+    }
+}
@@ -0,0 +1,71 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import ru.yandex.practicum.filmorate.models.User;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Пользователи узла. Хранятся неизменяемые версии: связь дружбы заменяет пользователя копией, поэтому
+ * {@link #list()} отдаёт сериализации объекты, которые никто уже не меняет.
+ */
+public class LocalUserShard implements UserShard {
+    private final Map<Integer, User> users = new ConcurrentHashMap<>();
+
+    @Override
+    public Collection<User> list() {
+        return List.copyOf(users.values());
+    }
+
+    @Override
+    public User get(int userId) {
+        return users.get(userId);
+    }
+
+    @Override
+    public Collection<User> getAll(Collection<Integer> userIds) {
+        return userIds.stream().map(users::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public void put(User user) {
+        users.put(user.getId(), freeze(user.copy()));
+    }
+
+    @Override
+    public void remove(int userId) {
+        users.remove(userId);
+    }
+
+    @Override
+    public void addFriendLink(int userId, int friendId) {
+        users.computeIfPresent(userId, (id, user) -> {
+            User changed = user.copy();
+            changed.getFriends().add(friendId);
+            return freeze(changed);
+        });
+    }
+
+    @Override
+    public void removeFriendLink(int userId, int friendId) {
+        users.computeIfPresent(userId, (id, user) -> {
+            User changed = user.copy();
+            changed.getFriends().remove(friendId);
+            return freeze(changed);
+        });
+    }
+
+    @Override
+    public int maxId() {
+        return users.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    private static User freeze(User user) {
+        user.setFriends(Collections.unmodifiableSet(user.getFriends()));
+        return user;
+    }
+}
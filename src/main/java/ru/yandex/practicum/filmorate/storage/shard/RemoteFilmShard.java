@@ -0,0 +1,61 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+import ru.yandex.practicum.filmorate.models.Film;
+
+import java.util.Collection;
+import java.util.List;
+
+public class RemoteFilmShard implements FilmShard {
+    private static final ParameterizedTypeReference<List<Film>> FILMS = new ParameterizedTypeReference<>() {
+    };
+
+    private final RestClient client;
+
+    public RemoteFilmShard(RestClient.Builder builder, String baseUrl) {
+        this.client = builder.baseUrl(baseUrl + "/internal/shard/films").build();
+    }
+
+    @Override
+    public Collection<Film> list() {
+        return client.get().retrieve().body(FILMS);
+    }
+
+    @Override
+    public Film get(int filmId) {
+        return client.get().uri("/{id}", filmId).retrieve().body(Film.class);
+    }
+
+    @Override
+    public void put(Film film) {
+        client.put().contentType(MediaType.APPLICATION_JSON).body(film).retrieve().toBodilessEntity();
+    }
+
+    @Override
+    public void remove(int filmId) {
+        client.delete().uri("/{id}", filmId).retrieve().toBodilessEntity();
+    }
+
+    @Override
+    public void addLike(int filmId, int userId) {
+        client.put().uri("/{id}/likes/{userId}", filmId, userId).retrieve().toBodilessEntity();
+    }
+
+    @Override
+    public void removeLike(int filmId, int userId) {
+        client.delete().uri("/{id}/likes/{userId}", filmId, userId).retrieve().toBodilessEntity();
+    }
+
+    @Override
+    public Collection<Film> getPopular(int count) {
+        return client.get().uri("/popular?count={count}", count).retrieve().body(FILMS);
+    }
+
+    @Override
+    public int maxId() {
+        Integer maxId = client.get().uri("/max-id").retrieve().body(Integer.class);
+        return maxId == null ? 0 : maxId;
+    }
+}
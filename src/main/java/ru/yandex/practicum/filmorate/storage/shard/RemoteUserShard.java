@@ -0,0 +1,65 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+import ru.yandex.practicum.filmorate.models.User;
+
+import java.util.Collection;
+import java.util.List;
+
+public class RemoteUserShard implements UserShard {
+    private static final ParameterizedTypeReference<List<User>> USERS = new ParameterizedTypeReference<>() {
+    };
+
+    private final RestClient client;
+
+    public RemoteUserShard(RestClient.Builder builder, String baseUrl) {
+        this.client = builder.baseUrl(baseUrl + "/internal/shard/users").build();
+    }
+
+    @Override
+    public Collection<User> list() {
+        return client.get().retrieve().body(USERS);
+    }
+
+    @Override
+    public User get(int userId) {
+        return client.get().uri("/{id}", userId).retrieve().body(User.class);
+    }
+
+    @Override
+    public Collection<User> getAll(Collection<Integer> userIds) {
+        return client.post().uri("/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(userIds)
+                .retrieve()
+                .body(USERS);
+    }
+
+    @Override
+    public void put(User user) {
+        client.put().contentType(MediaType.APPLICATION_JSON).body(user).retrieve().toBodilessEntity();
+    }
+
+    @Override
+    public void remove(int userId) {
+        client.delete().uri("/{id}", userId).retrieve().toBodilessEntity();
+    }
+
+    @Override
+    public void addFriendLink(int userId, int friendId) {
+        client.put().uri("/{id}/friends/{friendId}", userId, friendId).retrieve().toBodilessEntity();
+    }
+
+    @Override
+    public void removeFriendLink(int userId, int friendId) {
+        client.delete().uri("/{id}/friends/{friendId}", userId, friendId).retrieve().toBodilessEntity();
+    }
+
+    @Override
+    public int maxId() {
+        Integer maxId = client.get().uri("/max-id").retrieve().body(Integer.class);
+        return maxId == null ? 0 : maxId;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+public final class ScatterGather {
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private ScatterGather() {
+    }
+
+    public static <S, R> List<R> gather(Collection<S> shards, Function<S, R> call) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(shards.size());
+        for (S shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> call.apply(shard), EXECUTOR));
+        }
+        List<R> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<R> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+}
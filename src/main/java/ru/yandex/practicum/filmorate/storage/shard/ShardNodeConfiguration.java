@@ -0,0 +1,20 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "filmorate.shard.node", name = "enabled", havingValue = "true")
+public class ShardNodeConfiguration {
+
+    @Bean
+    public LocalFilmShard localFilmShard() {
+        return new LocalFilmShard();
+    }
+
+    @Bean
+    public LocalUserShard localUserShard() {
+        return new LocalUserShard();
+    }
+}
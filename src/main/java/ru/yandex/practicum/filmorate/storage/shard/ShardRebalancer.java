@@ -0,0 +1,34 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.storage.film.ShardedFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.ShardedUserStorage;
+
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(prefix = "filmorate.storage", name = "mode", havingValue = "sharded")
+public class ShardRebalancer {
+    private final ShardedFilmStorage filmStorage;
+    private final ShardedUserStorage userStorage;
+    private final RestClient.Builder builder;
+
+    public ShardRebalancer(ShardedFilmStorage filmStorage, ShardedUserStorage userStorage, RestClient.Builder builder) {
+        this.filmStorage = filmStorage;
+        this.userStorage = userStorage;
+        this.builder = builder;
+    }
+
+    public Map<String, Integer> rebalance(List<String> nodes) {
+        if (nodes == null || nodes.isEmpty()) {
+            throw new ValidationException("Список узлов не может быть пустым");
+        }
+        int films = filmStorage.rebalance(ShardedFilmStorage.remoteShards(nodes, builder));
+        int users = userStorage.rebalance(ShardedUserStorage.remoteShards(nodes, builder));
+        return Map.of("films", films, "users", users);
+    }
+}
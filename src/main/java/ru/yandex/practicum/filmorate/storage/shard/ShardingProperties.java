@@ -0,0 +1,13 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+@ConfigurationProperties(prefix = "filmorate.storage.sharded")
+public record ShardingProperties(
+        @DefaultValue List<String> nodes,
+        @DefaultValue("128") int virtualNodes
+) {
+}
@@ -0,0 +1,27 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import ru.yandex.practicum.filmorate.models.User;
+
+import java.util.Collection;
+
+/**
+ * Шард хранит только свою сторону дружбы: связь {@code userId -> friendId}
+ * добавляется в шард пользователя {@code userId}.
+ */
+public interface UserShard {
+    public Collection<User> list();
+
+    public User get(int userId);
+
+    public Collection<User> getAll(Collection<Integer> userIds);
+
+    public void put(User user);
+
+    public void remove(int userId);
+
+    public void addFriendLink(int userId, int friendId);
+
+    public void removeFriendLink(int userId, int friendId);
+
+    public int maxId();
+}
@@ -0,0 +1,249 @@
+package ru.yandex.practicum.filmorate.storage.tiered;
+
+import ru.yandex.practicum.filmorate.storage.offheap.EntityCodec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Холодные записи на диске: файлы-сегменты, в которые записи в формате {@link EntityCodec}
+ * дописываются с префиксом длины, и индекс id → сегмент и смещение в куче (8 байт на id).
+ * <p>
+ * Перезапись и удаление только помечают старую запись мусором. Заполненный сегмент, в котором живых
+ * данных осталось меньше половины, переписывается в текущий и удаляется. Чтения идут параллельно
+ * позиционными {@link FileChannel#read(ByteBuffer, long)}; запись, удаление и сжатие их исключают.
+ */
+public final class ColdSegmentStore<T> implements Closeable {
+    private static final long ABSENT = -1;
+    private static final int LENGTH = Integer.BYTES;
+
+    private final Path directory;
+    private final EntityCodec<T> codec;
+    private final int segmentBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Segment> segments = new ArrayList<>();
+    private long[] locations = new long[0];
+    private int size;
+    private long diskBytes;
+    private long liveBytes;
+
+    public ColdSegmentStore(Path directory, EntityCodec<T> codec, int segmentBytes) {
+        this.directory = directory;
+        this.codec = codec;
+        this.segmentBytes = segmentBytes;
+    }
+
+    public T read(int id) {
+        lock.readLock().lock();
+        try {
+            long location = location(id);
+            if (location == ABSENT) {
+                return null;
+            }
+            Segment segment = segments.get((int) (location >>> 32));
+            long offset = (int) location;
+            ByteBuffer length = ByteBuffer.allocate(LENGTH);
+            readFully(segment.channel, length, offset);
+            ByteBuffer record = ByteBuffer.allocate(length.getInt(0));
+            readFully(segment.channel, record, offset + LENGTH);
+            return codec.read(record, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать запись " + id + " из " + directory, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(int id) {
+        lock.readLock().lock();
+        try {
+            return location(id) != ABSENT;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(int id, T value) {
+        lock.writeLock().lock();
+        try {
+            int sizeBytes = codec.size(value);
+            ByteBuffer record = ByteBuffer.allocate(LENGTH + sizeBytes);
+            record.putInt(0, sizeBytes);
+            codec.write(record, LENGTH, value);
+            long location = append(record);
+            if (id >= locations.length) {
+                int previous = locations.length;
+                locations = Arrays.copyOf(locations, Math.max(id + 1, previous * 2));
+                Arrays.fill(locations, previous, locations.length, ABSENT);
+            }
+            release(id);
+            locations[id] = location;
+            size++;
+            liveBytes += record.capacity();
+            compactIfSparse();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать запись " + id + " в " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            release(id);
+            compactIfSparse();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сжать сегменты в " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Размер всех файлов сегментов, включая ещё не освобождённый мусор.
+     */
+    public long getDiskBytes() {
+        lock.readLock().lock();
+        try {
+            return diskBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getLiveBytes() {
+        lock.readLock().lock();
+        try {
+            return liveBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments) {
+                if (segment != null) {
+                    segment.channel.close();
+                    Files.deleteIfExists(segment.path);
+                }
+            }
+            segments.clear();
+            locations = new long[0];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long location(int id) {
+        return id >= 0 && id < locations.length ? locations[id] : ABSENT;
+    }
+
+    private void release(int id) {
+        long location = location(id);
+        if (location == ABSENT) {
+            return;
+        }
+        Segment segment = segments.get((int) (location >>> 32));
+        int recordBytes;
+        try {
+            ByteBuffer length = ByteBuffer.allocate(LENGTH);
+            readFully(segment.channel, length, (int) location);
+            recordBytes = LENGTH + length.getInt(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать запись " + id + " из " + directory, e);
+        }
+        segment.live -= recordBytes;
+        liveBytes -= recordBytes;
+        locations[id] = ABSENT;
+        size--;
+    }
+
+    private long append(ByteBuffer record) throws IOException {
+        Segment active = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (active == null || active.length + record.capacity() > segmentBytes) {
+            Path path = directory.resolve("segment-" + segments.size() + ".dat");
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            active = new Segment(path, channel);
+            segments.add(active);
+        }
+        long offset = active.length;
+        while (record.hasRemaining()) {
+            active.channel.write(record, offset + record.position());
+        }
+        active.length += record.capacity();
+        active.live += record.capacity();
+        diskBytes += record.capacity();
+        return (long) (segments.size() - 1) << 32 | offset;
+    }
+
+    /**
+     * Переписывает живые записи заполненных сегментов, в которых мусора больше половины.
+     */
+    private void compactIfSparse() throws IOException {
+        for (int index = 0; index < segments.size() - 1; index++) {
+            Segment segment = segments.get(index);
+            if (segment == null || segment.live * 2 >= segment.length) {
+                continue;
+            }
+            for (int id = 0; id < locations.length; id++) {
+                long location = locations[id];
+                if (location != ABSENT && (int) (location >>> 32) == index) {
+                    ByteBuffer length = ByteBuffer.allocate(LENGTH);
+                    readFully(segment.channel, length, (int) location);
+                    ByteBuffer record = ByteBuffer.allocate(LENGTH + length.getInt(0));
+                    readFully(segment.channel, record, (int) location);
+                    record.flip();
+                    locations[id] = append(record);
+                }
+            }
+            diskBytes -= segment.length;
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+            segments.set(index, null);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Неожиданный конец сегмента");
+            }
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private long length;
+        private long live;
+
+        private Segment(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+}
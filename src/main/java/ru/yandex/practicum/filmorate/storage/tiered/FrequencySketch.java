@@ -0,0 +1,57 @@
+package ru.yandex.practicum.filmorate.storage.tiered;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Приблизительная частота обращений по id: четыре строки счётчиков до 15, как в TinyLFU.
+ * После {@code 10 * width} обращений все счётчики делятся пополам, поэтому давняя популярность
+ * постепенно забывается.
+ */
+public final class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private final AtomicIntegerArray counters;
+    private final int mask;
+    private final int width;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    public FrequencySketch(int expectedEntries) {
+        this.width = Integer.highestOneBit(Math.max(64, expectedEntries) * 2 - 1);
+        this.mask = width - 1;
+        this.sampleSize = 10 * width;
+        this.counters = new AtomicIntegerArray(width * DEPTH);
+    }
+
+    public void increment(int id) {
+        for (int row = 0; row < DEPTH; row++) {
+            int index = row * width + slot(id, row);
+            int current;
+            do {
+                current = counters.get(index);
+            } while (current < MAX_COUNT && !counters.compareAndSet(index, current, current + 1));
+        }
+        if (additions.incrementAndGet() >= sampleSize) {
+            additions.set(0);
+            for (int i = 0; i < counters.length(); i++) {
+                counters.set(i, counters.get(i) >>> 1);
+            }
+        }
+    }
+
+    public int estimate(int id) {
+        int estimate = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.get(row * width + slot(id, row)));
+        }
+        return estimate;
+    }
+
+    private int slot(int id, int row) {
+        int hash = id * SEEDS[row];
+        return (hash ^ hash >>> 16) & mask;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.yandex.practicum.filmorate.storage.tiered;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * @param directory     каталог для сегментов холодного уровня; по умолчанию временный
+ * @param maxHotEntries сколько фильмов держать в куче
+ * @param idleTimeout   фильм без обращений и лайков дольше этого времени уходит на диск
+ * @param sweepInterval как часто искать такие фильмы
+ * @param segmentSize   размер файла сегмента
+ */
+@ConfigurationProperties(prefix = "filmorate.storage.tiered")
+public record TieredStorageProperties(
+        String directory,
+        @DefaultValue("100000") int maxHotEntries,
+        @DefaultValue("1d") Duration idleTimeout,
+        @DefaultValue("1m") Duration sweepInterval,
+        @DefaultValue("64MB") DataSize segmentSize
+) {
+    public int segmentBytes() {
+        return Math.toIntExact(segmentSize.toBytes());
+    }
+}
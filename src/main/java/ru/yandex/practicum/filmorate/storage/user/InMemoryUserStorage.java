@@ -1,54 +1,95 @@
 package ru.yandex.practicum.filmorate.storage.user;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.storage.SnapshotTable;
 
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Objects;
 
 @Component
+@ConditionalOnExpression("'${filmorate.storage.mode:in-memory}' matches 'in-memory|tiered'")
 public class InMemoryUserStorage implements UserStorage {
 
-    private final HashMap<Integer, User> users = new HashMap<>();
-    private static int currentMaxId = 0;
+    private final SnapshotTable<User> users = new SnapshotTable<>();
 
     @Override
     public User create(User newUser) {
-        newUser.setId(generateId());
-        users.put(newUser.getId(), newUser);
-        return newUser;
+        return users.write(transaction -> {
+            newUser.setId(transaction.nextId());
+            transaction.put(newUser.getId(), freeze(newUser.copy()));
+            return newUser;
+        });
     }
 
     @Override
     public User get(int userId) {
-        return users.get(userId);
+        return users.snapshot().get(userId);
+    }
+
+    @Override
+    public Collection<User> getAll(Collection<Integer> userIds) {
+        SnapshotTable.Snapshot<User> snapshot = users.snapshot();
+        return userIds.stream().map(snapshot::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public Collection<User> getFriends(int userId) {
+        SnapshotTable.Snapshot<User> snapshot = users.snapshot();
+        return snapshot.get(userId).getFriends().stream().map(snapshot::get).filter(Objects::nonNull).toList();
     }
 
     @Override
     public boolean notExists(int userId) {
-        return !users.containsKey(userId);
+        return !users.snapshot().contains(userId);
     }
 
     @Override
     public User update(User user) {
-        User oldUser = get(user.getId());
+        User updated = freeze(user.copy());
+        users.write(transaction -> {
+            transaction.put(updated.getId(), updated);
+            return updated;
+        });
+        return updated;
+    }
 
-        oldUser.setLogin(user.getLogin());
-        oldUser.setEmail(user.getEmail());
-        oldUser.setName(user.getName());
-        oldUser.setBirthday(user.getBirthday());
-        oldUser.setFriends(user.getFriends());
+    @Override
+    public Collection<User> list() {
+        return users.snapshot().values();
+    }
 
-        return oldUser;
+    @Override
+    public void addFriend(int userId, int friendId) {
+        users.write(transaction -> {
+            User user = transaction.get(userId).copy();
+            User friend = transaction.get(friendId).copy();
+            user.getFriends().add(friendId);
+            friend.getFriends().add(userId);
+            transaction.put(userId, freeze(user));
+            transaction.put(friendId, freeze(friend));
+            return user;
+        });
     }
 
     @Override
-    public Collection<User> list() {
-        return users.values();
+    public void removeFriend(int userId, int friendId) {
+        users.write(transaction -> {
+            User user = transaction.get(userId).copy();
+            User friend = transaction.get(friendId).copy();
+            user.getFriends().remove(friendId);
+            friend.getFriends().remove(userId);
+            transaction.put(userId, freeze(user));
+            transaction.put(friendId, freeze(friend));
+            return user;
+        });
     }
 
-    private int generateId() {
-        return ++currentMaxId;
+    private static User freeze(User user) {
+        user.setFriends(Collections.unmodifiableSet(user.getFriends()));
+        return user;
     }
 
 }
@@ -0,0 +1,138 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.storage.SnapshotTable;
+import ru.yandex.practicum.filmorate.storage.catalog.CatalogFile;
+import ru.yandex.practicum.filmorate.storage.catalog.MappedCatalog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Пользователи из отображённого в память каталога; созданные и изменённые пользователи хранятся
+ * в таблице снимков поверх каталога, поэтому обе стороны дружбы меняются одним снимком.
+ */
+@Component
+@ConditionalOnProperty(prefix = "filmorate.storage", name = "mode", havingValue = "mapped")
+public class MappedUserStorage implements UserStorage {
+
+    private final CatalogFile catalog;
+    private final SnapshotTable<User> overlay = new SnapshotTable<>();
+
+    public MappedUserStorage(MappedCatalog catalog) {
+        this.catalog = catalog.file();
+    }
+
+    @Override
+    public User create(User newUser) {
+        return overlay.write(transaction -> {
+            newUser.setId(Math.max(transaction.nextId(), catalog.getUserMaxId() + 1));
+            transaction.put(newUser.getId(), freeze(newUser.copy()));
+            return newUser;
+        });
+    }
+
+    @Override
+    public User get(int userId) {
+        return get(overlay.snapshot(), userId);
+    }
+
+    @Override
+    public Collection<User> getAll(Collection<Integer> userIds) {
+        SnapshotTable.Snapshot<User> snapshot = overlay.snapshot();
+        return userIds.stream().map(id -> get(snapshot, id)).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public Collection<User> getFriends(int userId) {
+        SnapshotTable.Snapshot<User> snapshot = overlay.snapshot();
+        User user = snapshot.get(userId);
+        if (user != null) {
+            return user.getFriends().stream().map(id -> get(snapshot, id)).filter(Objects::nonNull).toList();
+        }
+        List<User> friends = new ArrayList<>();
+        for (int friendId : catalog.userFriends(userId)) {
+            User friend = get(snapshot, friendId);
+            if (friend != null) {
+                friends.add(friend);
+            }
+        }
+        return friends;
+    }
+
+    @Override
+    public boolean notExists(int userId) {
+        return !overlay.snapshot().contains(userId) && !catalog.containsUser(userId);
+    }
+
+    @Override
+    public User update(User user) {
+        User updated = freeze(user.copy());
+        overlay.write(transaction -> {
+            transaction.put(updated.getId(), updated);
+            return updated;
+        });
+        return updated;
+    }
+
+    @Override
+    public Collection<User> list() {
+        SnapshotTable.Snapshot<User> snapshot = overlay.snapshot();
+        int maxId = Math.max(snapshot.maxId(), catalog.getUserMaxId());
+        List<User> users = new ArrayList<>(snapshot.size() + catalog.getUserCount());
+        for (int id = 1; id <= maxId; id++) {
+            User user = get(snapshot, id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public void addFriend(int userId, int friendId) {
+        overlay.write(transaction -> {
+            User user = current(transaction, userId).copy();
+            User friend = current(transaction, friendId).copy();
+            user.getFriends().add(friendId);
+            friend.getFriends().add(userId);
+            transaction.put(userId, freeze(user));
+            transaction.put(friendId, freeze(friend));
+            return user;
+        });
+    }
+
+    @Override
+    public void removeFriend(int userId, int friendId) {
+        overlay.write(transaction -> {
+            User user = current(transaction, userId).copy();
+            User friend = current(transaction, friendId).copy();
+            user.getFriends().remove(friendId);
+            friend.getFriends().remove(userId);
+            transaction.put(userId, freeze(user));
+            transaction.put(friendId, freeze(friend));
+            return user;
+        });
+    }
+
+    private User get(SnapshotTable.Snapshot<User> snapshot, int userId) {
+        User user = snapshot.get(userId);
+        return user != null ? user : catalog.user(userId);
+    }
+
+    private User current(SnapshotTable.Transaction<User> transaction, int userId) {
+        User user = transaction.get(userId);
+        return user != null ? user : catalog.user(userId);
+    }
+
+    private static User freeze(User user) {
+        user.setFriends(Collections.unmodifiableSet(user.getFriends()));
+        return user;
+    }
+
+}
@@ -0,0 +1,93 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.storage.offheap.EntityCodec;
+import ru.yandex.practicum.filmorate.storage.offheap.OffHeapProperties;
+import ru.yandex.practicum.filmorate.storage.offheap.OffHeapTable;
+
+import java.util.Collection;
+
+@Component
+@ConditionalOnProperty(prefix = "filmorate.storage", name = "mode", havingValue = "off-heap")
+public class OffHeapUserStorage implements UserStorage {
+
+    private final OffHeapTable<User> users;
+
+    public OffHeapUserStorage(OffHeapProperties properties, MeterRegistry registry) {
+        this.users = new OffHeapTable<>(EntityCodec.USER, properties.slabBytes());
+        Gauge.builder("filmorate.storage.offheap.reserved", users, OffHeapTable::getReservedBytes)
+                .tag("table", "users").baseUnit("bytes").register(registry);
+        Gauge.builder("filmorate.storage.offheap.used", users, OffHeapTable::getUsedBytes)
+                .tag("table", "users").baseUnit("bytes").register(registry);
+    }
+
+    @Override
+    public User create(User newUser) {
+        return users.write(() -> {
+            newUser.setId(users.nextId());
+            users.put(newUser.getId(), newUser);
+            return newUser;
+        });
+    }
+
+    @Override
+    public User get(int userId) {
+        return users.get(userId);
+    }
+
+    @Override
+    public Collection<User> getAll(Collection<Integer> userIds) {
+        return users.getAll(userIds.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    @Override
+    public Collection<User> getFriends(int userId) {
+        return users.read(() -> users.getAll(users.links(userId)));
+    }
+
+    @Override
+    public boolean notExists(int userId) {
+        return !users.contains(userId);
+    }
+
+    @Override
+    public User update(User user) {
+        users.put(user.getId(), user);
+        return users.get(user.getId());
+    }
+
+    @Override
+    public Collection<User> list() {
+        return users.values();
+    }
+
+    @Override
+    public void addFriend(int userId, int friendId) {
+        users.write(() -> {
+            User user = users.get(userId);
+            User friend = users.get(friendId);
+            user.getFriends().add(friendId);
+            friend.getFriends().add(userId);
+            users.put(userId, user);
+            users.put(friendId, friend);
+            return user;
+        });
+    }
+
+    @Override
+    public void removeFriend(int userId, int friendId) {
+        users.write(() -> {
+            User user = users.get(userId);
+            User friend = users.get(friendId);
+            user.getFriends().remove(friendId);
+            friend.getFriends().remove(userId);
+            users.put(userId, user);
+            users.put(friendId, friend);
+            return user;
+        });
+    }
+}
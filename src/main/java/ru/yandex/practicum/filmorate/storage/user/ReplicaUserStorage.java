@@ -0,0 +1,72 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exceptions.ReplicaUnavailableException;
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.replication.ReplicationFollower;
+
+import java.util.Collection;
+
+@Component
+@ConditionalOnProperty(prefix = "filmorate.storage", name = "mode", havingValue = "replica")
+public class ReplicaUserStorage implements UserStorage {
+    private final ReplicationFollower follower;
+
+    public ReplicaUserStorage(ReplicationFollower follower) {
+        this.follower = follower;
+    }
+
+    @Override
+    public Collection<User> list() {
+        follower.ensureFresh();
+        return follower.users().list();
+    }
+
+    @Override
+    public User get(int userId) {
+        follower.ensureFresh();
+        return follower.users().get(userId);
+    }
+
+    @Override
+    public Collection<User> getAll(Collection<Integer> userIds) {
+        follower.ensureFresh();
+        return follower.users().getAll(userIds);
+    }
+
+    @Override
+    public Collection<User> getFriends(int userId) {
+        follower.ensureFresh();
+        return follower.users().getFriends(userId);
+    }
+
+    @Override
+    public User create(User user) {
+        throw readOnly();
+    }
+
+    @Override
+    public User update(User user) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean notExists(int userId) {
+        return get(userId) == null;
+    }
+
+    @Override
+    public void addFriend(int userId, int friendId) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeFriend(int userId, int friendId) {
+        throw readOnly();
+    }
+
+    private ReplicaUnavailableException readOnly() {
+        return new ReplicaUnavailableException("Реплика доступна только для чтения, изменения принимает лидер");
+    }
+}
@@ -0,0 +1,182 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.storage.shard.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "filmorate.storage", name = "mode", havingValue = "sharded")
+public class ShardedUserStorage implements UserStorage {
+    private final int virtualNodes;
+    private final ReadWriteLock rebalanceLock = new ReentrantReadWriteLock();
+    private final AtomicInteger currentMaxId;
+    private volatile ConsistentHashRing<UserShard> ring;
+
+    @Autowired
+    public ShardedUserStorage(ShardingProperties properties, RestClient.Builder builder) {
+        this(remoteShards(properties.nodes(), builder), properties.virtualNodes());
+    }
+
+    public ShardedUserStorage(Map<String, UserShard> shards, int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+        this.ring = new ConsistentHashRing<>(shards, virtualNodes);
+        int maxId = ScatterGather.gather(ring.shards(), UserShard::maxId).stream()
+                .mapToInt(Integer::intValue)
+                .max()
+                .orElse(0);
+        this.currentMaxId = new AtomicInteger(maxId);
+        log.info("Пользователи распределены по узлам {}", shards.keySet());
+    }
+
+    public static Map<String, UserShard> remoteShards(List<String> nodes, RestClient.Builder builder) {
+        Map<String, UserShard> shards = new LinkedHashMap<>();
+        for (String node : nodes) {
+            shards.put(node, new RemoteUserShard(builder.clone(), node));
+        }
+        return shards;
+    }
+
+    @Override
+    public Collection<User> list() {
+        rebalanceLock.readLock().lock();
+        try {
+            return ScatterGather.gather(ring.shards(), UserShard::list).stream()
+                    .flatMap(Collection::stream)
+                    .sorted(Comparator.comparing(User::getId))
+                    .toList();
+        } finally {
+            rebalanceLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public User get(int userId) {
+        ConsistentHashRing<UserShard> current = ring;
+        User user = current.shardFor(userId).get(userId);
+        if (user == null && current != ring) {
+            user = ring.shardFor(userId).get(userId);
+        }
+        return user;
+    }
+
+    @Override
+    public Collection<User> getAll(Collection<Integer> userIds) {
+        rebalanceLock.readLock().lock();
+        try {
+            ConsistentHashRing<UserShard> current = ring;
+            Map<String, List<Integer>> idsByNode = userIds.stream()
+                    .collect(Collectors.groupingBy(current::nodeFor));
+            return ScatterGather.gather(idsByNode.entrySet(),
+                            entry -> current.shard(entry.getKey()).getAll(entry.getValue()))
+                    .stream()
+                    .flatMap(Collection::stream)
+                    .toList();
+        } finally {
+            rebalanceLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public User create(User newUser) {
+        rebalanceLock.readLock().lock();
+        try {
+            newUser.setId(currentMaxId.incrementAndGet());
+            ring.shardFor(newUser.getId()).put(newUser);
+            return newUser;
+        } finally {
+            rebalanceLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public User update(User user) {
+        rebalanceLock.readLock().lock();
+        try {
+            ring.shardFor(user.getId()).put(user);
+            return user;
+        } finally {
+            rebalanceLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean notExists(int userId) {
+        return get(userId) == null;
+    }
+
+    @Override
+    public void addFriend(int userId, int friendId) {
+        rebalanceLock.readLock().lock();
+        try {
+            ring.shardFor(userId).addFriendLink(userId, friendId);
+            try {
+                ring.shardFor(friendId).addFriendLink(friendId, userId);
+            } catch (RuntimeException e) {
+                log.error("Ошибка добавления связи {} -> {}, откат связи {} -> {}", friendId, userId, userId, friendId);
+                ring.shardFor(userId).removeFriendLink(userId, friendId);
+                throw e;
+            }
+        } finally {
+            rebalanceLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeFriend(int userId, int friendId) {
+        rebalanceLock.readLock().lock();
+        try {
+            ring.shardFor(userId).removeFriendLink(userId, friendId);
+            try {
+                ring.shardFor(friendId).removeFriendLink(friendId, userId);
+            } catch (RuntimeException e) {
+                log.error("Ошибка удаления связи {} -> {}, откат связи {} -> {}", friendId, userId, userId, friendId);
+                ring.shardFor(userId).addFriendLink(userId, friendId);
+                throw e;
+            }
+        } finally {
+            rebalanceLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Переносит записи на узлы нового кольца. Записи сначала копируются на новые узлы, затем
+     * переключается кольцо и только после этого записи удаляются со старых узлов: {@link #get} без
+     * блокировки находит запись хотя бы на одном из них.
+     */
+    public int rebalance(Map<String, UserShard> shards) {
+        rebalanceLock.writeLock().lock();
+        try {
+            ConsistentHashRing<UserShard> current = ring;
+            ConsistentHashRing<UserShard> target = new ConsistentHashRing<>(shards, virtualNodes);
+            Map<UserShard, List<Integer>> moved = new LinkedHashMap<>();
+            for (String node : current.nodeNames()) {
+                UserShard source = current.shard(node);
+                for (User user : source.list()) {
+                    String owner = target.nodeFor(user.getId());
+                    if (!owner.equals(node)) {
+                        target.shard(owner).put(user);
+                        moved.computeIfAbsent(source, shard -> new ArrayList<>()).add(user.getId());
+                    }
+                }
+            }
+            ring = target;
+            moved.forEach((source, ids) -> ids.forEach(source::remove));
+            int count = moved.values().stream().mapToInt(List::size).sum();
+            log.info("Пользователи перераспределены по узлам {}, перемещено {}", shards.keySet(), count);
+            return count;
+        } finally {
+            rebalanceLock.writeLock().unlock();
+        }
+    }
+}
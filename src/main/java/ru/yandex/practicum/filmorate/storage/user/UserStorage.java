@@ -1,17 +1,39 @@
 package ru.yandex.practicum.filmorate.storage.user;
 
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
 import ru.yandex.practicum.filmorate.models.User;
 
 import java.util.Collection;
+import java.util.Objects;
 
 public interface UserStorage {
     public Collection<User> list();
 
     public User get(int userId);
 
+    public default User getOrThrow(int userId) {
+        User user = get(userId);
+        if (user == null) {
+            throw new NotFoundException("Пользователь с id: " + userId + " не найден.");
+        }
+        return user;
+    }
+
     public User create(User user);
 
     public User update(User user);
 
     public boolean notExists(int userId);
+
+    public void addFriend(int userId, int friendId);
+
+    public void removeFriend(int userId, int friendId);
+
+    public default Collection<User> getAll(Collection<Integer> userIds) {
+        return userIds.stream().map(this::get).filter(Objects::nonNull).toList();
+    }
+
+    public default Collection<User> getFriends(int userId) {
+        return getAll(get(userId).getFriends());
+    }
 }
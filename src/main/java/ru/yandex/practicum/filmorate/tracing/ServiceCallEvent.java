@@ -0,0 +1,34 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Вызов метода {@code FilmService} или {@code UserService} в записи JFR. По умолчанию пишутся вызовы
+ * от 1 мс; порог меняется настройкой {@code ru.yandex.practicum.filmorate.ServiceCall#threshold}.
+ */
+@Name("ru.yandex.practicum.filmorate.ServiceCall")
+@Label("Service Call")
+@Category("Filmorate")
+@Description("Вызов метода сервиса фильмов или пользователей")
+@StackTrace(false)
+@Threshold("1 ms")
+final class ServiceCallEvent extends Event {
+    static final EventType TYPE = EventType.getEventType(ServiceCallEvent.class);
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Entity Id")
+    int entityId;
+
+    @Label("Trace Id")
+    @Description("Id запроса в /internal/traces/slow, 0 вне запроса")
+    long traceId;
+}
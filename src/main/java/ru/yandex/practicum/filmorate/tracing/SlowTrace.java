@@ -0,0 +1,28 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Сохранённый медленный запрос. Спаны идут в порядке начала; {@code depth} — вложенность,
+ * у корневого спана контроллера она равна нулю.
+ *
+ * @param droppedSpans сколько спанов не поместилось в {@code filmorate.tracing.max-spans}
+ */
+public record SlowTrace(
+        long id,
+        String method,
+        String route,
+        int status,
+        Instant start,
+        long durationMicros,
+        List<Span> spans,
+        int droppedSpans
+) {
+    /**
+     * @param entityId    id фильма или пользователя, если операция относится к одному, иначе 0
+     * @param startMicros смещение от начала запроса
+     */
+    public record Span(String name, int depth, int entityId, long startMicros, long durationMicros) {
+    }
+}
@@ -0,0 +1,138 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Спаны текущего запроса одного потока. Объект живёт столько же, сколько поток, и переиспользуется
+ * между запросами: открытие и закрытие спана пишут в заранее выделенные массивы, поэтому быстрые
+ * запросы, которые потом отбрасываются, ничего не выделяют. Открытые спаны образуют стек, и
+ * {@link #close()} закрывает верхний — это и есть {@link Tracer.Scope} для try-with-resources.
+ */
+final class Trace implements Tracer.Scope {
+    static final int MAX_DEPTH = 32;
+
+    private final String[] names;
+    private final int[] entityIds;
+    private final int[] depths;
+    private final long[] starts;
+    private final long[] ends;
+    private final int[] stack = new int[MAX_DEPTH];
+    private final ServiceCallEvent[] events = new ServiceCallEvent[MAX_DEPTH];
+    private int depth;
+    private int count;
+    private int dropped;
+    private boolean active;
+    private long id;
+    private String method;
+
+    Trace(int maxSpans) {
+        this.names = new String[maxSpans];
+        this.entityIds = new int[maxSpans];
+        this.depths = new int[maxSpans];
+        this.starts = new long[maxSpans];
+        this.ends = new long[maxSpans];
+    }
+
+    boolean isActive() {
+        return active;
+    }
+
+    long id() {
+        return active ? id : 0;
+    }
+
+    void begin(long traceId, String method, String route) {
+        this.id = traceId;
+        this.method = method;
+        this.active = true;
+        depth = 0;
+        count = 0;
+        dropped = 0;
+        push(route, 0, false);
+    }
+
+    /**
+     * Открывает спан, если идёт запрос, и событие JFR, если {@code event}.
+     *
+     * @return {@code false}, если стек переполнен и спан не открыт
+     */
+    boolean push(String name, int entityId, boolean event) {
+        if (depth == MAX_DEPTH) {
+            return false;
+        }
+        int index = -1;
+        if (active) {
+            if (count < names.length) {
+                index = count++;
+                names[index] = name;
+                entityIds[index] = entityId;
+                depths[index] = depth;
+                starts[index] = System.nanoTime();
+            } else {
+                dropped++;
+            }
+        }
+        if (event) {
+            ServiceCallEvent callEvent = new ServiceCallEvent();
+            callEvent.operation = name;
+            callEvent.entityId = entityId;
+            callEvent.traceId = id();
+            callEvent.begin();
+            events[depth] = callEvent;
+        }
+        stack[depth++] = index;
+        return true;
+    }
+
+    @Override
+    public void close() {
+        int index = stack[--depth];
+        if (index >= 0) {
+            ends[index] = System.nanoTime();
+        }
+        ServiceCallEvent event = events[depth];
+        if (event != null) {
+            events[depth] = null;
+            event.end();
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Закрывает незакрытые спаны и завершает запрос.
+     *
+     * @return длительность запроса в наносекундах
+     */
+    long finish() {
+        while (depth > 0) {
+            close();
+        }
+        active = false;
+        return ends[0] - starts[0];
+    }
+
+    /**
+     * Копирует спаны завершённого запроса; вызывается только для запросов, которые сохраняются.
+     */
+    SlowTrace snapshot(int status) {
+        List<SlowTrace.Span> spans = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            spans.add(new SlowTrace.Span(names[i], depths[i], entityIds[i], (starts[i] - starts[0]) / 1_000,
+                    (ends[i] - starts[i]) / 1_000));
+        }
+        Instant start = Instant.now().minusNanos(System.nanoTime() - starts[0]);
+        return new SlowTrace(id, method, names[0], status, start, (ends[0] - starts[0]) / 1_000,
+                List.copyOf(spans), dropped);
+    }
+
+    /**
+     * Прерывает запрос без сохранения, например когда обработка ушла в асинхронный поток.
+     */
+    void discard() {
+        finish();
+    }
+}
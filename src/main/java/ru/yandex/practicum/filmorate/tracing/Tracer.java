@@ -0,0 +1,132 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.events.EventRingBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Лёгкая трассировка запросов с выборкой по хвосту: {@code TracingInterceptor} открывает корневой спан
+ * запроса, сервисы и хранилища — вложенные спаны, а после ответа запрос сохраняется, только если он
+ * длился не меньше {@code filmorate.tracing.slow-threshold}. Спаны пишутся в массивы потока
+ * ({@link Trace}), так что быстрый запрос обходится несколькими вызовами {@link System#nanoTime()}.
+ * Вне запроса, например в потоке асинхронной записи лайков, {@link #span} ничего не делает.
+ * <p>
+ * {@link #service} дополнительно пишет событие JFR {@link ServiceCallEvent}, если идёт запись JFR
+ * и событие включено, — в том числе вне запроса.
+ */
+@Component
+public class Tracer {
+    private static final Scope NOOP = () -> {
+    };
+
+    private final boolean enabled;
+    private final long slowThresholdNanos;
+    private final ThreadLocal<Trace> current;
+    private final EventRingBuffer<SlowTrace> slowTraces;
+    private final Counter slowRequests;
+
+    public Tracer(TracingProperties properties, MeterRegistry registry) {
+        this.enabled = properties.enabled();
+        this.slowThresholdNanos = properties.slowThreshold().toNanos();
+        int maxSpans = Math.max(1, properties.maxSpans());
+        this.current = ThreadLocal.withInitial(() -> new Trace(maxSpans));
+        this.slowTraces = new EventRingBuffer<>(properties.retainedTraces());
+        this.slowRequests = registry.counter("filmorate.tracing.slow");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Открывает спан хранилища или другой внутренней операции.
+     */
+    public Scope span(String name, int entityId) {
+        Trace trace = current.get();
+        if (!trace.isActive()) {
+            return NOOP;
+        }
+        return trace.push(name, entityId, false) ? trace : NOOP;
+    }
+
+    /**
+     * Открывает спан метода сервиса и событие JFR.
+     */
+    public Scope service(String name, int entityId) {
+        Trace trace = current.get();
+        boolean event = ServiceCallEvent.TYPE.isEnabled();
+        if (!trace.isActive() && !event) {
+            return NOOP;
+        }
+        return trace.push(name, entityId, event) ? trace : NOOP;
+    }
+
+    /**
+     * Начинает запрос в текущем потоке; незавершённый предыдущий запрос потока отбрасывается.
+     *
+     * @param route шаблон маршрута, он же имя корневого спана
+     */
+    public void begin(String method, String route) {
+        if (enabled) {
+            current.get().begin(ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE), method, route);
+        }
+    }
+
+    /**
+     * Завершает запрос текущего потока и сохраняет его, если он медленный.
+     *
+     * @return сохранённый запрос или {@code null}
+     */
+    public SlowTrace finish(int status) {
+        Trace trace = current.get();
+        if (!trace.isActive()) {
+            return null;
+        }
+        if (trace.finish() < slowThresholdNanos) {
+            return null;
+        }
+        SlowTrace slow = trace.snapshot(status);
+        slowTraces.publish(sequence -> slow);
+        slowRequests.increment();
+        return slow;
+    }
+
+    /**
+     * Прерывает запрос текущего потока без сохранения.
+     */
+    public void discard() {
+        Trace trace = current.get();
+        if (trace.isActive()) {
+            trace.discard();
+        }
+    }
+
+    /**
+     * Последние медленные запросы, новые первыми.
+     */
+    public List<SlowTrace> getSlowTraces(int limit) {
+        List<SlowTrace> traces = new ArrayList<>();
+        long oldest = slowTraces.oldestSequence();
+        for (long sequence = slowTraces.nextSequence() - 1; sequence >= oldest && traces.size() < limit;
+             sequence--) {
+            SlowTrace trace = slowTraces.get(sequence);
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+
+    /**
+     * Открытый спан; закрывается в try-with-resources.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
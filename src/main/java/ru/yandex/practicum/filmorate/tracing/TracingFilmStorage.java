@@ -0,0 +1,87 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.util.Collection;
+
+/**
+ * Спаны вызовов хранилища фильмов. Оборачивает хранилище внутри {@code FilmService}, а не бин,
+ * поэтому внедрение конкретных реализаций хранилища не меняется.
+ */
+public class TracingFilmStorage implements FilmStorage {
+    private final FilmStorage delegate;
+    private final Tracer tracer;
+
+    private TracingFilmStorage(FilmStorage delegate, Tracer tracer) {
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    public static FilmStorage wrap(FilmStorage storage, Tracer tracer) {
+        return tracer.isEnabled() ? new TracingFilmStorage(storage, tracer) : storage;
+    }
+
+    @Override
+    public Collection<Film> list() {
+        try (Tracer.Scope scope = tracer.span("FilmStorage.list", 0)) {
+            return delegate.list();
+        }
+    }
+
+    @Override
+    public Film get(int filmId) {
+        try (Tracer.Scope scope = tracer.span("FilmStorage.get", filmId)) {
+            return delegate.get(filmId);
+        }
+    }
+
+    @Override
+    public Film create(Film film) {
+        try (Tracer.Scope scope = tracer.span("FilmStorage.create", 0)) {
+            return delegate.create(film);
+        }
+    }
+
+    @Override
+    public Film update(Film film) {
+        try (Tracer.Scope scope = tracer.span("FilmStorage.update", film.getId())) {
+            return delegate.update(film);
+        }
+    }
+
+    @Override
+    public boolean notExists(int filmId) {
+        try (Tracer.Scope scope = tracer.span("FilmStorage.notExists", filmId)) {
+            return delegate.notExists(filmId);
+        }
+    }
+
+    @Override
+    public void addLike(int filmId, int userId) {
+        try (Tracer.Scope scope = tracer.span("FilmStorage.addLike", filmId)) {
+            delegate.addLike(filmId, userId);
+        }
+    }
+
+    @Override
+    public void removeLike(int filmId, int userId) {
+        try (Tracer.Scope scope = tracer.span("FilmStorage.removeLike", filmId)) {
+            delegate.removeLike(filmId, userId);
+        }
+    }
+
+    @Override
+    public void applyLikes(int filmId, Collection<Integer> added, Collection<Integer> removed) {
+        try (Tracer.Scope scope = tracer.span("FilmStorage.applyLikes", filmId)) {
+            delegate.applyLikes(filmId, added, removed);
+        }
+    }
+
+    @Override
+    public Collection<Film> getPopular(int count) {
+        try (Tracer.Scope scope = tracer.span("FilmStorage.getPopular", 0)) {
+            return delegate.getPopular(count);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Корневой спан запроса: от входа в обработчик контроллера до конца записи ответа. Спан называется
+ * шаблоном маршрута, например {@code /films/{filmId}}, поэтому на запрос не строится ни одной строки.
+ * Перехватчик стоит первым, чтобы в спан попадало и время других перехватчиков. Потоковые ответы
+ * ({@code /events}) не трассируются: обработка уходит в другой поток.
+ */
+@Component
+@ConditionalOnProperty(prefix = "filmorate.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TracingInterceptor implements AsyncHandlerInterceptor, WebMvcConfigurer {
+    private final Tracer tracer;
+
+    public TracingInterceptor(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        tracer.begin(request.getMethod(), pattern != null ? pattern.toString() : request.getRequestURI());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        tracer.finish(response.getStatus());
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        tracer.discard();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this)
+                .excludePathPatterns("/internal/**", "/actuator/**")
+                .order(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
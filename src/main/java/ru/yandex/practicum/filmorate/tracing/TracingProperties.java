@@ -0,0 +1,21 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled        записывать ли спаны запросов; события JFR от сервисов пишутся независимо от этого
+ * @param slowThreshold  запросы не короче этого времени сохраняются целиком, остальные отбрасываются
+ * @param maxSpans       сколько спанов хранится на запрос; лишние только подсчитываются
+ * @param retainedTraces сколько последних медленных запросов хранить, степень двойки
+ */
+@ConfigurationProperties(prefix = "filmorate.tracing")
+public record TracingProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100ms") Duration slowThreshold,
+        @DefaultValue("128") int maxSpans,
+        @DefaultValue("128") int retainedTraces
+) {
+}
@@ -0,0 +1,86 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.Collection;
+
+/**
+ * Спаны вызовов хранилища пользователей; см. {@link TracingFilmStorage}.
+ */
+public class TracingUserStorage implements UserStorage {
+    private final UserStorage delegate;
+    private final Tracer tracer;
+
+    private TracingUserStorage(UserStorage delegate, Tracer tracer) {
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    public static UserStorage wrap(UserStorage storage, Tracer tracer) {
+        return tracer.isEnabled() ? new TracingUserStorage(storage, tracer) : storage;
+    }
+
+    @Override
+    public Collection<User> list() {
+        try (Tracer.Scope scope = tracer.span("UserStorage.list", 0)) {
+            return delegate.list();
+        }
+    }
+
+    @Override
+    public User get(int userId) {
+        try (Tracer.Scope scope = tracer.span("UserStorage.get", userId)) {
+            return delegate.get(userId);
+        }
+    }
+
+    @Override
+    public User create(User user) {
+        try (Tracer.Scope scope = tracer.span("UserStorage.create", 0)) {
+            return delegate.create(user);
+        }
+    }
+
+    @Override
+    public User update(User user) {
+        try (Tracer.Scope scope = tracer.span("UserStorage.update", user.getId())) {
+            return delegate.update(user);
+        }
+    }
+
+    @Override
+    public boolean notExists(int userId) {
+        try (Tracer.Scope scope = tracer.span("UserStorage.notExists", userId)) {
+            return delegate.notExists(userId);
+        }
+    }
+
+    @Override
+    public void addFriend(int userId, int friendId) {
+        try (Tracer.Scope scope = tracer.span("UserStorage.addFriend", userId)) {
+            delegate.addFriend(userId, friendId);
+        }
+    }
+
+    @Override
+    public void removeFriend(int userId, int friendId) {
+        try (Tracer.Scope scope = tracer.span("UserStorage.removeFriend", userId)) {
+            delegate.removeFriend(userId, friendId);
+        }
+    }
+
+    @Override
+    public Collection<User> getAll(Collection<Integer> userIds) {
+        try (Tracer.Scope scope = tracer.span("UserStorage.getAll", 0)) {
+            return delegate.getAll(userIds);
+        }
+    }
+
+    @Override
+    public Collection<User> getFriends(int userId) {
+        try (Tracer.Scope scope = tracer.span("UserStorage.getFriends", userId)) {
+            return delegate.getFriends(userId);
+        }
+    }
+}
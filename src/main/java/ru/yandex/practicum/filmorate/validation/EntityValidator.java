@@ -0,0 +1,85 @@
+package ru.yandex.practicum.filmorate.validation;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Набор правил, собранный один раз при старте. Проверка корректной сущности проходит по массиву
+ * правил без выделения памяти; сообщения об ошибках строятся только для нарушенных правил.
+ */
+@Slf4j
+public final class EntityValidator<T> {
+    private final String entityName;
+    private final Rule<T>[] rules;
+
+    private EntityValidator(String entityName, Rule<T>[] rules) {
+        this.entityName = entityName;
+        this.rules = rules;
+    }
+
+    public static <T> Builder<T> builder(String entityName) {
+        return new Builder<>(entityName);
+    }
+
+    public void validate(T value) {
+        List<String> violations = violations(value);
+        if (!violations.isEmpty()) {
+            log.error("Ошибка валидации {}: {}", entityName, violations);
+            throw new ValidationException(violations);
+        }
+    }
+
+    public List<String> violations(T value) {
+        int first = firstViolation(value);
+        if (first < 0) {
+            return List.of();
+        }
+        List<String> violations = new ArrayList<>(rules.length - first);
+        for (int i = first; i < rules.length; i++) {
+            if (!rules[i].condition.test(value)) {
+                violations.add(rules[i].message.apply(value));
+            }
+        }
+        return violations;
+    }
+
+    private int firstViolation(T value) {
+        for (int i = 0; i < rules.length; i++) {
+            if (!rules[i].condition.test(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private record Rule<T>(Predicate<T> condition, Function<T, String> message) {
+    }
+
+    public static final class Builder<T> {
+        private final String entityName;
+        private final List<Rule<T>> rules = new ArrayList<>();
+
+        private Builder(String entityName) {
+            this.entityName = entityName;
+        }
+
+        public Builder<T> require(Predicate<T> condition, String message) {
+            return require(condition, value -> message);
+        }
+
+        public Builder<T> require(Predicate<T> condition, Function<T, String> message) {
+            rules.add(new Rule<>(condition, message));
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public EntityValidator<T> build() {
+            return new EntityValidator<>(entityName, rules.toArray(new Rule[0]));
+        }
+    }
+}
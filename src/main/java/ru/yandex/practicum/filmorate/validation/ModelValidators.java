@@ -0,0 +1,85 @@
+package ru.yandex.practicum.filmorate.validation;
+
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.ZoneId;
+
+/**
+ * Правила валидации фильмов и пользователей, общие для всех точек входа.
+ */
+public final class ModelValidators {
+    public static final int MAX_DESCRIPTION_LENGTH = 200;
+    public static final LocalDate START_FILM_DATE = LocalDate.of(1895, Month.DECEMBER, 28);
+
+    public static final EntityValidator<Film> FILM = EntityValidator.<Film>builder("фильма")
+            .require(film -> isPresent(film.getName()), "Название не может быть пустым")
+            .require(film -> film.getDescription() == null || film.getDescription().length() <= MAX_DESCRIPTION_LENGTH,
+                    String.format("Описание не может быть длиннее %d символов", MAX_DESCRIPTION_LENGTH))
+            .require(film -> film.getReleaseDate() != null, "Дата релиза должна быть указана")
+            .require(film -> film.getReleaseDate() == null || !film.getReleaseDate().isBefore(START_FILM_DATE),
+                    String.format("Дата релиза не может быть раньше %s", START_FILM_DATE))
+            .require(film -> film.getDuration() != null, "Продолжительность фильма должна быть указана")
+            .require(film -> film.getDuration() == null || !film.getDuration().isNegative(),
+                    "Продолжительность фильма не может быть отрицательной")
+            .build();
+
+    public static final EntityValidator<User> USER = EntityValidator.<User>builder("пользователя")
+            .require(user -> isPresent(user.getEmail()), "Электронная почта не может быть пустой")
+            .require(user -> !isPresent(user.getEmail()) || user.getEmail().indexOf('@') >= 0,
+                    "Электронная почта должна содержать символ @")
+            .require(user -> isPresent(user.getLogin()), "Логин не может быть пустым")
+            .require(user -> !isPresent(user.getLogin()) || !containsWhitespace(user.getLogin()),
+                    "Логин не должен содержать пробелы")
+            .require(user -> user.getBirthday() == null || !user.getBirthday().isAfter(Today.get()),
+                    user -> "День рождения не может быть больше " + Today.get())
+            .build();
+
+    private ModelValidators() {
+    }
+
+    public static boolean isPresent(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    public static boolean containsWhitespace(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (Character.isWhitespace(str.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Текущая дата, пересчитываемая только при смене суток: {@code LocalDate.now()} выделяет память на каждом вызове.
+     */
+    private static final class Today {
+        private static volatile Day current = Day.today();
+
+        static LocalDate get() {
+            Day day = current;
+            long now = System.currentTimeMillis();
+            if (now >= day.startMillis && now < day.endMillis) {
+                return day.date;
+            }
+            day = Day.today();
+            current = day;
+            return day.date;
+        }
+
+        private record Day(LocalDate date, long startMillis, long endMillis) {
+            static Day today() {
+                ZoneId zone = ZoneId.systemDefault();
+                LocalDate date = LocalDate.now(zone);
+                return new Day(
+                        date,
+                        date.atStartOfDay(zone).toInstant().toEpochMilli(),
+                        date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli()
+                );
+            }
+        }
+    }
+}
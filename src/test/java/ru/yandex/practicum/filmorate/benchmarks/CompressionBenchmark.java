@@ -0,0 +1,93 @@
+package ru.yandex.practicum.filmorate.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.yandex.practicum.filmorate.models.Film;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Процессорное время на ответ {@code /films/popular} без сжатия, со сжатием на каждый запрос
+ * и из кэша уже сжатых байт. Размеры тел печатаются при подготовке.
+ * {@code mvn -Pbenchmarks -DskipTests test -Dbenchmark.args=Compression}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+    @Param({"10", "100"})
+    private int count;
+
+    @Param({"0", "1000"})
+    private int likesPerFilm;
+
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private List<Film> popular;
+    private byte[] precompressed;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        popular = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Film film = new Film();
+            film.setId(i);
+            film.setName("Film " + i);
+            film.setDescription("Description of film " + i + " with a plot summary of a typical length");
+            film.setReleaseDate(LocalDate.of(1990 + i % 30, 1 + i % 12, 1 + i % 28));
+            film.setDuration(Duration.ofMinutes(80 + i % 60));
+            Set<Integer> likes = new HashSet<>();
+            while (likes.size() < likesPerFilm) {
+                likes.add(1 + random.nextInt(1_000_000));
+            }
+            film.setLikes(likes);
+            popular.add(film);
+        }
+        byte[] json = mapper.writeValueAsBytes(popular);
+        precompressed = gzip(json);
+        System.out.printf("%nфильмов=%d, лайков на фильм=%d: JSON %d байт, gzip %d байт (%.1f%%)%n",
+                count, likesPerFilm, json.length, precompressed.length, 100.0 * precompressed.length / json.length);
+    }
+
+    @Benchmark
+    public byte[] uncompressed() throws IOException {
+        return mapper.writeValueAsBytes(popular);
+    }
+
+    @Benchmark
+    public byte[] gzipPerRequest() throws IOException {
+        return gzip(mapper.writeValueAsBytes(popular));
+    }
+
+    @Benchmark
+    public void precompressed(Blackhole blackhole) {
+        blackhole.consume(precompressed);
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,68 @@
+package ru.yandex.practicum.filmorate.benchmarks;
+
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.service.graph.FriendGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Построение снимка графа дружбы и время запросов расстояния.
+ * <p>
+ * {@code mvn -Pbenchmarks -DskipTests test
+ * -Dbenchmark.main=ru.yandex.practicum.filmorate.benchmarks.FriendGraphBenchmark
+ * -Dbenchmark.args="1000000 10"}
+ * <p>
+ * Аргументы — число пользователей и среднее число друзей; граф случайный, с числом дружб
+ * {@code users * friends / 2}. Печатаются время построения снимка (включая компоненты), число компонент
+ * и медиана, 99-й процентиль и максимум времени запроса расстояния между случайными пользователями.
+ */
+public class FriendGraphBenchmark {
+    private static final int QUERIES = 2_000;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int friends = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        Random random = new Random(42);
+        List<User> users = new ArrayList<>(size);
+        for (int id = 1; id <= size; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setFriends(new HashSet<>());
+            users.add(user);
+        }
+        long pairs = (long) size * friends / 2;
+        for (long i = 0; i < pairs; i++) {
+            int left = random.nextInt(size);
+            int right = random.nextInt(size);
+            if (left != right) {
+                users.get(left).getFriends().add(right + 1);
+                users.get(right).getFriends().add(left + 1);
+            }
+        }
+
+        long start = System.nanoTime();
+        FriendGraph graph = FriendGraph.of(users);
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("Пользователей: %d, дружб: %d, компонент: %d, построение: %d мс%n",
+                graph.users(), graph.friendships(), graph.componentCount(), buildMillis);
+
+        for (int i = 0; i < QUERIES; i++) {
+            graph.distance(1 + random.nextInt(size), 1 + random.nextInt(size));
+        }
+        long[] micros = new long[QUERIES];
+        long totalDistance = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            long queryStart = System.nanoTime();
+            totalDistance += graph.distance(1 + random.nextInt(size), 1 + random.nextInt(size));
+            micros[i] = (System.nanoTime() - queryStart) / 1_000;
+        }
+        Arrays.sort(micros);
+        System.out.printf("Расстояние: p50 %d мкс, p99 %d мкс, max %d мкс, среднее расстояние %.2f%n",
+                micros[QUERIES / 2], micros[QUERIES * 99 / 100], micros[QUERIES - 1],
+                (double) totalDistance / QUERIES);
+    }
+}
@@ -0,0 +1,159 @@
+package ru.yandex.practicum.filmorate.benchmarks;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.catalog.CatalogFile;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Время до первого ответа {@code GET /films/{id}} при запуске с каталогом в памяти
+ * и при загрузке того же каталога через сервисы.
+ * <p>
+ * {@code mvn -Pbenchmarks -DskipTests test
+ * -Dbenchmark.main=ru.yandex.practicum.filmorate.benchmarks.MappedCatalogStartupBenchmark
+ * -Dbenchmark.args="mapped 1000000"}
+ * <p>
+ * Первый аргумент — {@code mapped}, {@code preload} или {@code both}, дальше размеры каталога
+ * в фильмах (пользователей вдвое меньше, у каждого 10 друзей). Запуски в одной JVM ускоряют
+ * друг друга прогревом, поэтому для сравнения режимы лучше запускать по отдельности.
+ */
+public class MappedCatalogStartupBenchmark {
+    private static final int FRIENDS = 10;
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "both";
+        List<Integer> sizes = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            sizes.add(Integer.parseInt(args[i]));
+        }
+        if (sizes.isEmpty()) {
+            sizes = List.of(10_000, 100_000, 1_000_000);
+        }
+        System.out.printf("%-8s %-10s %-12s %-20s%n", "mode", "films", "file, МБ", "firstResponse, мс");
+        for (int films : sizes) {
+            Path catalog = Files.createTempFile("filmorate-catalog", ".bin");
+            try {
+                CatalogFile.write(catalog, films(films), users(films / 2));
+                long fileSize = Files.size(catalog);
+                if (!mode.equals("preload")) {
+                    System.out.printf("%-8s %-10d %-12d %-20d%n", "mapped", films, fileSize >> 20,
+                            startMapped(catalog, films));
+                }
+                if (!mode.equals("mapped")) {
+                    System.out.printf("%-8s %-10d %-12d %-20d%n", "preload", films, fileSize >> 20,
+                            startPreloaded(films));
+                }
+            } finally {
+                Files.delete(catalog);
+            }
+        }
+    }
+
+    private static long startMapped(Path catalog, int films) throws Exception {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = start("--filmorate.storage.mode=mapped",
+                "--filmorate.storage.mapped.path=" + catalog)) {
+            firstRequest(context, films / 2);
+            return (System.nanoTime() - start) / 1_000_000;
+        }
+    }
+
+    private static long startPreloaded(int films) throws Exception {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = start("--filmorate.storage.mode=in-memory")) {
+            FilmService filmService = context.getBean(FilmService.class);
+            UserService userService = context.getBean(UserService.class);
+            for (Film film : films(films)) {
+                film.setId(null);
+                filmService.add(film);
+            }
+            List<User> users = users(films / 2);
+            for (User user : users) {
+                User created = user.copy();
+                created.setId(null);
+                created.setFriends(new HashSet<>());
+                userService.add(created);
+            }
+            for (User user : users) {
+                for (int friendId : user.getFriends()) {
+                    if (friendId > user.getId()) {
+                        userService.addFriend(user.getId(), friendId);
+                    }
+                }
+            }
+            firstRequest(context, films / 2);
+            return (System.nanoTime() - start) / 1_000_000;
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String... args) {
+        List<String> all = new ArrayList<>(List.of(args));
+        all.addAll(List.of("--server.port=0", "--spring.main.banner-mode=off", "--logging.level.root=WARN",
+                "--logging.level.org.zalando.logbook=WARN"));
+        return new SpringApplicationBuilder(FilmorateApplication.class).run(all.toArray(String[]::new));
+    }
+
+    private static void firstRequest(ConfigurableApplicationContext context, int filmId)
+            throws IOException, InterruptedException {
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/films/" + filmId)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Неожиданный ответ: " + response.statusCode());
+        }
+    }
+
+    private static List<Film> films(int count) {
+        List<Film> films = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            Film film = new Film();
+            film.setId(id);
+            film.setName("Фильм " + id);
+            film.setDescription("Описание фильма номер " + id);
+            film.setReleaseDate(LocalDate.of(1950, 1, 1).plusDays(id % 25_000));
+            film.setDuration(Duration.ofMinutes(60 + id % 120));
+            films.add(film);
+        }
+        return films;
+    }
+
+    private static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setEmail("user" + id + "@example.com");
+            user.setLogin("user" + id);
+            user.setName("Пользователь " + id);
+            user.setBirthday(LocalDate.of(1970, 1, 1).plusDays(id % 15_000));
+            Set<Integer> friends = new HashSet<>();
+            for (int step = 1; step <= FRIENDS / 2; step++) {
+                friends.add(1 + Math.floorMod(id - 1 + step, count));
+                friends.add(1 + Math.floorMod(id - 1 - step, count));
+            }
+            user.setFriends(friends);
+            users.add(user);
+        }
+        return users;
+    }
+}
@@ -0,0 +1,125 @@
+package ru.yandex.practicum.filmorate.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.util.unit.DataSize;
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.storage.offheap.OffHeapProperties;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.OffHeapUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Занятая куча и паузы сборщика для пользователей в куче и вне её.
+ * <p>
+ * {@code mvn -Pbenchmarks -DskipTests test
+ * -Dbenchmark.main=ru.yandex.practicum.filmorate.benchmarks.OffHeapStorageBenchmark
+ * -Dbenchmark.args="in-memory 200000 20"}
+ * <p>
+ * Режимы {@code in-memory} и {@code off-heap} лучше запускать в отдельных JVM; без аргументов
+ * оба режима выполняются по очереди. Для каждого режима печатается занятая куча после полной
+ * сборки, объём памяти вне кучи, длительность полной сборки с живыми данными и паузы сборщика и худшее время пачки из 1000 чтений,
+ * пока приложение создаёт короткоживущий мусор и читает друзей случайных пользователей.
+ */
+public class OffHeapStorageBenchmark {
+    private static final long CHURN_NANOS = 10_000_000_000L;
+
+    public static void main(String[] args) {
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int friends = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        String[] modes = args.length > 0 ? new String[]{args[0]} : new String[]{"in-memory", "off-heap"};
+        System.out.printf("Пользователей: %d, друзей у каждого: %d, куча: %d МБ%n",
+                users, friends, Runtime.getRuntime().maxMemory() >> 20);
+        System.out.printf("%-10s %-10s %-12s %-12s %-12s %-10s %-14s %-14s%n",
+                "mode", "heap, МБ", "offheap, МБ", "fullGc, мс", "reads/s", "gcCount", "gcTotal, мс", "maxBatch, мс");
+        for (String mode : modes) {
+            run(mode, users, friends);
+        }
+    }
+
+    private static void run(String mode, int users, int friends) {
+        fullGc();
+        long baseline = usedHeap();
+        UserStorage storage = mode.equals("off-heap")
+                ? new OffHeapUserStorage(new OffHeapProperties(DataSize.ofMegabytes(64)), new SimpleMeterRegistry())
+                : new InMemoryUserStorage();
+        for (int id = 1; id <= users; id++) {
+            storage.create(user(id, users, friends));
+        }
+        long offHeap = storage instanceof OffHeapUserStorage
+                ? ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed).sum()
+                : 0;
+        long fullGcStart = System.nanoTime();
+        fullGc();
+        long fullGcMillis = (System.nanoTime() - fullGcStart) / 1_000_000;
+        long heap = usedHeap() - baseline;
+
+        long[] before = gcStats();
+        long maxPause = 0;
+        long reads = 0;
+        long blackhole = 0;
+        long deadline = System.nanoTime() + CHURN_NANOS;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 1000; i++) {
+                int id = 1 + ThreadLocalRandom.current().nextInt(users);
+                blackhole += storage.getFriends(id).size();
+                blackhole += new byte[256].length;
+            }
+            maxPause = Math.max(maxPause, System.nanoTime() - start);
+            reads += 1000;
+        }
+        long[] after = gcStats();
+        System.out.printf("%-10s %-10d %-12d %-12d %-12d %-10d %-14d %-14d%n",
+                mode, heap >> 20, offHeap >> 20, fullGcMillis, reads * 1_000_000_000L / CHURN_NANOS,
+                after[0] - before[0], after[1] - before[1],
+                maxPause / 1_000_000);
+        if (blackhole == 42) {
+            System.out.println();
+        }
+    }
+
+    private static User user(int id, int users, int friends) {
+        User user = new User();
+        user.setEmail("user" + id + "@example.com");
+        user.setLogin("user" + id);
+        user.setName("Пользователь " + id);
+        user.setBirthday(LocalDate.of(1970, 1, 1).plusDays(id % 15_000));
+        Set<Integer> links = new HashSet<>();
+        for (int step = 1; step <= friends / 2; step++) {
+            links.add(1 + Math.floorMod(id - 1 + step, users));
+            links.add(1 + Math.floorMod(id - 1 - step, users));
+        }
+        user.setFriends(links);
+        return user;
+    }
+
+    private static long[] gcStats() {
+        long count = 0;
+        long time = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += collector.getCollectionCount();
+            time += collector.getCollectionTime();
+        }
+        return new long[]{count, time};
+    }
+
+    private static void fullGc() {
+        System.gc();
+        System.gc();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
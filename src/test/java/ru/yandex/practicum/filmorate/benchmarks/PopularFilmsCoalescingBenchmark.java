@@ -0,0 +1,85 @@
+package ru.yandex.practicum.filmorate.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.service.cache.CoalescingCache;
+import ru.yandex.practicum.filmorate.service.cache.CoalescingCacheProperties;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Нагрузочный тест рейтинга: N потоков одновременно запрашивают {@code getPopular(10)} без объединения
+ * и через {@link CoalescingCache}. Печатает пропускную способность и процессорное время на запрос —
+ * с объединением оно не растёт с числом потоков, потому что сортировка выполняется одна на всплеск.
+ * {@code mvn -Pbenchmarks -DskipTests test
+ * -Dbenchmark.main=ru.yandex.practicum.filmorate.benchmarks.PopularFilmsCoalescingBenchmark -Dbenchmark.args=}
+ */
+public class PopularFilmsCoalescingBenchmark {
+    private static final int FILMS = 50_000;
+    private static final int USERS = 200;
+    private static final Duration RUN = Duration.ofSeconds(2);
+
+    public static void main(String[] args) throws InterruptedException {
+        InMemoryFilmStorage storage = catalogue();
+        CoalescingCache<Integer, Collection<Film>> cache = new CoalescingCache<>("popular",
+                new CoalescingCacheProperties(true, Duration.ofMillis(50), 1024), new SimpleMeterRegistry());
+
+        System.out.printf("%-12s %-8s %-14s %-14s%n", "режим", "потоков", "запросов/с", "CPU мкс/запрос");
+        for (int threads : new int[]{1, 4, 16, 64, 256}) {
+            run("прямой", threads, storage::getPopular);
+            run("объединение", threads, count -> cache.get(count, () -> storage.getPopular(count)));
+        }
+    }
+
+    private static void run(String mode, int threads, IntFunction<Collection<Film>> query)
+            throws InterruptedException {
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        LongAdder requests = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.nanoTime() + RUN.toNanos();
+        long cpuBefore = os.getProcessCpuTime();
+        for (int i = 0; i < threads; i++) {
+            Thread.ofPlatform().start(() -> {
+                while (System.nanoTime() < deadline) {
+                    if (query.apply(10).isEmpty()) {
+                        throw new IllegalStateException("Пустой рейтинг");
+                    }
+                    requests.increment();
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        long cpu = os.getProcessCpuTime() - cpuBefore;
+        long total = requests.sum();
+        System.out.printf("%-12s %-8d %-14d %-14.2f%n", mode, threads,
+                total * 1000 / RUN.toMillis(), TimeUnit.NANOSECONDS.toMicros(cpu) / (double) total);
+    }
+
+    private static InMemoryFilmStorage catalogue() {
+        InMemoryFilmStorage storage = new InMemoryFilmStorage();
+        Random random = new Random(42);
+        for (int i = 0; i < FILMS; i++) {
+            Film film = new Film();
+            film.setName("Film " + i);
+            film.setDescription("Description");
+            film.setReleaseDate(LocalDate.of(2000, 1, 1));
+            film.setDuration(Duration.ofMinutes(90));
+            int id = storage.create(film).getId();
+            for (int likes = random.nextInt(USERS); likes > 0; likes -= 20) {
+                storage.addLike(id, likes);
+            }
+        }
+        return storage;
+    }
+}
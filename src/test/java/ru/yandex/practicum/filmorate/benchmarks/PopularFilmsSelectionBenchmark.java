@@ -0,0 +1,96 @@
+package ru.yandex.practicum.filmorate.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.storage.ParallelTopByLinks;
+import ru.yandex.practicum.filmorate.storage.SnapshotTable;
+import ru.yandex.practicum.filmorate.storage.TopByLinks;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Отбор популярных фильмов: полная сортировка, последовательная куча и параллельная куча
+ * на пуле из {@code threads} потоков для каталогов разного размера.
+ * <p>
+ * {@code mvn -Pbenchmarks -DskipTests test -Dbenchmark.args=PopularFilmsSelection}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PopularFilmsSelectionBenchmark {
+    private static final int TOP = 10;
+
+    @Param({"10000", "100000", "1000000"})
+    private int films;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private SnapshotTable.Snapshot<Film> snapshot;
+    private ForkJoinPool pool;
+    private ParallelTopByLinks parallel;
+
+    @Setup
+    public void setUp() {
+        SnapshotTable<Film> table = new SnapshotTable<>();
+        Random random = new Random(42);
+        table.write(transaction -> {
+            for (int id = 1; id <= films; id++) {
+                Film film = new Film();
+                film.setId(id);
+                film.setName("Фильм " + id);
+                int likes = (int) (100 / (1 + random.nextInt(100) * random.nextDouble()));
+                Set<Integer> users = new HashSet<>();
+                for (int user = 0; user < likes; user++) {
+                    users.add(user);
+                }
+                film.setLikes(users);
+                transaction.put(id, film);
+            }
+            return null;
+        });
+        snapshot = table.snapshot();
+        pool = new ForkJoinPool(threads);
+        parallel = new ParallelTopByLinks(pool, ParallelTopByLinks.DEFAULT_THRESHOLD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<Film> sort() {
+        return snapshot.values().stream()
+                .sorted(FilmStorage.BY_POPULARITY)
+                .limit(TOP)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int[] sequentialHeap() {
+        TopByLinks top = new TopByLinks(TOP);
+        for (Film film : snapshot.values()) {
+            top.offer(film.getId(), film.getLikesCount());
+        }
+        return top.ids();
+    }
+
+    @Benchmark
+    public int[] parallelHeap() {
+        return parallel.select(snapshot.maxId() + 1, TOP, id -> {
+            Film film = snapshot.get(id);
+            return film == null ? -1 : film.getLikesCount();
+        });
+    }
+}
@@ -0,0 +1,106 @@
+package ru.yandex.practicum.filmorate.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.service.popular.ApproximatePopularFilms;
+import ru.yandex.practicum.filmorate.service.popular.ApproximatePopularityProperties;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Точность и память приблизительного рейтинга против точного.
+ * <p>
+ * Отчёт о точности: {@code mvn -Pbenchmarks -DskipTests test
+ * -Dbenchmark.main=ru.yandex.practicum.filmorate.benchmarks.PopularFilmsSketchBenchmark -Dbenchmark.args=}
+ * <p>
+ * Пропускная способность обновлений: {@code mvn -Pbenchmarks -DskipTests test -Dbenchmark.args=PopularFilmsSketch}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PopularFilmsSketchBenchmark {
+    private static final int FILMS = 1_000_000;
+    private static final int LIKES = 5_000_000;
+    private static final int TOP = 10;
+
+    @Param({"0.001", "0.0001"})
+    private double epsilon;
+
+    private ApproximatePopularFilms popular;
+    private int[] stream;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        popular = new ApproximatePopularFilms(new ApproximatePopularityProperties(true, epsilon, 0.01, 1000));
+        stream = zipfStream(FILMS, 1 << 20, 1.1, 42);
+    }
+
+    @Benchmark
+    public void recordLike() {
+        popular.recordLike(stream[cursor++ & (stream.length - 1)]);
+    }
+
+    public static void main(String[] args) {
+        int[] likes = zipfStream(FILMS, LIKES, 1.1, 7);
+        long[] exact = new long[FILMS + 1];
+        for (int filmId : likes) {
+            exact[filmId]++;
+        }
+        List<Integer> exactTop = exactTop(exact, 100);
+        long exactMemory = (long) FILMS * (Integer.BYTES + 48);
+
+        System.out.printf("Фильмов: %d, лайков: %d, точный индекс: ~%d КБ%n", FILMS, LIKES, exactMemory / 1024);
+        System.out.printf("%-8s %-8s %-6s %-10s %-10s %-10s %-12s%n",
+                "epsilon", "capacity", "top", "recall", "rankError", "errBound", "memory, КБ");
+        for (double eps : new double[]{0.001, 0.0001, 0.00001}) {
+            for (int capacity : new int[]{100, 1000, 10000}) {
+                ApproximatePopularFilms popular = new ApproximatePopularFilms(
+                        new ApproximatePopularityProperties(true, eps, 0.01, capacity));
+                for (int filmId : likes) {
+                    popular.recordLike(filmId);
+                }
+                for (int top : new int[]{TOP, 100}) {
+                    List<Integer> approximateTop = popular.top(top);
+                    Set<Integer> expected = new HashSet<>(exactTop.subList(0, top));
+                    long hits = approximateTop.stream().filter(expected::contains).count();
+                    long maxError = 0;
+                    for (int rank = 0; rank < approximateTop.size(); rank++) {
+                        maxError = Math.max(maxError, Math.abs(exact[exactTop.get(rank)] - exact[approximateTop.get(rank)]));
+                    }
+                    System.out.printf("%-8s %-8d %-6d %-10.3f %-10d %-10d %-12d%n",
+                            eps, capacity, top, (double) hits / top, maxError,
+                            (long) Math.ceil(eps * LIKES), popular.estimatedMemoryBytes() / 1024);
+                }
+            }
+        }
+    }
+
+    private static List<Integer> exactTop(long[] counts, int top) {
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id < counts.length; id++) {
+            ids.add(id);
+        }
+        ids.sort(Comparator.comparingLong((Integer id) -> counts[id]).reversed());
+        return ids.subList(0, top);
+    }
+
+    private static int[] zipfStream(int items, int length, double skew, long seed) {
+        double[] cumulative = new double[items];
+        double sum = 0;
+        for (int i = 0; i < items; i++) {
+            sum += 1 / Math.pow(i + 1, skew);
+            cumulative[i] = sum;
+        }
+        Random random = new Random(seed);
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            result[i] = (index >= 0 ? index : -index - 1) + 1;
+        }
+        return result;
+    }
+}
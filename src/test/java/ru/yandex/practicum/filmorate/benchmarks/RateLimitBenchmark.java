@@ -0,0 +1,75 @@
+package ru.yandex.practicum.filmorate.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.yandex.practicum.filmorate.ratelimit.RateLimitProperties;
+import ru.yandex.practicum.filmorate.ratelimit.RouteLimiter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы ограничений на запрос в пределах лимита: корзина клиента, общая корзина
+ * и предел параллелизма, при одном и нескольких потоках.
+ * {@code mvn -Pbenchmarks -DskipTests test "-Dbenchmark.args=RateLimit -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitBenchmark {
+    private static final double UNLIMITED = 1e9;
+
+    private RouteLimiter buckets;
+    private RouteLimiter full;
+
+    @State(Scope.Thread)
+    public static class Client {
+        String name;
+
+        @Setup
+        public void setUp() {
+            name = "client-" + Thread.currentThread().getId();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        buckets = new RouteLimiter("buckets", route(0), 10_000, registry);
+        full = new RouteLimiter("full", route(1_000_000), 10_000, registry);
+    }
+
+    @Benchmark
+    public void baseline(Client client, Blackhole blackhole) {
+        blackhole.consume(client.name);
+        blackhole.consume(System.nanoTime());
+    }
+
+    @Benchmark
+    public boolean tokenBuckets(Client client) {
+        return buckets.acquire(client.name, System.nanoTime());
+    }
+
+    @Benchmark
+    public void tokenBucketsAndConcurrency(Client client) {
+        long started = System.nanoTime();
+        if (full.acquire(client.name, started)) {
+            full.release(started, System.nanoTime());
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void tokenBucketsAndConcurrencyContended(Client client) {
+        tokenBucketsAndConcurrency(client);
+    }
+
+    private static RateLimitProperties.Route route(int maxConcurrency) {
+        return new RateLimitProperties.Route("PUT", "/films/{filmId}/like/{userId}",
+                UNLIMITED, 1_000, UNLIMITED, 1_000_000, maxConcurrency, 1, Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,177 @@
+package ru.yandex.practicum.filmorate.benchmarks;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Время до первого ответа и резидентная память приложения, запущенного в отдельном процессе
+ * разными способами.
+ * <p>
+ * {@code mvn -Pstartup -DskipTests package}, затем
+ * {@code mvn -Pbenchmarks -DskipTests test
+ * -Dbenchmark.main=ru.yandex.practicum.filmorate.benchmarks.StartupBenchmark
+ * -Dbenchmark.args="5 jar aot cds lazy"}
+ * <p>
+ * Первый аргумент — число запусков каждого способа, дальше способы:
+ * <ul>
+ *     <li>{@code jar} — исполняемый jar Spring Boot, как при обычной сборке;</li>
+ *     <li>{@code aot} — jar с зависимостями в {@code lib/} и кодом, подготовленным Spring AOT;</li>
+ *     <li>{@code cds} — то же с архивом общих классов {@code .jsa}, записанным при сборке;</li>
+ *     <li>{@code lazy} — то же с ленивым созданием бинов (профиль {@code startup});</li>
+ *     <li>{@code native} — исполняемый файл из {@code mvn -Pnative native:compile}.</li>
+ * </ul>
+ * Для каждого запуска измеряется время от старта процесса до ответа 200 на {@code GET /films}
+ * и {@code VmRSS} процесса сразу после ответа (только Linux); печатаются медианы.
+ * Процессы запускаются из {@code target} с тем же путём к jar, что и при записи архива: иначе JVM
+ * отвергает архив CDS. Другой каталог сборки задаётся {@code -Dstartup.target}.
+ */
+public class StartupBenchmark {
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        List<String> variants = args.length > 1
+                ? Arrays.asList(args).subList(1, args.length)
+                : List.of("jar", "aot", "cds", "lazy");
+        Path target = Path.of(System.getProperty("startup.target", "target"));
+        System.out.printf("%-8s %-6s %-20s %-10s%n", "variant", "runs", "firstResponse, мс", "rss, МБ");
+        for (String variant : variants) {
+            List<String> command = command(variant, target);
+            long[] times = new long[runs];
+            long[] rss = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                long[] result = launch(command, target);
+                times[run] = result[0];
+                rss[run] = result[1];
+            }
+            System.out.printf("%-8s %-6d %-20d %-10d%n", variant, runs, median(times), median(rss) >> 10);
+        }
+    }
+
+    private static List<String> command(String variant, Path target) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return switch (variant) {
+            case "jar" -> {
+                Path exec = find(target, "-exec.jar");
+                Path jar = exec != null ? exec : require(target, ".jar");
+                yield List.of(java, "-jar", jar.getFileName().toString());
+            }
+            case "aot" -> List.of(java, "-Dspring.aot.enabled=true",
+                    "-jar", thinJar(target).getFileName().toString());
+            case "cds" -> List.of(java, "-XX:SharedArchiveFile=" + require(target, ".jsa").toAbsolutePath(),
+                    "-Dspring.aot.enabled=true", "-jar", thinJar(target).getFileName().toString());
+            case "lazy" -> List.of(java, "-XX:SharedArchiveFile=" + require(target, ".jsa").toAbsolutePath(),
+                    "-Dspring.aot.enabled=true", "-jar", thinJar(target).getFileName().toString(),
+                    "--spring.profiles.active=startup");
+            case "native" -> List.of(target.resolve("filmorate").toAbsolutePath().toString());
+            default -> throw new IllegalArgumentException("Неизвестный способ запуска: " + variant);
+        };
+    }
+
+    private static Path thinJar(Path target) throws IOException {
+        if (!Files.isDirectory(target.resolve("lib"))) {
+            throw new IllegalStateException("Нет " + target.resolve("lib") + ", соберите mvn -Pstartup package");
+        }
+        return require(target, ".jar");
+    }
+
+    private static Path require(Path target, String suffix) throws IOException {
+        Path path = find(target, suffix);
+        if (path == null) {
+            throw new IllegalStateException("В " + target + " нет файла filmorate-*" + suffix);
+        }
+        return path;
+    }
+
+    private static Path find(Path target, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith("filmorate-") && name.endsWith(suffix)
+                        && (suffix.equals("-exec.jar") || !name.endsWith("-exec.jar"));
+            }).findFirst().orElse(null);
+        }
+    }
+
+    /**
+     * @return время до первого ответа в миллисекундах и {@code VmRSS} в килобайтах.
+     */
+    private static long[] launch(List<String> command, Path target) throws Exception {
+        int port = freePort();
+        List<String> full = new ArrayList<>(command);
+        full.addAll(List.of("--server.port=" + port, "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN", "--logging.level.org.zalando.logbook=WARN"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/films"))
+                .timeout(Duration.ofSeconds(1))
+                .build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(full)
+                .directory(target.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Процесс завершился с кодом " + process.exitValue() + ": " + full);
+                }
+                if (System.nanoTime() - start > TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("Нет ответа за " + TIMEOUT + ": " + full);
+                }
+                try {
+                    if (CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return new long[]{(System.nanoTime() - start) / 1_000_000, rss(process.pid())};
+                    }
+                } catch (IOException e) {
+                    // порт ещё не открыт
+                }
+                Thread.sleep(5);
+            }
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static long rss(long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return 0;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
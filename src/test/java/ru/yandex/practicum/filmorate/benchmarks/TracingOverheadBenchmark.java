@@ -0,0 +1,95 @@
+package ru.yandex.practicum.filmorate.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.tracing.SlowTrace;
+import ru.yandex.practicum.filmorate.tracing.Tracer;
+import ru.yandex.practicum.filmorate.tracing.TracingFilmStorage;
+import ru.yandex.practicum.filmorate.tracing.TracingProperties;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цена трассировки на пути {@code GET /films/{id}}: чтение фильма из хранилища без трассировки,
+ * через обёртку хранилища вне запроса и полный запрос — корневой спан, спан сервиса с событием JFR,
+ * спан хранилища и отбрасывание быстрого запроса. {@code jfr}: {@code off} — запись JFR не идёт,
+ * {@code default} — идёт с порогом события по умолчанию (1 мс), {@code all} — пишется каждый вызов.
+ * <p>
+ * {@code mvn -Pbenchmarks -DskipTests test -Dbenchmark.args=TracingOverhead}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TracingOverheadBenchmark {
+    private static final int FILMS = 10_000;
+
+    @Param({"off", "default", "all"})
+    private String jfr;
+
+    private FilmStorage storage;
+    private FilmStorage traced;
+    private Tracer tracer;
+    private Recording recording;
+
+    @Setup
+    public void setUp() {
+        storage = new InMemoryFilmStorage();
+        for (int i = 0; i < FILMS; i++) {
+            Film film = new Film();
+            film.setName("Фильм " + i);
+            storage.create(film);
+        }
+        tracer = new Tracer(new TracingProperties(true, Duration.ofMillis(100), 128, 128), new SimpleMeterRegistry());
+        traced = TracingFilmStorage.wrap(storage, tracer);
+        if (!jfr.equals("off")) {
+            recording = new Recording();
+            recording.enable("ru.yandex.practicum.filmorate.ServiceCall")
+                    .withThreshold(jfr.equals("all") ? Duration.ZERO : Duration.ofMillis(1));
+            recording.setToDisk(false);
+            recording.setMaxSize(64 * 1024 * 1024);
+            recording.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Benchmark
+    public Film untraced() {
+        return storage.get(nextId());
+    }
+
+    @Benchmark
+    public Film tracedStorageOutsideRequest() {
+        return traced.get(nextId());
+    }
+
+    @Benchmark
+    public Film tracedRequest() {
+        tracer.begin("GET", "/films/{filmId}");
+        int filmId = nextId();
+        Film film;
+        try (Tracer.Scope scope = tracer.service("FilmService.get", filmId)) {
+            film = traced.get(filmId);
+        }
+        SlowTrace slow = tracer.finish(200);
+        return slow == null ? film : null;
+    }
+
+    private static int nextId() {
+        return 1 + ThreadLocalRandom.current().nextInt(FILMS);
+    }
+}
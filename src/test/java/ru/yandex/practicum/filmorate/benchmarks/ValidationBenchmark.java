@@ -0,0 +1,57 @@
+package ru.yandex.practicum.filmorate.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.validation.ModelValidators;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость валидации корректных сущностей. Отсутствие выделений видно по метрике
+ * {@code gc.alloc.rate.norm} профайлера:
+ * {@code mvn -Pbenchmarks -DskipTests test "-Dbenchmark.args=Validation -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+    private Film film;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        film = new Film();
+        film.setName("Valid Film");
+        film.setDescription("This is a valid film description");
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(Duration.ofMinutes(120));
+
+        user = new User();
+        user.setEmail("user@example.com");
+        user.setLogin("valid_login_without_spaces");
+        user.setName("Name");
+        user.setBirthday(LocalDate.of(2000, 1, 1));
+    }
+
+    @Benchmark
+    public void validateFilm() {
+        ModelValidators.FILM.validate(film);
+    }
+
+    @Benchmark
+    public void validateUser() {
+        ModelValidators.USER.validate(user);
+    }
+
+    @Benchmark
+    public void userViolations(Blackhole blackhole) {
+        blackhole.consume(ModelValidators.USER.violations(user));
+    }
+}
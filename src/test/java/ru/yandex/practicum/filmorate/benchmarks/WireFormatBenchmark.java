@@ -0,0 +1,95 @@
+package ru.yandex.practicum.filmorate.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.models.Film;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кодирование и разбор списка фильмов в JSON, Smile и CBOR; размеры тел печатаются при подготовке.
+ * {@code mvn -Pbenchmarks -DskipTests test -Dbenchmark.args=WireFormat}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+    private static final int FILMS = 100;
+    private static final int LIKES = 50;
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    private List<Film> films;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = switch (format) {
+            case "smile" -> configure(SmileMapper.builder());
+            case "cbor" -> configure(CBORMapper.builder());
+            default -> configure(JsonMapper.builder());
+        };
+        films = films();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Film.class));
+        reader = mapper.readerFor(mapper.getTypeFactory().constructCollectionType(List.class, Film.class));
+        encoded = writer.writeValueAsBytes(films);
+        System.out.printf("%n%s: %d фильмов по %d лайков — %d байт%n", format, FILMS, LIKES, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(films);
+    }
+
+    @Benchmark
+    public List<Film> decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+
+    private static ObjectMapper configure(MapperBuilder<?, ?> builder) {
+        return builder.findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    private static List<Film> films() {
+        Random random = new Random(42);
+        List<Film> films = new ArrayList<>();
+        for (int i = 1; i <= FILMS; i++) {
+            Film film = new Film();
+            film.setId(i);
+            film.setName("Film " + i);
+            film.setDescription("Description of film " + i + " with a plot summary of a typical length");
+            film.setReleaseDate(LocalDate.of(1990 + i % 30, 1 + i % 12, 1 + i % 28));
+            film.setDuration(Duration.ofMinutes(80 + i % 60));
+            Set<Integer> likes = new HashSet<>();
+            while (likes.size() < LIKES) {
+                likes.add(1 + random.nextInt(100_000));
+            }
+            film.setLikes(likes);
+            films.add(film);
+        }
+        return films;
+    }
+}
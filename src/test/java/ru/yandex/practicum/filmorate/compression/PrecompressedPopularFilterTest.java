@@ -0,0 +1,107 @@
+package ru.yandex.practicum.filmorate.compression;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.service.FilmService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PrecompressedPopularFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FilmService filmService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 30; i++) {
+            Film film = new Film();
+            film.setName("Popular film " + i);
+            film.setDescription("A".repeat(150));
+            film.setReleaseDate(LocalDate.of(2000, 1, 1));
+            film.setDuration(Duration.ofMinutes(100));
+            filmService.add(film);
+        }
+    }
+
+    @Test
+    void findPopular_WithGzip_ShouldServeCachedCompressedBytesUntilRatingChanges() throws Exception {
+        // Given
+        double hitsBefore = hits();
+
+        // When
+        byte[] first = popularGzip();
+        byte[] second = popularGzip();
+
+        // Then
+        assertArrayEquals(first, second);
+        assertEquals(hitsBefore + 1, hits());
+        Film[] films = objectMapper.readValue(gunzip(first), Film[].class);
+        assertEquals(30, films.length);
+
+        // When
+        Film film = new Film();
+        film.setName("Newcomer");
+        film.setDescription("B".repeat(150));
+        film.setReleaseDate(LocalDate.of(2001, 1, 1));
+        film.setDuration(Duration.ofMinutes(90));
+        filmService.add(film);
+        popularGzip();
+
+        // Then
+        assertEquals(hitsBefore + 1, hits());
+    }
+
+    @Test
+    void findPopular_WithoutGzip_ShouldReturnPlainJson() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/films/popular").param("count", "30"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"));
+    }
+
+    private byte[] popularGzip() throws Exception {
+        return mockMvc.perform(get("/films/popular")
+                        .param("count", "30")
+                        .header("Accept-Encoding", "br;q=1.0, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    private double hits() {
+        return registry.counter("filmorate.compression.precompressed.requests", "result", "hit").count();
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
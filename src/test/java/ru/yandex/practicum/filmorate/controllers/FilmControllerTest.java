@@ -209,4 +209,48 @@ class FilmControllerTest {
         assertInstanceOf(NotFoundException.class, result.getResolvedException());
         assertEquals("Фильм с указанным Id не найден", result.getResolvedException().getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findPopular_Approximate_WhenDisabled_ShouldReturn400() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/films/popular")
+                        .param("approximate", "true"))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        // Then
+        assertInstanceOf(ValidationException.class, result.getResolvedException());
+        assertEquals("Приблизительный режим рейтинга фильмов не включен.", result.getResolvedException().getMessage());
+    }
+
+    @Test
+    void findPopular_LeanView_ShouldReturnCountsInsteadOfLikes() throws Exception {
+        // Given
+        Film created = objectMapper.readValue(mockMvc.perform(post("/films")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validFilm)))
+                .andReturn().getResponse().getContentAsString(), Film.class);
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"fan@example.com\",\"login\":\"fan\",\"birthday\":\"2000-01-01\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(put("/films/{id}/like/{userId}", created.getId(), 1))
+                .andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(get("/films/{id}", created.getId()).param("view", "lean"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Valid Film"))
+                .andExpect(jsonPath("$.duration").value(120))
+                .andExpect(jsonPath("$.likesCount").value(1))
+                .andExpect(jsonPath("$.likes").doesNotExist());
+        mockMvc.perform(get("/films/popular").param("view", "lean"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].likesCount").exists())
+                .andExpect(jsonPath("$[0].likes").doesNotExist());
+        mockMvc.perform(get("/films/{id}", created.getId()).param("fields", "duration,id"))
+                .andExpect(content().json("{\"id\":" + created.getId() + ",\"duration\":120}", true));
+        mockMvc.perform(get("/films/{id}", created.getId()))
+                .andExpect(jsonPath("$.likes[0]").value(1));
+    }
+}
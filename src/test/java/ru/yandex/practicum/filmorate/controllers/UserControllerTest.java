@@ -216,4 +216,34 @@ class UserControllerTest {
         assertInstanceOf(NotFoundException.class, result.getResolvedException());
         assertEquals("Пользователь с указанным id=9999 не найден", result.getResolvedException().getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAll_WithFields_ShouldRenderOnlySelectedProperties() throws Exception {
+        // Given
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validUser)))
+                .andExpect(status().isCreated());
+
+        // When & Then
+        mockMvc.perform(get("/users").param("fields", "login,friendsCount,id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[0].login").exists())
+                .andExpect(jsonPath("$[0].friendsCount").exists())
+                .andExpect(jsonPath("$[0].email").doesNotExist())
+                .andExpect(jsonPath("$[0].friends").doesNotExist());
+    }
+
+    @Test
+    void findAll_WithUnknownField_ShouldReturn400() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/users").param("fields", "id,password"))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        // Then
+        assertInstanceOf(ValidationException.class, result.getResolvedException());
+        assertTrue(result.getResolvedException().getMessage().startsWith("Неизвестные поля [password]"));
+    }
+}
@@ -0,0 +1,77 @@
+package ru.yandex.practicum.filmorate.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventRingBufferTest {
+
+    @Test
+    void get_AfterPublish_ShouldReturnValueBySequence() {
+        // Given
+        EventRingBuffer<String> buffer = new EventRingBuffer<>(4);
+
+        // When
+        buffer.publish(sequence -> "event-" + sequence);
+        buffer.publish(sequence -> "event-" + sequence);
+
+        // Then
+        assertEquals("event-0", buffer.get(0));
+        assertEquals("event-1", buffer.get(1));
+        assertNull(buffer.get(2));
+        assertEquals(2, buffer.nextSequence());
+    }
+
+    @Test
+    void get_WhenOverwritten_ShouldReturnNullAndAdvanceOldest() {
+        // Given
+        EventRingBuffer<Long> buffer = new EventRingBuffer<>(4);
+
+        // When
+        for (int i = 0; i < 6; i++) {
+            buffer.publish(sequence -> sequence);
+        }
+
+        // Then
+        assertNull(buffer.get(1));
+        assertEquals(2, buffer.oldestSequence());
+        assertEquals(5L, buffer.get(5));
+    }
+
+    @Test
+    void publish_FromManyThreads_ShouldAssignUniqueSequences() throws InterruptedException {
+        // Given
+        EventRingBuffer<Long> buffer = new EventRingBuffer<>(1 << 14);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    buffer.publish(sequence -> sequence);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        Set<Long> sequences = new HashSet<>();
+        for (long sequence = 0; sequence < 8000; sequence++) {
+            sequences.add(buffer.get(sequence));
+        }
+        assertEquals(8000, sequences.size());
+        assertFalse(sequences.contains(null));
+    }
+
+    @Test
+    void constructor_WithNonPowerOfTwoCapacity_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> new EventRingBuffer<>(3));
+    }
+}
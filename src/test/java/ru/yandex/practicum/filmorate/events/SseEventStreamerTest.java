@@ -0,0 +1,158 @@
+package ru.yandex.practicum.filmorate.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseEventStreamerTest {
+    private final EventStreamProperties properties =
+            new EventStreamProperties(4, Duration.ofMinutes(1), Duration.ofMillis(1));
+    private final DomainEventBus bus = new DomainEventBus(properties);
+    private final SseEventStreamer streamer = new SseEventStreamer(bus, properties);
+
+    @AfterEach
+    void shutdown() {
+        streamer.shutdown();
+    }
+
+    @Test
+    void subscribe_FromOffset_ShouldResumeFromThatEvent() throws InterruptedException {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            bus.publish(DomainEventType.FILM_CREATED, i);
+        }
+        RecordingEmitter emitter = new RecordingEmitter(null);
+
+        // When
+        streamer.subscribe(emitter, 1L);
+
+        // Then
+        await(() -> emitter.events().size() == 2);
+        assertEquals(List.of("1 FILM_CREATED", "2 FILM_CREATED"), emitter.events());
+    }
+
+    @Test
+    void subscribe_FromOverwrittenOffset_ShouldSendGapAndContinueFromOldest() throws InterruptedException {
+        // Given
+        for (int i = 0; i < 6; i++) {
+            bus.publish(DomainEventType.LIKE_ADDED, i);
+        }
+        RecordingEmitter emitter = new RecordingEmitter(null);
+
+        // When
+        streamer.subscribe(emitter, 0L);
+
+        // Then
+        await(() -> emitter.events().size() == 5);
+        assertEquals(List.of("gap", "2 LIKE_ADDED", "3 LIKE_ADDED", "4 LIKE_ADDED", "5 LIKE_ADDED"),
+                emitter.events());
+    }
+
+    @Test
+    void subscribe_WhenSubscriberFallsBehindBuffer_ShouldDropIt() throws InterruptedException {
+        // Given
+        bus.publish(DomainEventType.USER_CREATED, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter(release);
+        streamer.subscribe(emitter, 0L);
+        await(() -> emitter.events().size() == 1);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            bus.publish(DomainEventType.USER_UPDATED, 1);
+        }
+        release.countDown();
+
+        // Then
+        await(() -> streamer.getSubscribers() == 0);
+        assertEquals(List.of("0 USER_CREATED", "dropped"), emitter.events());
+    }
+
+    @Test
+    void subscribe_OnCompletion_ShouldStopPollingAndReleaseSubscriber() throws InterruptedException {
+        // Given
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        streamer.subscribe(emitter, null);
+        await(() -> streamer.getSubscribers() == 1);
+
+        // When
+        emitter.completionCallback.run();
+
+        // Then
+        await(() -> streamer.getSubscribers() == 0);
+        bus.publish(DomainEventType.FRIEND_ADDED, 1, 2);
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertTrue(emitter.events().isEmpty());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Условие не выполнилось за 5 секунд");
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    /**
+     * Запоминает отправленные события в виде «id имя» и колбэк завершения; первая отправка
+     * может ждать {@code release}, как медленный клиент.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch release;
+        private final List<String> events = new ArrayList<>();
+        private Runnable completionCallback;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String line) {
+                    text.append(line);
+                }
+            }
+            String id = null;
+            String name = null;
+            for (String line : text.toString().split("\n")) {
+                if (line.startsWith("id:")) {
+                    id = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    name = line.substring(6);
+                }
+            }
+            boolean first;
+            synchronized (this) {
+                first = events.isEmpty();
+                events.add(id == null ? name : id + " " + name);
+            }
+            if (first && release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            this.completionCallback = callback;
+        }
+
+        synchronized List<String> events() {
+            return List.copyOf(events);
+        }
+    }
+}
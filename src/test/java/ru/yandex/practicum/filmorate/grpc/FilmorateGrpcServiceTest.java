@@ -0,0 +1,142 @@
+package ru.yandex.practicum.filmorate.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.yandex.practicum.filmorate.grpc.GrpcMessages.*;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class FilmorateGrpcServiceTest {
+    @Autowired
+    private FilmorateGrpcService service;
+
+    private FilmorateGrpcMethods methods;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).directExecutor().addService(service.bindService()).build().start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        methods = service.methods();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void createFilm_ShouldAssignIdAndBeReadable() {
+        // When
+        Film created = ClientCalls.blockingUnaryCall(channel, methods.createFilm, CallOptions.DEFAULT, film("gRPC Film"));
+        Film loaded = ClientCalls.blockingUnaryCall(channel, methods.getFilm, CallOptions.DEFAULT,
+                new FilmId(created.getId()));
+
+        // Then
+        assertNotNull(created.getId());
+        assertEquals("gRPC Film", loaded.getName());
+        assertEquals(Duration.ofMinutes(100), loaded.getDuration());
+    }
+
+    @Test
+    void bulkLikes_ShouldCountAcceptedAndRejected_AndPopularStreamShouldBeOrdered() throws Exception {
+        // Given
+        Film first = ClientCalls.blockingUnaryCall(channel, methods.createFilm, CallOptions.DEFAULT, film("First"));
+        Film second = ClientCalls.blockingUnaryCall(channel, methods.createFilm, CallOptions.DEFAULT, film("Second"));
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            users.add(ClientCalls.blockingUnaryCall(channel, methods.createUser, CallOptions.DEFAULT, user("grpc" + i)));
+        }
+
+        // When
+        CompletableFuture<BulkLikesResult> result = new CompletableFuture<>();
+        StreamObserver<LikeRequest> requests = ClientCalls.asyncClientStreamingCall(
+                channel.newCall(methods.bulkLikes, CallOptions.DEFAULT), new StreamObserver<>() {
+                    @Override
+                    public void onNext(BulkLikesResult value) {
+                        result.complete(value);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        result.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                    }
+                });
+        for (User user : users) {
+            requests.onNext(new LikeRequest(second.getId(), user.getId()));
+        }
+        requests.onNext(new LikeRequest(first.getId(), users.get(0).getId()));
+        requests.onNext(new LikeRequest(first.getId(), -1));
+        requests.onCompleted();
+        BulkLikesResult summary = result.get(5, TimeUnit.SECONDS);
+
+        List<Film> popular = new ArrayList<>();
+        ClientCalls.blockingServerStreamingCall(channel, methods.popularFilms, CallOptions.DEFAULT,
+                new PopularRequest(1000)).forEachRemaining(popular::add);
+        List<Integer> order = popular.stream().map(Film::getId).toList();
+
+        // Then
+        assertEquals(4, summary.accepted());
+        assertEquals(1, summary.rejected());
+        assertEquals(1, summary.errors().size());
+        assertTrue(order.indexOf(second.getId()) < order.indexOf(first.getId()));
+        assertEquals(3, popular.get(order.indexOf(second.getId())).getLikesCount());
+    }
+
+    @Test
+    void getUnknownUser_ShouldFailWithNotFound() {
+        // When
+        StatusRuntimeException error = assertThrows(StatusRuntimeException.class, () ->
+                ClientCalls.blockingUnaryCall(channel, methods.getUser, CallOptions.DEFAULT, new UserId(999_999)));
+
+        // Then
+        assertEquals(Status.Code.NOT_FOUND, error.getStatus().getCode());
+    }
+
+    private static Film film(String name) {
+        Film film = new Film();
+        film.setName(name);
+        film.setDescription("Streamed over gRPC");
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(Duration.ofMinutes(100));
+        return film;
+    }
+
+    private static User user(String login) {
+        User user = new User();
+        user.setEmail(login + "@mail.ru");
+        user.setLogin(login);
+        user.setName(login);
+        user.setBirthday(LocalDate.of(1990, 1, 1));
+        return user;
+    }
+}
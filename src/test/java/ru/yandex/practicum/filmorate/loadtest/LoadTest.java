@@ -0,0 +1,269 @@
+package ru.yandex.practicum.filmorate.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Нагрузочный тест: засевает данные, воспроизводит смесь запросов ко всем операциям {@code FilmController}
+ * и {@code UserController} с заданной частотой и сравнивает задержки для нескольких конфигураций.
+ * <p>
+ * {@code mvn -Pbenchmarks -DskipTests test -Dbenchmark.main=ru.yandex.practicum.filmorate.loadtest.LoadTest
+ * -Dbenchmark.args="rate=1000 duration=60s config=in-memory config=off-heap,filmorate.storage.mode=off-heap"}
+ * <p>
+ * Аргументы {@code ключ=значение}:
+ * <ul>
+ *     <li>{@code config=имя[,свойство=значение...]} — конфигурация приложения, запускаемого в этой JVM;
+ *     можно указать несколько, по умолчанию {@code in-memory} и {@code off-heap}. Данные засеваются через
+ *     {@code FilmService} и {@code UserService}; ограничение частоты запросов выключено, если не задано явно;</li>
+ *     <li>{@code url=http://localhost:8080} — вместо запуска нагружать уже работающий сервер,
+ *     данные засеваются через REST;</li>
+ *     <li>{@code films=10000}, {@code users=5000}, {@code friends=10}, {@code likes=20} — размер данных:
+ *     друзей у пользователя и лайков у фильма в среднем;</li>
+ *     <li>{@code rate=500} — запросов в секунду, {@code warmup=10s}, {@code duration=30s};</li>
+ *     <li>{@code connections=32} — потоков HTTP-клиента, {@code in-flight=2000} — запросов без ответа;</li>
+ *     <li>{@code mix=films.get:30,films.popular:20,...} — доли операций (см. {@link Operation}), остальные — 0;</li>
+ *     <li>{@code report=target/loadtest} — каталог для распределений задержек в формате {@code .hgrm}.</li>
+ * </ul>
+ * Задержка считается от запланированного времени отправки (см. {@link OpenLoopRunner}).
+ */
+public class LoadTest {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> configs = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Ожидался аргумент ключ=значение: " + arg);
+            }
+            String key = arg.substring(0, separator);
+            if (key.equals("config")) {
+                configs.add(arg.substring(separator + 1));
+            } else {
+                options.put(key, arg.substring(separator + 1));
+            }
+        }
+        if (configs.isEmpty()) {
+            configs = List.of("in-memory", "off-heap,filmorate.storage.mode=off-heap");
+        }
+        int films = Integer.parseInt(options.getOrDefault("films", "10000"));
+        int users = Integer.parseInt(options.getOrDefault("users", "5000"));
+        int friends = Integer.parseInt(options.getOrDefault("friends", "10"));
+        int likes = Integer.parseInt(options.getOrDefault("likes", "20"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "500"));
+        Duration warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s"));
+        Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "30s"));
+        int connections = Integer.parseInt(options.getOrDefault("connections", "32"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("in-flight", "2000"));
+        Map<Operation, Integer> mix = mix(options.get("mix"));
+        Path report = Path.of(options.getOrDefault("report", "target/loadtest"));
+        Files.createDirectories(report);
+
+        System.out.printf("Фильмов: %d, пользователей: %d, друзей: %d, лайков: %d, частота: %.0f/с, %s после %s прогрева%n",
+                films, users, friends, likes, rate, duration, warmup);
+        Map<String, OpenLoopRunner.Result> results = new LinkedHashMap<>();
+        if (options.containsKey("url")) {
+            URI base = URI.create(options.get("url"));
+            seedOverHttp(base, films, users, friends, likes);
+            results.put(base.toString(), measure(new Operation.Target(base, films, users), mix, rate, warmup,
+                    duration, connections, maxInFlight));
+        } else {
+            for (String config : configs) {
+                String[] parts = config.split(",");
+                try (ConfigurableApplicationContext context = start(parts)) {
+                    seed(context, films, users, friends, likes);
+                    int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                    results.put(parts[0], measure(new Operation.Target(URI.create("http://localhost:" + port), films,
+                            users), mix, rate, warmup, duration, connections, maxInFlight));
+                }
+            }
+        }
+        print(results, System.out);
+        write(results, report);
+    }
+
+    private static OpenLoopRunner.Result measure(Operation.Target target, Map<Operation, Integer> mix, double rate,
+                                                 Duration warmup, Duration duration, int connections,
+                                                 int maxInFlight) throws InterruptedException {
+        OpenLoopRunner runner = new OpenLoopRunner(target, mix, connections, maxInFlight);
+        try {
+            runner.run(rate, warmup, 1);
+            return runner.run(rate, duration, 2);
+        } finally {
+            runner.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String[] config) {
+        List<String> args = new ArrayList<>(List.of("--server.port=0", "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN", "--logging.level.org.zalando.logbook=WARN"));
+        boolean rateLimitConfigured = false;
+        for (int i = 1; i < config.length; i++) {
+            args.add("--" + config[i]);
+            rateLimitConfigured |= config[i].startsWith("filmorate.rate-limit.enabled=");
+        }
+        if (!rateLimitConfigured) {
+            args.add("--filmorate.rate-limit.enabled=false");
+        }
+        return new SpringApplicationBuilder(FilmorateApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private static void seed(ConfigurableApplicationContext context, int films, int users, int friends, int likes) {
+        FilmService filmService = context.getBean(FilmService.class);
+        UserService userService = context.getBean(UserService.class);
+        for (int i = 1; i <= films; i++) {
+            filmService.add(film(i));
+        }
+        for (int i = 1; i <= users; i++) {
+            userService.add(user(i));
+        }
+        Random random = new Random(42);
+        for (long i = 0; i < (long) users * friends / 2; i++) {
+            int left = 1 + random.nextInt(users);
+            int right = 1 + random.nextInt(users);
+            try {
+                userService.addFriend(left, right);
+            } catch (RuntimeException e) {
+                // пара уже дружит
+            }
+        }
+        for (long i = 0; i < (long) films * likes; i++) {
+            try {
+                filmService.addLike(1 + random.nextInt(films), 1 + random.nextInt(users));
+            } catch (RuntimeException e) {
+                // лайк уже есть
+            }
+        }
+    }
+
+    private static void seedOverHttp(URI base, int films, int users, int friends, int likes)
+            throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        Operation.Target target = new Operation.Target(base, films, users);
+        Random random = new Random(42);
+        for (int i = 1; i <= films; i++) {
+            client.send(Operation.FILM_CREATE.request(target, random).build(), HttpResponse.BodyHandlers.discarding());
+        }
+        for (int i = 1; i <= users; i++) {
+            client.send(Operation.USER_CREATE.request(target, random).build(), HttpResponse.BodyHandlers.discarding());
+        }
+        for (long i = 0; i < (long) users * friends / 2; i++) {
+            client.send(Operation.FRIEND_ADD.request(target, random).build(), HttpResponse.BodyHandlers.discarding());
+        }
+        for (long i = 0; i < (long) films * likes; i++) {
+            client.send(Operation.FILM_LIKE.request(target, random).build(), HttpResponse.BodyHandlers.discarding());
+        }
+        HttpResponse<Void> check = client.send(HttpRequest.newBuilder(base.resolve("/films/" + films)).build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (check.statusCode() != 200) {
+            throw new IllegalStateException("Сервер не содержит засеянных фильмов 1.." + films
+                    + ": тест на сервере с уже существующими данными не поддерживается");
+        }
+    }
+
+    private static Map<Operation, Integer> mix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        if (spec == null) {
+            for (Operation operation : Operation.values()) {
+                mix.put(operation, operation.defaultWeight());
+            }
+            return mix;
+        }
+        for (String part : spec.split(",")) {
+            String[] weight = part.split(":");
+            mix.put(Operation.of(weight[0]), Integer.parseInt(weight[1]));
+        }
+        return mix;
+    }
+
+    private static void print(Map<String, OpenLoopRunner.Result> results, PrintStream out) {
+        out.printf("%n%-12s %-22s %8s %8s %6s %6s %10s %10s %10s %10s %10s%n", "config", "operation", "count",
+                "rate/s", "4xx", "5xx+", "p50, мс", "p90, мс", "p99, мс", "p99.9, мс", "max, мс");
+        results.forEach((config, result) -> {
+            double seconds = result.elapsed().toNanos() / 1e9;
+            Histogram all = new Histogram(3);
+            result.latencies().forEach((operation, histogram) -> {
+                all.add(histogram);
+                if (histogram.getTotalCount() > 0) {
+                    long[] statuses = result.statuses().get(operation);
+                    row(out, config, operation.key(), histogram, seconds, statuses[4], statuses[5] + statuses[0]);
+                }
+            });
+            long clientErrors = result.statuses().values().stream().mapToLong(statuses -> statuses[4]).sum();
+            long serverErrors = result.statuses().values().stream().mapToLong(statuses -> statuses[5] + statuses[0])
+                    .sum();
+            row(out, config, "всего", all, seconds, clientErrors, serverErrors);
+        });
+    }
+
+    private static void row(PrintStream out, String config, String operation, Histogram histogram, double seconds,
+                            long clientErrors, long serverErrors) {
+        out.printf("%-12s %-22s %8d %8.1f %6d %6d", config, operation, histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds, clientErrors, serverErrors);
+        for (double percentile : PERCENTILES) {
+            out.printf(" %10.2f", histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        out.printf(" %10.2f%n", histogram.getMaxValue() / 1000.0);
+    }
+
+    private static void write(Map<String, OpenLoopRunner.Result> results, Path report) throws IOException {
+        for (Map.Entry<String, OpenLoopRunner.Result> entry : results.entrySet()) {
+            String config = entry.getKey().replaceAll("[^\\w.-]", "_");
+            for (Map.Entry<Operation, Histogram> latency : entry.getValue().latencies().entrySet()) {
+                if (latency.getValue().getTotalCount() == 0) {
+                    continue;
+                }
+                Path file = report.resolve(config + "-" + latency.getKey().key() + ".hgrm");
+                try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                    latency.getValue().outputPercentileDistribution(out, 1000.0);
+                }
+            }
+        }
+        System.out.println("Распределения задержек (мс): " + report.toAbsolutePath());
+    }
+
+    private static Film film(int number) {
+        Film film = new Film();
+        film.setName("Фильм " + number);
+        film.setDescription("Описание фильма номер " + number);
+        film.setReleaseDate(LocalDate.of(1950, 1, 1).plusDays(number % 25_000));
+        film.setDuration(Duration.ofMinutes(60 + number % 120));
+        return film;
+    }
+
+    private static User user(int number) {
+        User user = new User();
+        user.setEmail("user" + number + "@example.com");
+        user.setLogin("user" + number);
+        user.setName("Пользователь " + number);
+        user.setBirthday(LocalDate.of(1970, 1, 1).plusDays(number % 15_000));
+        return user;
+    }
+
+}
@@ -0,0 +1,127 @@
+package ru.yandex.practicum.filmorate.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор нагрузки с открытым циклом: запросы отправляются по расписанию с заданной частотой
+ * независимо от того, ответил ли сервер на предыдущие. Задержка считается от запланированного
+ * времени отправки, а не от фактического, поэтому остановка сервера или очередь у клиента попадают
+ * в гистограмму целиком (поправка на coordinated omission).
+ */
+public final class OpenLoopRunner {
+    private static final int STATUS_CLASSES = 6;
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final Operation.Target target;
+    private final Operation[] schedule;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final AtomicLongArray statuses = new AtomicLongArray(Operation.values().length * STATUS_CLASSES);
+
+    /**
+     * @param mix         доли операций
+     * @param maxInFlight сколько запросов может ждать ответа одновременно; при исчерпании отправка
+     *                    задерживается, но задержка всё равно считается от расписания
+     */
+    public OpenLoopRunner(Operation.Target target, Map<Operation, Integer> mix, int connections, int maxInFlight) {
+        this.target = target;
+        this.executor = Executors.newFixedThreadPool(connections);
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("Сумма долей операций должна быть положительной");
+        }
+        this.schedule = new Operation[total];
+        int position = 0;
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                schedule[position++] = entry.getKey();
+            }
+        }
+        for (Operation operation : mix.keySet()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+        }
+    }
+
+    /**
+     * Отправляет запросы {@code duration} с частотой {@code rate} в секунду и ждёт ответов.
+     *
+     * @return гистограммы задержек в микросекундах по операциям
+     */
+    public Result run(double rate, Duration duration, long seed) throws InterruptedException {
+        recorders.values().forEach(Recorder::reset);
+        for (int i = 0; i < statuses.length(); i++) {
+            statuses.set(i, 0);
+        }
+        Random random = new Random(seed);
+        long period = (long) (1_000_000_000L / rate);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long sent = 0;
+        for (long intended = start; intended < end; intended = start + ++sent * period) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            inFlight.acquire();
+            long scheduledAt = intended;
+            client.sendAsync(operation.request(target, random).build(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long micros = (System.nanoTime() - scheduledAt) / 1_000;
+                        recorders.get(operation).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                        int statusClass = error == null ? response.statusCode() / 100 : 0;
+                        statuses.incrementAndGet(operation.ordinal() * STATUS_CLASSES + statusClass);
+                        inFlight.release();
+                    });
+        }
+        long elapsed = System.nanoTime() - start;
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        Map<Operation, long[]> statusCounts = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> {
+            histograms.put(operation, recorder.getIntervalHistogram());
+            long[] counts = new long[STATUS_CLASSES];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = statuses.get(operation.ordinal() * STATUS_CLASSES + i);
+            }
+            statusCounts.put(operation, counts);
+        });
+        return new Result(histograms, statusCounts, sent, Duration.ofNanos(elapsed));
+    }
+
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param statuses число ответов по классам: {@code [0]} — ошибка соединения, {@code [2]} — 2xx,
+     *                 {@code [4]} — 4xx, {@code [5]} — 5xx
+     */
+    public record Result(Map<Operation, Histogram> latencies, Map<Operation, long[]> statuses, long sent,
+                         Duration elapsed) {
+    }
+}
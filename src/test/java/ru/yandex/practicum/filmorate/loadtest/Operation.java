@@ -0,0 +1,172 @@
+package ru.yandex.practicum.filmorate.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.Random;
+
+/**
+ * Запросы к {@code FilmController} и {@code UserController} с долями по умолчанию: чтение преобладает,
+ * записи — лайки и дружба — составляют около пятой части. Доли переопределяются аргументом {@code mix}.
+ */
+public enum Operation {
+    FILMS_LIST("films.list", 2) {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.get("/films");
+        }
+    },
+    FILM_GET("films.get", 25) {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.get("/films/" + target.film(random));
+        }
+    },
+    FILM_CREATE("films.create", 2) {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.send("POST", "/films", film(null, random));
+        }
+    },
+    FILM_UPDATE("films.update", 2) {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.send("PUT", "/films", film(target.film(random), random));
+        }
+    },
+    FILM_LIKE("films.like", 10) {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.send("PUT", "/films/" + target.film(random) + "/like/" + target.user(random), null);
+        }
+    },
+    FILM_UNLIKE("films.unlike", 3) {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.send("DELETE", "/films/" + target.film(random) + "/like/" + target.user(random), null);
+        }
+    },
+    FILMS_POPULAR("films.popular", 15) {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.get("/films/popular?count=" + (random.nextBoolean() ? 10 : 100));
+        }
+    },
+    USERS_LIST("users.list", 1) {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.get("/users");
+        }
+    },
+    USER_GET("users.get", 15) {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.get("/users/" + target.user(random));
+        }
+    },
+    USER_CREATE("users.create", 1) {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.send("POST", "/users", user(null, random));
+        }
+    },
+    USER_UPDATE("users.update", 1) {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.send("PUT", "/users", user(target.user(random), random));
+        }
+    },
+    FRIEND_ADD("users.friends.add", 4) {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.send("PUT", "/users/" + target.user(random) + "/friends/" + target.user(random), null);
+        }
+    },
+    FRIEND_REMOVE("users.friends.remove", 2) {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.send("DELETE", "/users/" + target.user(random) + "/friends/" + target.user(random), null);
+        }
+    },
+    FRIENDS_GET("users.friends", 10) {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.get("/users/" + target.user(random) + "/friends");
+        }
+    },
+    FRIENDS_COMMON("users.friends.common", 7) {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.get("/users/" + target.user(random) + "/friends/common/" + target.user(random));
+        }
+    };
+
+    private final String key;
+    private final int defaultWeight;
+
+    Operation(String key, int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public int defaultWeight() {
+        return defaultWeight;
+    }
+
+    abstract HttpRequest.Builder request(Target target, Random random);
+
+    public static Operation of(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестная операция: " + key);
+    }
+
+    private static String film(Integer id, Random random) {
+        return "{" + (id == null ? "" : "\"id\":" + id + ",")
+                + "\"name\":\"Фильм " + random.nextInt(1_000_000) + "\","
+                + "\"description\":\"Описание для нагрузочного теста\","
+                + "\"releaseDate\":\"" + (1950 + random.nextInt(70)) + "-01-01\","
+                + "\"duration\":" + (60 + random.nextInt(120)) + "}";
+    }
+
+    private static String user(Integer id, Random random) {
+        int number = random.nextInt(1_000_000);
+        return "{" + (id == null ? "" : "\"id\":" + id + ",")
+                + "\"email\":\"load" + number + "@example.com\","
+                + "\"login\":\"load" + number + "\","
+                + "\"name\":\"Пользователь " + number + "\","
+                + "\"birthday\":\"1990-01-01\"}";
+    }
+
+    /**
+     * Адрес сервера и диапазоны id засеянных данных.
+     */
+    record Target(URI base, int films, int users) {
+        int film(Random random) {
+            return 1 + random.nextInt(films);
+        }
+
+        int user(Random random) {
+            return 1 + random.nextInt(users);
+        }
+
+        HttpRequest.Builder get(String path) {
+            return HttpRequest.newBuilder(base.resolve(path)).GET();
+        }
+
+        HttpRequest.Builder send(String method, String path, String json) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(base.resolve(path));
+            if (json == null) {
+                return builder.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+            return builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(json));
+        }
+    }
+}
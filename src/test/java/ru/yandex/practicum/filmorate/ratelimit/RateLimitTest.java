@@ -0,0 +1,273 @@
+package ru.yandex.practicum.filmorate.ratelimit;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientInterceptors;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.yandex.practicum.filmorate.exceptions.TooManyRequestsException;
+import ru.yandex.practicum.filmorate.grpc.FilmorateGrpcMethods;
+import ru.yandex.practicum.filmorate.grpc.FilmorateGrpcService;
+import ru.yandex.practicum.filmorate.grpc.GrpcMessages.BulkLikesResult;
+import ru.yandex.practicum.filmorate.grpc.GrpcMessages.FriendRequest;
+import ru.yandex.practicum.filmorate.grpc.GrpcMessages.LikeRequest;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "filmorate.rate-limit.client-header=X-Client-Id",
+        "filmorate.rate-limit.routes.user-friend.client-rate=0.01",
+        "filmorate.rate-limit.routes.user-friend.client-burst=2",
+        "filmorate.rate-limit.routes.film-like.client-rate=0.01",
+        "filmorate.rate-limit.routes.film-like.client-burst=2"
+})
+@AutoConfigureMockMvc
+class RateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private FilmService filmService;
+
+    @Autowired
+    private FilmorateGrpcService grpcService;
+
+    @Test
+    void addFriend_OverClientLimit_ShouldReturn429OnlyForThatClient() throws Exception {
+        // Given
+        int userId = userService.add(user("limited")).getId();
+        int[] friendIds = new int[4];
+        for (int i = 0; i < friendIds.length; i++) {
+            friendIds[i] = userService.add(user("friend" + i)).getId();
+        }
+
+        // When & Then
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(put("/users/{id}/friends/{friendId}", userId, friendIds[i]).header("X-Client-Id", "noisy"))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(put("/users/{id}/friends/{friendId}", userId, friendIds[2]).header("X-Client-Id", "noisy"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+        mockMvc.perform(put("/users/{id}/friends/{friendId}", userId, friendIds[3]).header("X-Client-Id", "quiet"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void grpcAddFriend_OverClientLimit_ShouldFailOnlyForThatClient() throws Exception {
+        // Given
+        int userId = userService.add(user("grpc-limited")).getId();
+        int[] friendIds = new int[4];
+        for (int i = 0; i < friendIds.length; i++) {
+            friendIds[i] = userService.add(user("grpc-friend" + i)).getId();
+        }
+        String name = InProcessServerBuilder.generateName();
+        Server server = InProcessServerBuilder.forName(name).directExecutor()
+                .addService(grpcService.bindService()).build().start();
+        ManagedChannel channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        FilmorateGrpcMethods methods = grpcService.methods();
+        try {
+            Channel noisy = withClientId(channel, "grpc-noisy");
+            Channel quiet = withClientId(channel, "grpc-quiet");
+
+            // When & Then
+            for (int i = 0; i < 2; i++) {
+                ClientCalls.blockingUnaryCall(noisy, methods.addFriend, CallOptions.DEFAULT,
+                        new FriendRequest(userId, friendIds[i]));
+            }
+            StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () ->
+                    ClientCalls.blockingUnaryCall(noisy, methods.addFriend, CallOptions.DEFAULT,
+                            new FriendRequest(userId, friendIds[2])));
+            assertEquals(Status.Code.RESOURCE_EXHAUSTED, e.getStatus().getCode());
+            ClientCalls.blockingUnaryCall(quiet, methods.addFriend, CallOptions.DEFAULT,
+                    new FriendRequest(userId, friendIds[3]));
+        } finally {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+            server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void grpcBulkLikes_OverClientLimit_ShouldFailStream() throws Exception {
+        // Given
+        int filmId = filmService.add(film("grpc-limited")).getId();
+        int[] userIds = new int[3];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = userService.add(user("grpc-liker" + i)).getId();
+        }
+        String name = InProcessServerBuilder.generateName();
+        Server server = InProcessServerBuilder.forName(name).directExecutor()
+                .addService(grpcService.bindService()).build().start();
+        ManagedChannel channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        try {
+            CompletableFuture<BulkLikesResult> result = new CompletableFuture<>();
+            StreamObserver<LikeRequest> requests = ClientCalls.asyncClientStreamingCall(
+                    withClientId(channel, "grpc-bulk").newCall(grpcService.methods().bulkLikes, CallOptions.DEFAULT),
+                    new StreamObserver<>() {
+                        @Override
+                        public void onNext(BulkLikesResult value) {
+                            result.complete(value);
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            result.completeExceptionally(t);
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                        }
+                    });
+
+            // When
+            for (int userId : userIds) {
+                requests.onNext(new LikeRequest(filmId, userId));
+            }
+            requests.onCompleted();
+
+            // Then
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertEquals(Status.Code.RESOURCE_EXHAUSTED, Status.fromThrowable(e.getCause()).getCode());
+            assertEquals(2, filmService.get(filmId).orElseThrow().getLikes().size());
+        } finally {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+            server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void tokenBucket_ShouldAllowBurstAndRefillAtRate() {
+        // Given
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(10, 3, now);
+
+        // When & Then
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(now));
+        }
+        long wait = bucket.tryAcquire(now);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait);
+        assertEquals(0, bucket.tryAcquire(now + wait));
+        assertFalse(bucket.isFull(now + wait));
+        assertTrue(bucket.isFull(now + TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test
+    void evictIdle_OverClientLimit_ShouldRemoveOnlyRefilledBuckets() {
+        // Given
+        RateLimitProperties.Route route = new RateLimitProperties.Route("PUT", "/users/{id}/friends/{friendId}",
+                1, 1, 0, 0, 0, 1, Duration.ofMillis(100));
+        RouteLimiter limiter = new RouteLimiter("user-friend", route, 3, new SimpleMeterRegistry());
+        long second = TimeUnit.SECONDS.toNanos(1);
+        limiter.acquire("first", 0);
+        limiter.acquire("second", 0);
+        assertEquals(0, limiter.evictIdle(second));
+        limiter.acquire("third", second / 2);
+
+        // When
+        int evicted = limiter.evictIdle(second);
+
+        // Then
+        assertEquals(2, evicted);
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire("third", second));
+        assertFalse(limiter.acquire("first", second));
+    }
+
+    @Test
+    void acquire_WhenClientLimitReached_ShouldRejectNewClientsWithoutGrowing() {
+        // Given
+        RateLimitProperties.Route route = new RateLimitProperties.Route("PUT", "/users/{id}/friends/{friendId}",
+                1, 1, 0, 0, 0, 1, Duration.ofMillis(100));
+        RouteLimiter limiter = new RouteLimiter("user-friend", route, 2, new SimpleMeterRegistry());
+        long second = TimeUnit.SECONDS.toNanos(1);
+        limiter.acquire("first", 0);
+        limiter.acquire("second", 0);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            String client = "spoofed-" + i;
+            assertThrows(TooManyRequestsException.class, () -> limiter.acquire(client, 0));
+        }
+
+        // Then
+        assertEquals(2, limiter.evictIdle(second));
+        assertFalse(limiter.acquire("third", second));
+    }
+
+    @Test
+    void concurrencyLimit_WhenLatencyRises_ShouldShrinkAndRecover() {
+        // Given
+        long target = TimeUnit.MILLISECONDS.toNanos(10);
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 10, target, 0);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        assertFalse(limit.tryAcquire());
+
+        // When
+        limit.release(target * 5, target);
+        limit.release(target * 5, target);
+
+        // Then
+        assertEquals(9, limit.getLimit());
+        assertEquals(8, limit.getInFlight());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        limit.release(target / 2, target * 2);
+        assertEquals(10, limit.getLimit());
+    }
+
+    private static Channel withClientId(Channel channel, String clientId) {
+        Metadata headers = new Metadata();
+        headers.put(Metadata.Key.of("X-Client-Id", Metadata.ASCII_STRING_MARSHALLER), clientId);
+        return ClientInterceptors.intercept(channel, MetadataUtils.newAttachHeadersInterceptor(headers));
+    }
+
+    private static Film film(String name) {
+        Film film = new Film();
+        film.setName(name);
+        film.setDescription("description");
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(Duration.ofMinutes(100));
+        return film;
+    }
+
+    private static User user(String login) {
+        User user = new User();
+        user.setEmail(login + "@example.com");
+        user.setLogin(login);
+        user.setBirthday(LocalDate.of(2000, 1, 1));
+        return user;
+    }
+}
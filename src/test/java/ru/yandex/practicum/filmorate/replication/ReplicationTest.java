@@ -0,0 +1,249 @@
+package ru.yandex.practicum.filmorate.replication;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClient;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationTest {
+    private static ConfigurableApplicationContext leader;
+    private static ConfigurableApplicationContext follower;
+
+    @BeforeAll
+    static void startInstances() {
+        leader = new SpringApplicationBuilder(FilmorateApplication.class)
+                .run("--server.port=0", "--filmorate.replication.leader=true");
+        follower = new SpringApplicationBuilder(FilmorateApplication.class)
+                .run("--server.port=0", "--filmorate.storage.mode=replica",
+                        "--filmorate.replication.leader-url=" + url(leader),
+                        "--filmorate.replication.read-your-writes-timeout=5s");
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        follower.close();
+        leader.close();
+    }
+
+    @Test
+    void follower_WithVersionToken_ShouldReadOwnWritesFromLeader() {
+        // Given
+        RestClient leaderClient = RestClient.create(url(leader));
+        RestClient followerClient = RestClient.create(url(follower));
+        ResponseEntity<User> first = leaderClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(user("first"))
+                .retrieve()
+                .toEntity(User.class);
+        User second = leaderClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(user("second"))
+                .retrieve()
+                .body(User.class);
+
+        // When
+        ResponseEntity<Void> friendship = leaderClient.put()
+                .uri("/users/{id}/friends/{friendId}", first.getBody().getId(), second.getId())
+                .retrieve()
+                .toBodilessEntity();
+        String version = friendship.getHeaders().getFirst(ReplicationProperties.VERSION_HEADER);
+        User[] friends = followerClient.get()
+                .uri("/users/{id}/friends", second.getId())
+                .header(ReplicationProperties.MIN_VERSION_HEADER, version)
+                .retrieve()
+                .body(User[].class);
+
+        // Then
+        assertNotNull(first.getHeaders().getFirst(ReplicationProperties.VERSION_HEADER));
+        assertEquals(List.of(first.getBody().getId()), List.of(friends).stream().map(User::getId).toList());
+    }
+
+    @Test
+    void follower_AfterLikeAndFriendship_ShouldServeFrozenEntitiesWithBothSides() {
+        // Given
+        RestClient leaderClient = RestClient.create(url(leader));
+        User first = leaderClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(user("frozen1"))
+                .retrieve()
+                .body(User.class);
+        User second = leaderClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(user("frozen2"))
+                .retrieve()
+                .body(User.class);
+        Film film = leaderClient.post().uri("/films")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(film("frozen"))
+                .retrieve()
+                .body(Film.class);
+
+        // When
+        leaderClient.put().uri("/films/{id}/like/{userId}", film.getId(), first.getId())
+                .retrieve()
+                .toBodilessEntity();
+        String version = leaderClient.put().uri("/users/{id}/friends/{friendId}", first.getId(), second.getId())
+                .retrieve()
+                .toBodilessEntity()
+                .getHeaders().getFirst(ReplicationProperties.VERSION_HEADER);
+        follower.getBean(ReplicationFollower.class).awaitVersion(Long.parseLong(version));
+        Film replicated = follower.getBean(FilmStorage.class).get(film.getId());
+        UserStorage users = follower.getBean(UserStorage.class);
+
+        // Then
+        assertEquals(Set.of(first.getId()), replicated.getLikes());
+        assertThrows(UnsupportedOperationException.class, () -> replicated.getLikes().add(second.getId()));
+        assertEquals(Set.of(second.getId()), users.get(first.getId()).getFriends());
+        assertEquals(Set.of(first.getId()), users.get(second.getId()).getFriends());
+    }
+
+    @Test
+    void follower_OnMutation_ShouldReturn503() {
+        // Given
+        RestClient followerClient = RestClient.create(url(follower));
+
+        // When
+        HttpServerErrorException e = assertThrows(HttpServerErrorException.class, () -> followerClient.post()
+                .uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(user("replica"))
+                .retrieve()
+                .toBodilessEntity());
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+    }
+
+    @Test
+    void follower_WithMalformedVersionToken_ShouldReturn400() {
+        // Given
+        RestClient followerClient = RestClient.create(url(follower));
+
+        // When
+        HttpClientErrorException e = assertThrows(HttpClientErrorException.class, () -> followerClient.get()
+                .uri("/users")
+                .header(ReplicationProperties.MIN_VERSION_HEADER, "latest")
+                .retrieve()
+                .toBodilessEntity());
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    @Test
+    void leaderLog_WithNonPositiveLimit_ShouldReturn400() {
+        // Given
+        RestClient leaderClient = RestClient.create(url(leader));
+
+        // When
+        HttpClientErrorException e = assertThrows(HttpClientErrorException.class, () -> leaderClient.get()
+                .uri("/internal/replication/log?after=0&limit=-1")
+                .retrieve()
+                .toBodilessEntity());
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    @Test
+    void leaderLog_WithLongWait_ShouldWaitNoLongerThanPollWait() {
+        // Given
+        RestClient leaderClient = RestClient.create(url(leader));
+        long version = leader.getBean(ReplicationLog.class).getVersion();
+        long started = System.nanoTime();
+
+        // When
+        ReplicationBatch batch = leaderClient.get()
+                .uri("/internal/replication/log?after={after}&waitMillis=600000", version)
+                .retrieve()
+                .body(ReplicationBatch.class);
+
+        // Then
+        assertNotNull(batch);
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofSeconds(30)) < 0);
+    }
+
+    @Test
+    void follower_OnCachedCompressedPopularFilms_ShouldStillWaitForVersion() {
+        // Given
+        RestClient leaderClient = RestClient.create(url(leader));
+        RestClient followerClient = RestClient.create(url(follower));
+        String version = null;
+        for (int i = 0; i < 30; i++) {
+            version = leaderClient.post().uri("/films")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(film("film" + i))
+                    .retrieve()
+                    .toBodilessEntity()
+                    .getHeaders().getFirst(ReplicationProperties.VERSION_HEADER);
+        }
+        double hitsBefore = popularCacheHits();
+
+        // When
+        List<ResponseEntity<byte[]>> responses = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            responses.add(followerClient.get().uri("/films/popular?count=30")
+                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                    .header(ReplicationProperties.MIN_VERSION_HEADER, version)
+                    .retrieve()
+                    .toEntity(byte[].class));
+        }
+
+        // Then
+        assertEquals(hitsBefore + 1, popularCacheHits());
+        for (ResponseEntity<byte[]> response : responses) {
+            assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+            assertTrue(Long.parseLong(response.getHeaders().getFirst(ReplicationProperties.VERSION_HEADER))
+                    >= Long.parseLong(version));
+        }
+    }
+
+    private static String url(ConfigurableApplicationContext context) {
+        return "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static double popularCacheHits() {
+        return follower.getBean(MeterRegistry.class)
+                .counter("filmorate.compression.precompressed.requests", "result", "hit").count();
+    }
+
+    private static Film film(String name) {
+        Film film = new Film();
+        film.setName(name);
+        film.setDescription("A".repeat(150));
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(Duration.ofMinutes(100));
+        return film;
+    }
+
+    private static User user(String login) {
+        User user = new User();
+        user.setEmail(login + "@example.com");
+        user.setLogin(login);
+        user.setBirthday(LocalDate.of(2000, 1, 1));
+        return user;
+    }
+}
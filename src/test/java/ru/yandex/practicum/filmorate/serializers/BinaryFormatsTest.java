@@ -0,0 +1,74 @@
+package ru.yandex.practicum.filmorate.serializers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.yandex.practicum.filmorate.models.Film;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BinaryFormatsTest {
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    private final ObjectMapper smile = SmileMapper.builder().findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    private final ObjectMapper cbor = CBORMapper.builder().findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper json;
+
+    @Test
+    void createInCbor_AndReadInSmile_ShouldMatchJson() throws Exception {
+        // Given
+        Film film = new Film();
+        film.setName("Binary Film");
+        film.setDescription("Encoded without JSON");
+        film.setReleaseDate(LocalDate.of(1999, 3, 31));
+        film.setDuration(Duration.ofMinutes(136));
+
+        // When
+        byte[] created = mockMvc.perform(post("/films")
+                        .contentType(CBOR)
+                        .accept(CBOR)
+                        .content(cbor.writeValueAsBytes(film)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        int id = cbor.readValue(created, Film.class).getId();
+        byte[] smileBody = mockMvc.perform(get("/films/{id}", id).accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        String jsonBody = mockMvc.perform(get("/films/{id}", id).accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        JsonNode fromSmile = smile.readTree(smileBody);
+        assertEquals(json.readTree(jsonBody), fromSmile);
+        assertEquals(136, fromSmile.get("duration").intValue());
+        assertEquals("1999-03-31", fromSmile.get("releaseDate").textValue());
+        assertEquals(Duration.ofMinutes(136), smile.readValue(smileBody, Film.class).getDuration());
+    }
+}
@@ -0,0 +1,88 @@
+package ru.yandex.practicum.filmorate.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingCacheTest {
+
+    @Test
+    void get_WithConcurrentIdenticalRequests_ShouldLoadOnce() throws Exception {
+        // Given
+        CoalescingCache<Integer, String> cache = cache(Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> cache.get(10, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "top-10";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("top-10", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        // Then
+        assertEquals(1, loads.get());
+        assertEquals("top-10", cache.get(10, () -> "reloaded"));
+    }
+
+    @Test
+    void invalidateAll_DuringLoad_ShouldNotCacheStaleResult() {
+        // Given
+        CoalescingCache<Integer, String> cache = cache(Duration.ofMinutes(1));
+
+        // When
+        String stale = cache.get(1, () -> {
+            cache.invalidateAll();
+            return "stale";
+        });
+
+        // Then
+        assertEquals("stale", stale);
+        assertEquals("fresh", cache.get(1, () -> "fresh"));
+    }
+
+    @Test
+    void get_WhenLoaderFails_ShouldPropagateAndNotCache() {
+        // Given
+        CoalescingCache<Integer, String> cache = cache(Duration.ofMinutes(1));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> cache.get(1, () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("ok", cache.get(1, () -> "ok"));
+    }
+
+    private static CoalescingCache<Integer, String> cache(Duration ttl) {
+        return new CoalescingCache<>("test", new CoalescingCacheProperties(true, ttl, 16), new SimpleMeterRegistry());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
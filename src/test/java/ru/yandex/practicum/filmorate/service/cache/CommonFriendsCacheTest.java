@@ -0,0 +1,162 @@
+package ru.yandex.practicum.filmorate.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommonFriendsCacheTest {
+
+    @Test
+    void friendAddedAndRemoved_ShouldKeepCachedPairsEqualToRecomputedIntersection() {
+        // Given
+        CommonFriendsCache cache = cache(1_000);
+        Random random = new Random(3);
+        int users = 30;
+        Map<Integer, Set<Integer>> friends = new HashMap<>();
+        for (int id = 1; id <= users; id++) {
+            friends.put(id, new HashSet<>());
+        }
+
+        for (int step = 0; step < 2_000; step++) {
+            int left = 1 + random.nextInt(users);
+            int right = 1 + random.nextInt(users);
+            if (left == right) {
+                continue;
+            }
+
+            // When
+            if (random.nextInt(3) == 0) {
+                long stamp = cache.stamp();
+                if (cache.get(left, right) == null) {
+                    cache.put(left, right, intersection(friends, left, right), stamp);
+                }
+            } else if (friends.get(left).contains(right)) {
+                friends.get(left).remove(right);
+                friends.get(right).remove(left);
+                cache.friendRemoved(left, right, friends::get);
+            } else {
+                friends.get(left).add(right);
+                friends.get(right).add(left);
+                cache.friendAdded(left, right, friends::get);
+            }
+
+            // Then
+            for (int user = 1; user <= users; user++) {
+                for (int other = user; other <= users; other++) {
+                    Collection<Integer> cached = cache.get(user, other);
+                    if (cached != null) {
+                        assertEquals(intersection(friends, user, other), new HashSet<>(cached),
+                                user + " & " + other + " at step " + step);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void friendAdded_WhenAnotherFriendshipWasWrittenConcurrently_ShouldSeeBothWrites() {
+        // Given
+        CommonFriendsCache cache = cache(10);
+        Map<Integer, Set<Integer>> friends = new HashMap<>();
+        for (int id = 1; id <= 3; id++) {
+            friends.put(id, new HashSet<>());
+        }
+        cache.put(2, 3, Set.of(), cache.stamp());
+        friends.get(1).addAll(Set.of(2, 3));
+        friends.get(2).add(1);
+        friends.get(3).add(1);
+
+        // When
+        cache.friendAdded(1, 2, friends::get);
+        cache.friendAdded(1, 3, friends::get);
+
+        // Then
+        assertEquals(Set.of(1), Set.copyOf(cache.get(2, 3)));
+    }
+
+    @Test
+    void friendAdded_WhenFriendshipWasRemovedBeforeIt_ShouldNotChangePairs() {
+        // Given
+        CommonFriendsCache cache = cache(10);
+        Map<Integer, Set<Integer>> friends = Map.of(1, Set.of(3), 2, Set.of(3), 3, Set.of(1, 2));
+        cache.put(1, 3, Set.of(), cache.stamp());
+        cache.friendRemoved(1, 2, friends::get);
+
+        // When
+        cache.friendAdded(1, 2, friends::get);
+
+        // Then
+        assertEquals(Set.of(), Set.copyOf(cache.get(1, 3)));
+    }
+
+    @Test
+    void put_WithStampBeforeChange_ShouldNotCacheStaleValue() {
+        // Given
+        CommonFriendsCache cache = cache(10);
+        long stamp = cache.stamp();
+
+        // When
+        cache.friendRemoved(1, 3, id -> Set.of());
+        cache.put(1, 2, Set.of(3), stamp);
+
+        // Then
+        assertNull(cache.get(1, 2));
+    }
+
+    @Test
+    void put_OverCapacity_ShouldEvictLeastRecentlyUsedPair() {
+        // Given
+        CommonFriendsCache cache = cache(2);
+        cache.put(1, 2, Set.of(5), cache.stamp());
+        cache.put(3, 4, Set.of(6), cache.stamp());
+        cache.get(2, 1);
+
+        // When
+        cache.put(7, 8, Set.of(9), cache.stamp());
+
+        // Then
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(1, 2));
+        assertNull(cache.get(3, 4));
+        assertNotNull(cache.get(8, 7));
+    }
+
+    @Test
+    void invalidateAll_FromCoalescingCaches_ShouldClearPairs() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CoalescingCaches caches = new CoalescingCaches(new CoalescingCacheProperties(true, Duration.ofMinutes(1), 16),
+                registry);
+        CommonFriendsCache cache = new CommonFriendsCache(new CommonFriendsCacheProperties(true, 10), registry, caches);
+        cache.put(1, 2, Set.of(3), cache.stamp());
+
+        // When
+        caches.invalidateAll();
+
+        // Then
+        assertNull(cache.get(1, 2));
+        assertEquals(1.0, registry.get("filmorate.common-friends.cache.requests").tag("result", "miss")
+                .counter().count());
+    }
+
+    private static Set<Integer> intersection(Map<Integer, Set<Integer>> friends, int user, int other) {
+        Set<Integer> common = new HashSet<>(friends.get(user));
+        common.retainAll(friends.get(other));
+        return common;
+    }
+
+    private static CommonFriendsCache cache(int maxEntries) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        return new CommonFriendsCache(new CommonFriendsCacheProperties(true, maxEntries), registry,
+                new CoalescingCaches(new CoalescingCacheProperties(true, Duration.ofMinutes(1), 16), registry));
+    }
+}
@@ -0,0 +1,141 @@
+package ru.yandex.practicum.filmorate.service.graph;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.models.User;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FriendGraphTest {
+
+    @Test
+    void of_ShouldCountDegreesAndComponents() {
+        // Given: 1-2-3 цепочка, 4-5 пара, 6 без друзей
+        List<User> users = users(6);
+        befriend(users, 1, 2);
+        befriend(users, 2, 3);
+        befriend(users, 4, 5);
+
+        // When
+        FriendGraph graph = FriendGraph.of(users);
+
+        // Then
+        assertEquals(6, graph.users());
+        assertEquals(3, graph.friendships());
+        assertArrayEquals(new int[]{1, 4, 1}, graph.degreeHistogram());
+        assertEquals(3, graph.componentCount());
+        assertEquals(1, graph.component(3));
+        assertEquals(4, graph.component(5));
+        assertEquals(6, graph.component(6));
+        assertEquals(3, graph.componentSize(1));
+        assertArrayEquals(new int[]{1, 4, 6}, graph.largestComponents(5));
+        assertEquals(2, graph.distance(1, 3));
+        assertEquals(-1, graph.distance(1, 4));
+        assertEquals(0, graph.distance(6, 6));
+    }
+
+    @Test
+    void distance_OnRandomGraph_ShouldMatchPlainBfs() {
+        // Given
+        Random random = new Random(11);
+        int size = 3_000;
+        List<User> users = users(size);
+        for (int i = 0; i < size * 2; i++) {
+            int left = 1 + random.nextInt(size);
+            int right = 1 + random.nextInt(size);
+            if (left != right) {
+                befriend(users, left, right);
+            }
+        }
+        FriendGraph graph = FriendGraph.of(users);
+        Map<Integer, User> byId = new HashMap<>();
+        users.forEach(user -> byId.put(user.getId(), user));
+
+        for (int query = 0; query < 200; query++) {
+            int from = 1 + random.nextInt(size);
+            int to = 1 + random.nextInt(size);
+
+            // When
+            int distance = graph.distance(from, to);
+
+            // Then
+            int expected = bfs(byId, from, to);
+            assertEquals(expected, distance, from + " -> " + to);
+            assertEquals(expected >= 0, graph.component(from) == graph.component(to));
+        }
+    }
+
+    @Test
+    void distance_FromManyThreads_ShouldBeCorrectAndReuseBoundedSearches() throws InterruptedException {
+        // Given: цепочка 1-2-...-1000
+        int size = 1_000;
+        List<User> users = users(size);
+        for (int id = 1; id < size; id++) {
+            befriend(users, id, id + 1);
+        }
+        FriendGraph graph = FriendGraph.of(users);
+        AtomicInteger wrong = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 64; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int query = 0; query < 50; query++) {
+                    if (graph.distance(1, size) != size - 1) {
+                        wrong.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertEquals(0, wrong.get());
+        assertTrue(graph.createdSearches() <= Runtime.getRuntime().availableProcessors());
+    }
+
+    private static int bfs(Map<Integer, User> users, int from, int to) {
+        Map<Integer, Integer> distance = new HashMap<>(Map.of(from, 0));
+        Queue<Integer> queue = new ArrayDeque<>(List.of(from));
+        while (!queue.isEmpty()) {
+            int user = queue.poll();
+            if (user == to) {
+                return distance.get(user);
+            }
+            for (int friend : users.get(user).getFriends()) {
+                if (distance.putIfAbsent(friend, distance.get(user) + 1) == null) {
+                    queue.add(friend);
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static List<User> users(int count) {
+        List<User> users = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setLogin("user" + id);
+            user.setFriends(new HashSet<>());
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static void befriend(List<User> users, int left, int right) {
+        users.get(left - 1).getFriends().add(right);
+        users.get(right - 1).getFriends().add(left);
+    }
+}
@@ -0,0 +1,107 @@
+package ru.yandex.practicum.filmorate.service.likes;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LikeWritePipelineTest {
+    private final InMemoryFilmStorage storage = new InMemoryFilmStorage();
+    private final AtomicInteger appliedChanges = new AtomicInteger();
+    private final LikeWritePipeline pipeline = new LikeWritePipeline(storage,
+            (filmId, added, removed) -> appliedChanges.addAndGet(added.size() + removed.size()),
+            new AsyncLikeProperties(true, 1024, 256, Duration.ofMillis(1)), new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void submit_ShouldRejectDuplicatesBeforeLikesAreApplied() {
+        // Given
+        int filmId = storage.create(film()).getId();
+
+        // When
+        boolean liked = pipeline.submit(filmId, 1, true);
+        boolean likedAgain = pipeline.submit(filmId, 1, true);
+        boolean unliked = pipeline.submit(filmId, 1, false);
+        boolean unlikedAgain = pipeline.submit(filmId, 1, false);
+        boolean likedOnceMore = pipeline.submit(filmId, 1, true);
+        boolean otherUser = pipeline.submit(filmId, 2, true);
+        boolean unlikeNeverLiked = pipeline.submit(filmId, 3, false);
+
+        // Then
+        assertTrue(liked);
+        assertFalse(likedAgain);
+        assertTrue(unliked);
+        assertFalse(unlikedAgain);
+        assertTrue(likedOnceMore);
+        assertTrue(otherUser);
+        assertFalse(unlikeNeverLiked);
+        assertTrue(pipeline.awaitDrained(Duration.ofSeconds(5)));
+        assertEquals(Set.of(1, 2), storage.get(filmId).getLikes());
+        assertFalse(pipeline.submit(filmId, 2, true));
+    }
+
+    @Test
+    void submit_FromManyThreads_ShouldMatchAcceptedOperations() throws Exception {
+        // Given
+        int films = 4;
+        int users = 8;
+        for (int i = 0; i < films; i++) {
+            storage.create(film());
+        }
+        AtomicIntegerArray balance = new AtomicIntegerArray((films + 1) * users);
+
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int thread = 0; thread < 8; thread++) {
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 20_000; i++) {
+                        int filmId = 1 + random.nextInt(films);
+                        int userId = random.nextInt(users);
+                        boolean like = random.nextBoolean();
+                        if (pipeline.submit(filmId, userId, like)) {
+                            balance.addAndGet(filmId * users + userId, like ? 1 : -1);
+                        }
+                    }
+                });
+            }
+        }
+
+        // Then
+        assertTrue(pipeline.awaitDrained(Duration.ofSeconds(10)));
+        for (int filmId = 1; filmId <= films; filmId++) {
+            for (int userId = 0; userId < users; userId++) {
+                int expected = balance.get(filmId * users + userId);
+                assertTrue(expected == 0 || expected == 1);
+                assertEquals(expected == 1, storage.get(filmId).getLikes().contains(userId));
+            }
+        }
+        assertTrue(appliedChanges.get() > 0);
+        assertEquals(0, pipeline.getQueueDepth());
+    }
+
+    private static Film film() {
+        Film film = new Film();
+        film.setName("Film");
+        film.setDescription("Description");
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(Duration.ofMinutes(90));
+        return film;
+    }
+}
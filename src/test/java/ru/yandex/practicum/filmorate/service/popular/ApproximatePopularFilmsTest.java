@@ -0,0 +1,68 @@
+package ru.yandex.practicum.filmorate.service.popular;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApproximatePopularFilmsTest {
+
+    @Test
+    void top_WithSkewedLikes_ShouldReturnHeavyHittersInOrder() {
+        // Given
+        ApproximatePopularFilms popular = new ApproximatePopularFilms(
+                new ApproximatePopularityProperties(true, 0.001, 0.01, 10));
+        for (int filmId = 1; filmId <= 1000; filmId++) {
+            popular.recordLike(filmId);
+        }
+        for (int i = 0; i < 300; i++) {
+            popular.recordLike(5000);
+        }
+        for (int i = 0; i < 200; i++) {
+            popular.recordLike(6000);
+        }
+
+        // When
+        List<Integer> top = popular.top(2);
+
+        // Then
+        assertEquals(List.of(5000, 6000), top);
+    }
+
+    @Test
+    void top_AfterUnlike_ShouldLowerRank() {
+        // Given
+        ApproximatePopularFilms popular = new ApproximatePopularFilms(
+                new ApproximatePopularityProperties(true, 0.001, 0.01, 10));
+        for (int i = 0; i < 3; i++) {
+            popular.recordLike(1);
+        }
+        for (int i = 0; i < 2; i++) {
+            popular.recordLike(2);
+        }
+
+        // When
+        popular.recordUnlike(1);
+        popular.recordUnlike(1);
+
+        // Then
+        assertEquals(List.of(2, 1), popular.top(2));
+    }
+
+    @Test
+    void countMinSketch_ShouldNeverUnderestimate() {
+        // Given
+        CountMinSketch sketch = new CountMinSketch(0.01, 0.01);
+
+        // When
+        for (int item = 0; item < 10_000; item++) {
+            sketch.add(item, item % 7);
+        }
+
+        // Then
+        for (int item = 0; item < 10_000; item++) {
+            assertTrue(sketch.estimate(item) >= item % 7);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.catalog.CatalogFile;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.MappedFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedCatalogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mappedMode_ShouldReadCatalogAndKeepWritesInOverlay() throws Exception {
+        // Given
+        InMemoryFilmStorage films = new InMemoryFilmStorage();
+        InMemoryUserStorage users = new InMemoryUserStorage();
+        for (int i = 0; i < 5; i++) {
+            users.create(user("user" + i));
+        }
+        for (int i = 0; i < 10; i++) {
+            films.create(film("film" + i));
+        }
+        for (int filmId = 1; filmId <= 4; filmId++) {
+            for (int userId = 1; userId <= filmId; userId++) {
+                films.addLike(filmId, userId);
+            }
+        }
+        users.addFriend(1, 2);
+        users.addFriend(1, 3);
+        Path catalog = directory.resolve("catalog.bin");
+        CatalogFile.write(catalog, films.list(), users.list());
+        byte[] written = Files.readAllBytes(catalog);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FilmorateApplication.class)
+                .run("--server.port=0", "--filmorate.storage.mode=mapped",
+                        "--filmorate.storage.mapped.path=" + catalog)) {
+            FilmService filmService = context.getBean(FilmService.class);
+            UserService userService = context.getBean(UserService.class);
+
+            // When
+            int newFilm = filmService.add(film("new")).getId();
+            for (int userId = 1; userId <= 5; userId++) {
+                filmService.addLike(newFilm, userId);
+            }
+            filmService.removeLike(4, 4);
+            int newUser = userService.add(user("new")).getId();
+            userService.addFriend(2, newUser);
+
+            // Then
+            assertEquals(11, newFilm);
+            assertEquals(6, newUser);
+            assertEquals(List.of(newFilm, 3, 4, 2, 1),
+                    filmService.getPopularFilms(5).stream().map(Film::getId).toList());
+            assertEquals(11, filmService.getPopularFilms(2_000_000_000).size());
+            assertEquals(films.get(7), filmService.get(7).orElseThrow());
+            assertEquals(List.of("user0", "new"),
+                    userService.getFriends(2).stream().map(User::getLogin).toList());
+            assertEquals(Set.of(2, 3), userService.get(1).orElseThrow().getFriends());
+            assertEquals(11, filmService.getList().size());
+            assertInstanceOf(MappedFilmStorage.class,
+                    context.getBean(FilmStorage.class));
+        }
+        assertArrayEquals(written, Files.readAllBytes(catalog));
+    }
+
+    private static Film film(String name) {
+        Film film = new Film();
+        film.setName(name);
+        film.setDescription("Фильм " + name);
+        film.setReleaseDate(LocalDate.of(1995, 12, 28));
+        film.setDuration(Duration.ofMinutes(120));
+        return film;
+    }
+
+    private static User user(String login) {
+        User user = new User();
+        user.setEmail(login + "@example.com");
+        user.setLogin(login);
+        user.setName(login);
+        user.setBirthday(LocalDate.of(2000, 1, 1));
+        return user;
+    }
+}
@@ -0,0 +1,165 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.unit.DataSize;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.OffHeapFilmStorage;
+import ru.yandex.practicum.filmorate.storage.offheap.EntityCodec;
+import ru.yandex.practicum.filmorate.storage.offheap.OffHeapProperties;
+import ru.yandex.practicum.filmorate.storage.offheap.OffHeapTable;
+import ru.yandex.practicum.filmorate.storage.user.OffHeapUserStorage;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapStorageTest {
+    private static final OffHeapProperties PROPERTIES = new OffHeapProperties(DataSize.ofKilobytes(64));
+
+    @Test
+    void codec_ShouldRoundTripUnicodeNullsAndLinks() {
+        // Given
+        User user = new User();
+        user.setId(7);
+        user.setEmail("ёжик@почта.рф");
+        user.setLogin("hedgehog🦔");
+        user.setName(null);
+        user.setBirthday(LocalDate.of(1985, 5, 17));
+        user.setFriends(Set.of(30, 4, 12));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(EntityCodec.USER.size(user));
+
+        // When
+        EntityCodec.USER.write(buffer, 0, user);
+        User decoded = EntityCodec.USER.read(buffer, 0);
+
+        // Then
+        assertEquals(user, decoded);
+        assertArrayEquals(new int[]{4, 12, 30}, EntityCodec.USER.links(buffer, 0));
+    }
+
+    @Test
+    void put_WhenRecordIsRewritten_ShouldReuseFreedCell() {
+        // Given
+        OffHeapTable<Film> table = new OffHeapTable<>(EntityCodec.FILM, 64 * 1024);
+        table.put(1, film("first"));
+        long used = table.getUsedBytes();
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            table.put(1, film("rewrite"));
+        }
+
+        // Then
+        assertEquals(used, table.getUsedBytes());
+        assertEquals(64 * 1024, table.getReservedBytes());
+        assertEquals("rewrite", table.get(1).getName());
+        assertNull(table.get(2));
+    }
+
+    @Test
+    void offHeapStorage_ShouldMatchInMemoryRatingAndFriends() {
+        // Given
+        FilmStorage expected = new InMemoryFilmStorage();
+        FilmStorage actual = new OffHeapFilmStorage(PROPERTIES, new SimpleMeterRegistry());
+        OffHeapUserStorage users = new OffHeapUserStorage(PROPERTIES, new SimpleMeterRegistry());
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            expected.create(film("film" + i));
+            actual.create(film("film" + i));
+        }
+
+        // When
+        for (int i = 0; i < 3000; i++) {
+            int filmId = 1 + random.nextInt(200);
+            int userId = 1 + random.nextInt(50);
+            if (random.nextInt(4) == 0) {
+                expected.removeLike(filmId, userId);
+                actual.removeLike(filmId, userId);
+            } else {
+                expected.addLike(filmId, userId);
+                actual.addLike(filmId, userId);
+            }
+        }
+        int first = users.create(user("first")).getId();
+        int second = users.create(user("second")).getId();
+        int third = users.create(user("third")).getId();
+        users.addFriend(first, second);
+        users.addFriend(first, third);
+        users.removeFriend(first, third);
+
+        // Then
+        assertEquals(expected.getPopular(25), actual.getPopular(25));
+        assertEquals(expected.get(17), actual.get(17));
+        assertEquals(List.of("second"), users.getFriends(first).stream().map(User::getLogin).toList());
+        assertEquals(Set.of(first), users.get(second).getFriends());
+        assertTrue(users.notExists(4));
+    }
+
+    @Test
+    void getPopular_WhenCountIsHuge_ShouldReturnAllFilms() {
+        // Given
+        FilmStorage storage = new OffHeapFilmStorage(PROPERTIES, new SimpleMeterRegistry());
+        for (int i = 0; i < 3; i++) {
+            storage.create(film("film" + i));
+        }
+        storage.addLike(2, 1);
+
+        // When
+        List<Integer> popular = storage.getPopular(2_000_000_000).stream().map(Film::getId).toList();
+
+        // Then
+        assertEquals(List.of(2, 1, 3), popular);
+    }
+
+    @Test
+    void offHeapMode_ShouldServeServicesFromOffHeapStorage() {
+        // Given
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FilmorateApplication.class)
+                .run("--server.port=0", "--filmorate.storage.mode=off-heap")) {
+            FilmService films = context.getBean(FilmService.class);
+            UserService users = context.getBean(UserService.class);
+            int userId = users.add(user("viewer")).getId();
+            int filmId = films.add(film("stored off heap")).getId();
+
+            // When
+            films.addLike(filmId, userId);
+
+            // Then
+            assertInstanceOf(OffHeapFilmStorage.class, context.getBean(FilmStorage.class));
+            assertEquals(Set.of(userId), films.get(filmId).orElseThrow().getLikes());
+            assertEquals(filmId, films.getPopularFilms(1).iterator().next().getId());
+        }
+    }
+
+    private static Film film(String name) {
+        Film film = new Film();
+        film.setName(name);
+        film.setDescription("Описание " + name);
+        film.setReleaseDate(LocalDate.of(2001, 9, 11));
+        film.setDuration(Duration.ofMinutes(95));
+        return film;
+    }
+
+    private static User user(String login) {
+        User user = new User();
+        user.setEmail(login + "@example.com");
+        user.setLogin(login);
+        user.setName(login);
+        user.setBirthday(LocalDate.of(2000, 1, 1));
+        return user;
+    }
+}
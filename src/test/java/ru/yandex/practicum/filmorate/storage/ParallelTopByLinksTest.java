@@ -0,0 +1,91 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelTopByLinksTest {
+
+    @Test
+    void select_ShouldMatchSequentialSort_IncludingTiesAndGaps() {
+        // Given
+        Random random = new Random(42);
+        int[] links = new int[20_000];
+        List<Integer> present = new ArrayList<>();
+        for (int id = 0; id < links.length; id++) {
+            links[id] = random.nextInt(10) == 0 ? -1 : random.nextInt(5);
+            if (links[id] >= 0) {
+                present.add(id);
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            for (int count : new int[]{1, 10, 100, present.size(), present.size() + 5}) {
+                // When
+                int[] selected = new ParallelTopByLinks(pool, 64).select(links.length, count, id -> links[id]);
+
+                // Then
+                int[] expected = present.stream()
+                        .sorted((left, right) -> links[left] != links[right]
+                                ? Integer.compare(links[right], links[left])
+                                : Integer.compare(left, right))
+                        .limit(count)
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+                assertArrayEquals(expected, selected, "count=" + count);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void select_WithEmptyRangeOrNonPositiveCount_ShouldReturnNothing() {
+        ParallelTopByLinks top = new ParallelTopByLinks(ForkJoinPool.commonPool(), 1);
+
+        assertEquals(0, top.select(0, 10, id -> 1).length);
+        assertEquals(0, top.select(100, 0, id -> 1).length);
+        assertThrows(IllegalArgumentException.class, () -> new ParallelTopByLinks(ForkJoinPool.commonPool(), 0));
+    }
+
+    @Test
+    void getPopular_ShouldKeepComparatorOrder() {
+        // Given
+        InMemoryFilmStorage storage = new InMemoryFilmStorage();
+        List<Film> films = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            Film film = new Film();
+            film.setName("Фильм " + i);
+            film.setReleaseDate(LocalDate.of(2000, 1, 1));
+            film.setDuration(Duration.ofMinutes(90));
+            films.add(storage.create(film));
+        }
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            storage.addLike(films.get(random.nextInt(films.size())).getId(), random.nextInt(4));
+        }
+
+        // When
+        List<Integer> popular = storage.getPopular(25).stream().map(Film::getId).toList();
+
+        // Then
+        List<Integer> expected = storage.list().stream()
+                .sorted(FilmStorage.BY_POPULARITY)
+                .limit(25)
+                .map(Film::getId)
+                .toList();
+        assertEquals(expected, popular);
+        assertEquals(films.size(), storage.getPopular(Integer.MAX_VALUE).size());
+    }
+}
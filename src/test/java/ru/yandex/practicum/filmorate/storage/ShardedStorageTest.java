@@ -0,0 +1,168 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.film.ShardedFilmStorage;
+import ru.yandex.practicum.filmorate.storage.shard.FilmShard;
+import ru.yandex.practicum.filmorate.storage.shard.LocalFilmShard;
+import ru.yandex.practicum.filmorate.storage.shard.LocalUserShard;
+import ru.yandex.practicum.filmorate.storage.shard.ShardRebalancer;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedStorageTest {
+    private static final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private static ConfigurableApplicationContext router;
+
+    @BeforeAll
+    static void startCluster() {
+        for (int i = 0; i < 3; i++) {
+            nodes.add(new SpringApplicationBuilder(FilmorateApplication.class)
+                    .run("--server.port=0", "--filmorate.shard.node.enabled=true"));
+        }
+        router = new SpringApplicationBuilder(FilmorateApplication.class)
+                .run("--server.port=0", "--filmorate.storage.mode=sharded",
+                        "--filmorate.storage.sharded.nodes=" + url(nodes.get(0)) + "," + url(nodes.get(1)));
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        router.close();
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void shardedCluster_ShouldSpreadEntitiesAndMergeQueriesAcrossNodes() {
+        // Given
+        FilmService films = router.getBean(FilmService.class);
+        UserService users = router.getBean(UserService.class);
+        List<User> created = IntStream.range(0, 20).mapToObj(i -> users.add(user(i))).toList();
+        List<Film> createdFilms = IntStream.range(0, 20).mapToObj(i -> films.add(film(i))).toList();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            for (int liker = 0; liker <= i; liker++) {
+                films.addLike(createdFilms.get(i).getId(), created.get(liker).getId());
+            }
+        }
+        for (int i = 1; i < 20; i++) {
+            users.addFriend(created.get(0).getId(), created.get(i).getId());
+        }
+
+        // Then
+        assertTrue(nodes.get(0).getBean(LocalFilmShard.class).list().size() > 0);
+        assertTrue(nodes.get(1).getBean(LocalFilmShard.class).list().size() > 0);
+        assertEquals(20, films.getList().size());
+        assertEquals(
+                List.of(createdFilms.get(9).getId(), createdFilms.get(8).getId(), createdFilms.get(7).getId()),
+                films.getPopularFilms(3).stream().map(Film::getId).toList());
+        assertEquals(19, users.getFriends(created.get(0).getId()).size());
+        assertEquals(1, users.getFriends(created.get(5).getId()).size());
+        assertEquals(1, users.getCommonFriends(created.get(1).getId(), created.get(2).getId()).size());
+
+        // When
+        router.getBean(ShardRebalancer.class).rebalance(List.of(url(nodes.get(1)), url(nodes.get(2))));
+
+        // Then
+        assertTrue(nodes.get(0).getBean(LocalFilmShard.class).list().isEmpty());
+        assertTrue(nodes.get(0).getBean(LocalUserShard.class).list().isEmpty());
+        assertFalse(nodes.get(2).getBean(LocalUserShard.class).list().isEmpty());
+        assertEquals(20, films.getList().size());
+        assertEquals(19, users.getFriends(created.get(0).getId()).size());
+        assertEquals(createdFilms.get(9).getId(), films.getPopularFilms(1).iterator().next().getId());
+    }
+
+    @Test
+    void localShard_AfterLike_ShouldKeepPreviouslyListedFilmUnchanged() {
+        // Given
+        LocalFilmShard shard = new LocalFilmShard();
+        Film film = film(1);
+        film.setId(1);
+        shard.put(film);
+        Film listed = shard.list().iterator().next();
+
+        // When
+        shard.addLike(1, 7);
+
+        // Then
+        assertTrue(listed.getLikes().isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> listed.getLikes().add(8));
+        assertEquals(Set.of(7), shard.get(1).getLikes());
+        assertTrue(film.getLikes().isEmpty());
+    }
+
+    @Test
+    void rebalance_DuringReads_ShouldAlwaysFindMovedFilms() throws InterruptedException {
+        // Given
+        Map<String, FilmShard> shards = Map.of("a", new LocalFilmShard(), "b", new LocalFilmShard(),
+                "c", new LocalFilmShard());
+        ShardedFilmStorage storage = new ShardedFilmStorage(Map.of("a", shards.get("a"), "b", shards.get("b")), 16);
+        for (int i = 0; i < 200; i++) {
+            storage.create(film(i));
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger missing = new AtomicInteger();
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < 200; i++) {
+                storage.rebalance(i % 2 == 0
+                        ? Map.of("b", shards.get("b"), "c", shards.get("c"))
+                        : Map.of("a", shards.get("a"), "b", shards.get("b")));
+            }
+            running.set(false);
+        });
+
+        // When
+        while (running.get()) {
+            for (int id = 1; id <= 200; id++) {
+                if (storage.get(id) == null) {
+                    missing.incrementAndGet();
+                }
+            }
+        }
+        writer.join();
+
+        // Then
+        assertEquals(0, missing.get());
+        assertEquals(200, storage.list().size());
+    }
+
+    private static String url(ConfigurableApplicationContext context) {
+        return "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static User user(int i) {
+        User user = new User();
+        user.setEmail("user" + i + "@example.com");
+        user.setLogin("user" + i);
+        user.setBirthday(LocalDate.of(2000, 1, 1));
+        return user;
+    }
+
+    private static Film film(int i) {
+        Film film = new Film();
+        film.setName("Film " + i);
+        film.setDescription("Description");
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(Duration.ofMinutes(90));
+        return film;
+    }
+}
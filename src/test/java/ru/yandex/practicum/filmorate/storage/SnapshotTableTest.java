@@ -0,0 +1,115 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.models.User;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotTableTest {
+
+    @Test
+    void snapshot_AfterLaterWrite_ShouldKeepPointInTimeView() {
+        // Given
+        SnapshotTable<String> table = new SnapshotTable<>();
+        table.write(transaction -> {
+            transaction.put(1, "first");
+            transaction.put(2000, "far");
+            return null;
+        });
+        SnapshotTable.Snapshot<String> before = table.snapshot();
+
+        // When
+        table.write(transaction -> {
+            transaction.put(1, "updated");
+            transaction.put(transaction.nextId(), "next");
+            return null;
+        });
+
+        // Then
+        assertEquals("first", before.get(1));
+        assertEquals(List.of("first", "far"), List.copyOf(before.values()));
+        assertEquals("updated", table.snapshot().get(1));
+        assertEquals("next", table.snapshot().get(2001));
+        assertEquals(3, table.snapshot().size());
+        assertNull(table.snapshot().get(9999));
+        assertEquals(before.version() + 1, table.snapshot().version());
+    }
+
+    @Test
+    void contains_ShouldFollowPutsAndRemovals_AndValuesShouldSkipGaps() {
+        // Given
+        SnapshotTable<Integer> table = new SnapshotTable<>();
+        int[] ids = {0, 63, 64, 1023, 1024, 5000};
+        table.write(transaction -> {
+            for (int id : ids) {
+                transaction.put(id, id);
+            }
+            return null;
+        });
+
+        // When
+        table.write(transaction -> {
+            transaction.put(64, null);
+            return null;
+        });
+        SnapshotTable.Snapshot<Integer> snapshot = table.snapshot();
+
+        // Then
+        assertTrue(snapshot.contains(63));
+        assertFalse(snapshot.contains(64));
+        assertFalse(snapshot.contains(2000));
+        assertFalse(snapshot.contains(-1));
+        assertFalse(snapshot.contains(1 << 20));
+        assertEquals(List.of(0, 63, 1023, 1024, 5000), List.copyOf(snapshot.values()));
+        assertEquals(5, snapshot.size());
+    }
+
+    @Test
+    void list_DuringConcurrentFriendChanges_ShouldAlwaysSeeBothSides() throws InterruptedException {
+        // Given
+        InMemoryUserStorage storage = new InMemoryUserStorage();
+        int first = storage.create(user("first")).getId();
+        int second = storage.create(user("second")).getId();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger torn = new AtomicInteger();
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                storage.addFriend(first, second);
+                storage.removeFriend(first, second);
+            }
+            running.set(false);
+        });
+
+        // When
+        while (running.get()) {
+            Map<Integer, User> users = storage.list().stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+            if (users.get(first).getFriends().contains(second) != users.get(second).getFriends().contains(first)) {
+                torn.incrementAndGet();
+            }
+        }
+        writer.join();
+
+        // Then
+        assertEquals(0, torn.get());
+        assertThrows(UnsupportedOperationException.class, () -> storage.get(first).getFriends().add(42));
+    }
+
+    private static User user(String login) {
+        User user = new User();
+        user.setEmail(login + "@example.com");
+        user.setLogin(login);
+        user.setName(login);
+        user.setBirthday(LocalDate.of(2000, 1, 1));
+        return user;
+    }
+}
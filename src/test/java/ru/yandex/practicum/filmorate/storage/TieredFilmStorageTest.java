@@ -0,0 +1,189 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.TieredFilmStorage;
+import ru.yandex.practicum.filmorate.storage.offheap.EntityCodec;
+import ru.yandex.practicum.filmorate.storage.tiered.ColdSegmentStore;
+import ru.yandex.practicum.filmorate.storage.tiered.TieredStorageProperties;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredFilmStorageTest {
+    @TempDir
+    Path directory;
+
+    private TieredFilmStorage storage;
+
+    @AfterEach
+    void close() throws IOException {
+        if (storage != null) {
+            storage.close();
+        }
+    }
+
+    @Test
+    void segmentStore_ShouldCompactSparseSegmentsAndKeepLiveRecords() throws IOException {
+        // Given
+        try (ColdSegmentStore<Film> store = new ColdSegmentStore<>(directory, EntityCodec.FILM, 4096)) {
+            for (int id = 1; id <= 200; id++) {
+                store.put(id, film(id, "film" + id));
+            }
+            long written = store.getDiskBytes();
+
+            // When
+            for (int id = 1; id <= 200; id++) {
+                if (id % 10 != 0) {
+                    store.remove(id);
+                }
+            }
+
+            // Then
+            assertEquals(20, store.size());
+            assertTrue(store.getDiskBytes() < written / 2);
+            assertEquals("film30", store.read(30).getName());
+            assertNull(store.read(31));
+        }
+    }
+
+    @Test
+    void tieredStorage_ShouldMatchInMemoryWhileFilmsMoveBetweenTiers() {
+        // Given
+        FilmStorage expected = new InMemoryFilmStorage();
+        storage = tiered(20);
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            expected.create(film(null, "film" + i));
+            storage.create(film(null, "film" + i));
+        }
+
+        // When
+        for (int i = 0; i < 3000; i++) {
+            int filmId = 1 + random.nextInt(200);
+            int userId = 1 + random.nextInt(50);
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    expected.removeLike(filmId, userId);
+                    storage.removeLike(filmId, userId);
+                }
+                case 1 -> assertEquals(expected.get(filmId), storage.get(filmId));
+                default -> {
+                    expected.addLike(filmId, userId);
+                    storage.addLike(filmId, userId);
+                }
+            }
+        }
+
+        // Then
+        assertTrue(storage.getHotSize() <= 20);
+        assertEquals(200, storage.getHotSize() + storage.getColdSize());
+        assertEquals(expected.getPopular(25), storage.getPopular(25));
+        assertEquals(List.copyOf(expected.list()), storage.list());
+        assertTrue(storage.notExists(201));
+    }
+
+    @Test
+    void get_WhenHotTierHasEvicted_ShouldNotPromoteFilmReadLessOftenThanEvictedOnes() {
+        // Given
+        storage = tiered(10);
+        for (int i = 0; i < 30; i++) {
+            storage.create(film(null, "film" + i));
+        }
+        storage.demoteIdle();
+        for (int i = 0; i < 3; i++) {
+            for (int id = 1; id <= 10; id++) {
+                storage.get(id);
+            }
+        }
+        storage.get(25);
+
+        // When
+        Film rare = storage.get(26);
+
+        // Then
+        assertTrue(storage.isHot(25));
+        assertEquals(9, storage.getHotSize());
+        assertFalse(storage.isHot(26));
+        assertEquals("film25", rare.getName());
+    }
+
+    @Test
+    void addLike_WhenFilmIsCold_ShouldPromoteItWithNewLike() {
+        // Given
+        storage = tiered(10);
+        int filmId = storage.create(film(null, "cold")).getId();
+        storage.demoteIdle();
+        assertFalse(storage.isHot(filmId));
+
+        // When
+        storage.addLike(filmId, 7);
+
+        // Then
+        assertTrue(storage.isHot(filmId));
+        assertEquals(0, storage.getColdSize());
+        assertEquals(Set.of(7), storage.get(filmId).getLikes());
+    }
+
+    @Test
+    void get_WhileColdFilmIsLikedAndUpdated_ShouldAlwaysFindIt() throws InterruptedException {
+        // Given
+        storage = tiered(10);
+        int filmId = storage.create(film(null, "film")).getId();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger missing = new AtomicInteger();
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < 2_000; i++) {
+                storage.demoteIdle();
+                if (i % 2 == 0) {
+                    storage.addLike(filmId, i);
+                } else {
+                    storage.update(film(filmId, "film" + i));
+                }
+            }
+            running.set(false);
+        });
+
+        // When
+        while (running.get()) {
+            if (storage.get(filmId) == null) {
+                missing.incrementAndGet();
+            }
+        }
+        writer.join();
+
+        // Then
+        assertEquals(0, missing.get());
+        assertEquals(1, storage.getHotSize() + storage.getColdSize());
+    }
+
+    private TieredFilmStorage tiered(int maxHotEntries) {
+        return new TieredFilmStorage(new TieredStorageProperties(directory.toString(), maxHotEntries,
+                Duration.ZERO, Duration.ofHours(1), DataSize.ofKilobytes(4)), new SimpleMeterRegistry());
+    }
+
+    private static Film film(Integer id, String name) {
+        Film film = new Film();
+        film.setId(id);
+        film.setName(name);
+        film.setDescription("Описание " + name);
+        film.setReleaseDate(LocalDate.of(2001, 9, 11));
+        film.setDuration(Duration.ofMinutes(95));
+        return film;
+    }
+}
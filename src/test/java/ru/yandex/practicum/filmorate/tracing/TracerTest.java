@@ -0,0 +1,114 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracerTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void finish_WhenRequestIsSlow_ShouldKeepNestedSpans() {
+        // Given
+        Tracer tracer = tracer(Duration.ZERO, 16);
+        tracer.begin("GET", "/films/{filmId}");
+        try (Tracer.Scope scope = tracer.service("FilmService.get", 5)) {
+            tracer.span("FilmStorage.get", 5).close();
+        }
+
+        // When
+        SlowTrace trace = tracer.finish(200);
+
+        // Then
+        assertEquals(List.of("/films/{filmId}", "FilmService.get", "FilmStorage.get"),
+                trace.spans().stream().map(SlowTrace.Span::name).toList());
+        assertEquals(List.of(0, 1, 2), trace.spans().stream().map(SlowTrace.Span::depth).toList());
+        assertEquals(5, trace.spans().get(2).entityId());
+        assertEquals("GET", trace.method());
+        assertEquals(200, trace.status());
+        assertEquals(List.of(trace), tracer.getSlowTraces(10));
+    }
+
+    @Test
+    void finish_WhenRequestIsFast_ShouldDiscardIt() {
+        // Given
+        Tracer tracer = tracer(Duration.ofHours(1), 16);
+        tracer.begin("GET", "/films");
+        tracer.service("FilmService.getList", 0).close();
+
+        // When
+        SlowTrace trace = tracer.finish(200);
+
+        // Then
+        assertNull(trace);
+        assertTrue(tracer.getSlowTraces(10).isEmpty());
+    }
+
+    @Test
+    void span_WhenSpansExceedLimitOrRequestIsOver_ShouldNotRecordThem() {
+        // Given
+        Tracer tracer = tracer(Duration.ZERO, 3);
+        tracer.begin("GET", "/users/{id}/friends");
+        for (int i = 0; i < 5; i++) {
+            tracer.span("UserStorage.get", i).close();
+        }
+        SlowTrace first = tracer.finish(200);
+
+        // When
+        tracer.span("UserStorage.get", 1).close();
+        SlowTrace second = tracer.finish(200);
+
+        // Then
+        assertEquals(3, first.spans().size());
+        assertEquals(3, first.droppedSpans());
+        assertNull(second);
+        assertEquals(List.of(first), tracer.getSlowTraces(10));
+    }
+
+    @Test
+    void service_WhenFlightRecordingIsOn_ShouldEmitEventWithTraceId() throws IOException {
+        // Given
+        Tracer tracer = tracer(Duration.ZERO, 16);
+        Path file = directory.resolve("service.jfr");
+        SlowTrace trace;
+        try (Recording recording = new Recording()) {
+            recording.enable("ru.yandex.practicum.filmorate.ServiceCall").withThreshold(Duration.ZERO);
+            recording.start();
+
+            // When
+            tracer.begin("PUT", "/films/{filmId}/like/{userId}");
+            tracer.service("FilmService.addLike", 7).close();
+            trace = tracer.finish(204);
+            tracer.service("UserService.get", 3).close();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("ru.yandex.practicum.filmorate.ServiceCall"))
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                .toList();
+        assertEquals(List.of("FilmService.addLike", "UserService.get"),
+                events.stream().map(event -> event.getString("operation")).toList());
+        assertEquals(7, events.get(0).getInt("entityId"));
+        assertEquals(trace.id(), events.get(0).getLong("traceId"));
+        assertEquals(0, events.get(1).getLong("traceId"));
+    }
+
+    private static Tracer tracer(Duration slowThreshold, int maxSpans) {
+        return new Tracer(new TracingProperties(true, slowThreshold, maxSpans, 16), new SimpleMeterRegistry());
+    }
+}
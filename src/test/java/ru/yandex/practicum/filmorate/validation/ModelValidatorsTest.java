@@ -0,0 +1,92 @@
+package ru.yandex.practicum.filmorate.validation;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.models.Film;
+import ru.yandex.practicum.filmorate.models.User;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelValidatorsTest {
+
+    @Test
+    void validate_WithSeveralViolations_ShouldReportAllOfThem() {
+        // Given
+        Film film = new Film();
+        film.setName(" ");
+        film.setDescription("A".repeat(201));
+        film.setReleaseDate(LocalDate.of(1800, 1, 1));
+        film.setDuration(Duration.ofMinutes(-1));
+
+        // When
+        ValidationException exception = assertThrows(ValidationException.class, () -> ModelValidators.FILM.validate(film));
+
+        // Then
+        assertEquals(List.of(
+                "Название не может быть пустым",
+                "Описание не может быть длиннее 200 символов",
+                "Дата релиза не может быть раньше 1895-12-28",
+                "Продолжительность фильма не может быть отрицательной"
+        ), exception.getViolations());
+    }
+
+    @Test
+    void violations_WithEmptyEmail_ShouldNotReportMissingAt() {
+        // Given
+        User user = validUser();
+        user.setEmail("");
+        user.setLogin("with space");
+
+        // When
+        List<String> violations = ModelValidators.USER.violations(user);
+
+        // Then
+        assertEquals(List.of("Электронная почта не может быть пустой", "Логин не должен содержать пробелы"), violations);
+    }
+
+    @Test
+    void validate_WithValidEntities_ShouldNotAllocate() {
+        // Given
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Film film = validFilm();
+        User user = validUser();
+        for (int i = 0; i < 10_000; i++) {
+            ModelValidators.FILM.validate(film);
+            ModelValidators.USER.validate(user);
+        }
+
+        // When
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            ModelValidators.FILM.validate(film);
+            ModelValidators.USER.validate(user);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // Then
+        assertTrue(allocated < 1024, "Выделено байт: " + allocated);
+    }
+
+    private static Film validFilm() {
+        Film film = new Film();
+        film.setName("Valid Film");
+        film.setDescription("This is a valid film description");
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(Duration.ofMinutes(120));
+        return film;
+    }
+
+    private static User validUser() {
+        User user = new User();
+        user.setEmail("user@example.com");
+        user.setLogin("login");
+        user.setName("Name");
+        user.setBirthday(LocalDate.of(2000, 1, 1));
+        return user;
+    }
+}